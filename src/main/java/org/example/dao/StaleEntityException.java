@@ -0,0 +1,12 @@
+package org.example.dao;
+
+/**
+ * Thrown when an update carries a version that is no longer the stored one, because another update
+ * got there first or the entity was deleted.
+ */
+public class StaleEntityException extends IllegalStateException {
+
+    public StaleEntityException(String message) {
+        super(message);
+    }
+}
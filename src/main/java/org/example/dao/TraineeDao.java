@@ -2,13 +2,19 @@ package org.example.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Trainee;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
@@ -28,10 +34,37 @@ public class TraineeDao {
         return trainee;
     }
 
+    /**
+     * Inserts a batch of new trainees under a freshly reserved id range, all at once: if any is rejected,
+     * e.g. for a duplicate user, none is stored.
+     */
+    public List<Trainee> createAll(List<Trainee> trainees) {
+        long first = storage.reserveTraineeIds(trainees.size());
+        Map<Long, Trainee> batch = new LinkedHashMap<>();
+        for (Trainee trainee : trainees) {
+            long id = first + batch.size();
+            trainee.setTraineeId(id);
+            batch.put(id, trainee);
+        }
+        storage.getTraineeStorage().putAll(batch);
+        log.info("Created {} trainees with ids {} to {}", batch.size(), first, first + batch.size() - 1);
+        return trainees;
+    }
+
+    /**
+     * Stores a copy of {@code trainee} at the next version, provided the stored trainee is still at the version
+     * {@code trainee} carries; otherwise throws {@link StaleEntityException} and stores nothing.
+     */
     public Trainee update(Trainee trainee) {
-        storage.getTraineeStorage().put(trainee.getTraineeId(), trainee);
-        log.info("Updated trainee with id: {}", trainee.getTraineeId());
-        return trainee;
+        Long id = trainee.getTraineeId();
+        long expected = trainee.getVersion();
+        Trainee next = new Trainee(id, trainee.getDateOfBirth(), trainee.getAddress(), trainee.getUserId(),
+                expected + 1);
+        if (!storage.getTraineeStorage().replaceIf(id, t -> t.getVersion() == expected, next)) {
+            throw new StaleEntityException("Trainee " + id + " is no longer at version " + expected);
+        }
+        log.info("Updated trainee with id: {}", id);
+        return next;
     }
 
     public void delete(Long id) {
@@ -44,12 +77,41 @@ public class TraineeDao {
     }
 
     public Optional<Trainee> findByUserId(Long userId) {
-        return storage.getTraineeStorage().values().stream()
-                .filter(t -> t.getUserId().equals(userId))
-                .findFirst();
+        Long id = storage.getTraineeUserIndex().find(userId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(storage.getTraineeStorage().get(id))
+                .filter(t -> userId.equals(t.getUserId()));
     }
 
     public List<Trainee> findAll() {
         return new ArrayList<>(storage.getTraineeStorage().values());
     }
+
+    /**
+     * Up to {@code limit} trainees in id order after {@code afterId}, or from the first when it is null.
+     */
+    public List<Trainee> findPage(Long afterId, int limit) {
+        return storage.getTraineeStorage().page(afterId == null ? -1 : afterId, limit);
+    }
+
+    /**
+     * All trainees, read lazily from storage; weakly consistent under concurrent writes, see {@link EntityStore#stream()}.
+     */
+    public Stream<Trainee> stream() {
+        return storage.getTraineeStorage().stream();
+    }
+
+    public Spliterator<Trainee> spliterator() {
+        return storage.getTraineeStorage().spliterator();
+    }
+
+    public Optional<Trainee> findById(StorageView view, Long id) {
+        return Optional.ofNullable(storage.getTraineeStorage().get(id, view));
+    }
+
+    public List<Trainee> findAll(StorageView view) {
+        return storage.getTraineeStorage().values(view).toList();
+    }
 }
\ No newline at end of file
@@ -2,13 +2,19 @@ package org.example.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Trainer;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
@@ -28,10 +34,36 @@ public class TrainerDao {
         return trainer;
     }
 
+    /**
+     * Inserts a batch of new trainers under a freshly reserved id range, all at once: if any is rejected,
+     * e.g. for a duplicate user, none is stored.
+     */
+    public List<Trainer> createAll(List<Trainer> trainers) {
+        long first = storage.reserveTrainerIds(trainers.size());
+        Map<Long, Trainer> batch = new LinkedHashMap<>();
+        for (Trainer trainer : trainers) {
+            long id = first + batch.size();
+            trainer.setTrainerId(id);
+            batch.put(id, trainer);
+        }
+        storage.getTrainerStorage().putAll(batch);
+        log.info("Created {} trainers with ids {} to {}", batch.size(), first, first + batch.size() - 1);
+        return trainers;
+    }
+
+    /**
+     * Stores a copy of {@code trainer} at the next version, provided the stored trainer is still at the version
+     * {@code trainer} carries; otherwise throws {@link StaleEntityException} and stores nothing.
+     */
     public Trainer update(Trainer trainer) {
-        storage.getTrainerStorage().put(trainer.getTrainerId(), trainer);
-        log.info("Updated trainer with id: {}", trainer.getTrainerId());
-        return trainer;
+        Long id = trainer.getTrainerId();
+        long expected = trainer.getVersion();
+        Trainer next = new Trainer(id, trainer.getSpecialization(), trainer.getUserId(), expected + 1);
+        if (!storage.getTrainerStorage().replaceIf(id, t -> t.getVersion() == expected, next)) {
+            throw new StaleEntityException("Trainer " + id + " is no longer at version " + expected);
+        }
+        log.info("Updated trainer with id: {}", id);
+        return next;
     }
 
     public void delete(Long id) {
@@ -44,12 +76,41 @@ public class TrainerDao {
     }
 
     public Optional<Trainer> findByUserId(Long userId) {
-        return storage.getTrainerStorage().values().stream()
-                .filter(t -> t.getUserId().equals(userId))
-                .findFirst();
+        Long id = storage.getTrainerUserIndex().find(userId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(storage.getTrainerStorage().get(id))
+                .filter(t -> userId.equals(t.getUserId()));
     }
 
     public List<Trainer> findAll() {
         return new ArrayList<>(storage.getTrainerStorage().values());
     }
+
+    /**
+     * Up to {@code limit} trainers in id order after {@code afterId}, or from the first when it is null.
+     */
+    public List<Trainer> findPage(Long afterId, int limit) {
+        return storage.getTrainerStorage().page(afterId == null ? -1 : afterId, limit);
+    }
+
+    /**
+     * All trainers, read lazily from storage; weakly consistent under concurrent writes, see {@link EntityStore#stream()}.
+     */
+    public Stream<Trainer> stream() {
+        return storage.getTrainerStorage().stream();
+    }
+
+    public Spliterator<Trainer> spliterator() {
+        return storage.getTrainerStorage().spliterator();
+    }
+
+    public Optional<Trainer> findById(StorageView view, Long id) {
+        return Optional.ofNullable(storage.getTrainerStorage().get(id, view));
+    }
+
+    public List<Trainer> findAll(StorageView view) {
+        return storage.getTrainerStorage().values(view).toList();
+    }
 }
\ No newline at end of file
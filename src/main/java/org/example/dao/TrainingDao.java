@@ -2,13 +2,22 @@ package org.example.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Training;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.example.storage.TrainingTotals;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
@@ -22,6 +31,7 @@ public class TrainingDao {
     }
 
     public Training create(Training training) {
+        checkType(training);
         Long id = storage.getNextTrainingId();
         training.setTrainingId(id);
         storage.getTrainingStorage().put(id, training);
@@ -30,6 +40,7 @@ public class TrainingDao {
     }
 
     public Training update(Training training) {
+        checkType(training);
         storage.getTrainingStorage().put(training.getTrainingId(), training);
         log.info("Updated training with id: {}", training.getTrainingId());
         return training;
@@ -45,18 +56,130 @@ public class TrainingDao {
     }
 
     public List<Training> findByTraineeId(Long traineeId) {
-        return storage.getTrainingStorage().values().stream()
-                .filter(t -> t.getTraineeId().equals(traineeId))
-                .toList();
+        return resolve(storage.getTraineeTrainingIndex().find(traineeId),
+                t -> traineeId.equals(t.getTraineeId()));
     }
 
     public List<Training> findByTrainerId(Long trainerId) {
-        return storage.getTrainingStorage().values().stream()
-                .filter(t -> t.getTrainerId().equals(trainerId))
-                .toList();
+        return resolve(storage.getTrainerTrainingIndex().find(trainerId),
+                t -> trainerId.equals(t.getTrainerId()));
+    }
+
+    public Stream<Training> findByDateRange(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return resolve(storage.getTrainingDateIndex().find(from, to), from, to);
+    }
+
+    public Stream<Training> findByTraineeAndDateRange(Long traineeId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (traineeId == null) {
+            return Stream.empty();
+        }
+        return resolve(storage.getTraineeTrainingDateIndex().find(traineeId, from, to), from, to)
+                .filter(t -> traineeId.equals(t.getTraineeId()));
+    }
+
+    public Stream<Training> findByTrainerAndDateRange(Long trainerId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (trainerId == null) {
+            return Stream.empty();
+        }
+        return resolve(storage.getTrainerTrainingDateIndex().find(trainerId, from, to), from, to)
+                .filter(t -> trainerId.equals(t.getTrainerId()));
+    }
+
+    public List<Training> findByType(String type) {
+        long[] ids = storage.findTrainingIdsByType(type);
+        List<Training> trainings = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Training training = storage.getTrainingStorage().get(id);
+            if (training != null && type.equals(training.getTrainingType())) {
+                trainings.add(training);
+            }
+        }
+        return trainings;
     }
 
     public List<Training> findAll() {
         return new ArrayList<>(storage.getTrainingStorage().values());
     }
+
+    /**
+     * Up to {@code limit} trainings in id order after {@code afterId}, or from the first when it is null.
+     */
+    public List<Training> findPage(Long afterId, int limit) {
+        return storage.getTrainingStorage().page(afterId == null ? -1 : afterId, limit);
+    }
+
+    /**
+     * All trainings, read lazily from storage; weakly consistent under concurrent writes, see {@link EntityStore#stream()}.
+     */
+    public Stream<Training> stream() {
+        return storage.getTrainingStorage().stream();
+    }
+
+    public Spliterator<Training> spliterator() {
+        return storage.getTrainingStorage().spliterator();
+    }
+
+    public Optional<Training> findById(StorageView view, Long id) {
+        return Optional.ofNullable(storage.getTrainingStorage().get(id, view));
+    }
+
+    public List<Training> findAll(StorageView view) {
+        return storage.getTrainingStorage().values(view).toList();
+    }
+
+    public Map<String, Long> totalDurationByType() {
+        return storage.getTrainingDurationByType();
+    }
+
+    /**
+     * Count, minutes and latest date of the trainee's trainings, kept up to date by every write.
+     */
+    public TrainingTotals totalsByTrainee(Long traineeId) {
+        return storage.getTrainingTotals().forTrainee(traineeId);
+    }
+
+    public TrainingTotals totalsByTrainer(Long trainerId) {
+        return storage.getTrainingTotals().forTrainer(trainerId);
+    }
+
+    public TrainingTotals totalsByType(String trainingType) {
+        return storage.getTrainingTotals().forType(trainingType);
+    }
+
+    private Stream<Training> resolve(Stream<Long> ids, LocalDate from, LocalDate to) {
+        return ids.map(storage.getTrainingStorage()::get)
+                .filter(t -> t != null && t.getTrainingDate() != null
+                        && !t.getTrainingDate().isBefore(from)
+                        && !t.getTrainingDate().isAfter(to));
+    }
+
+    /**
+     * Training types are coded through a dictionary that never shrinks, so only stored types are accepted.
+     */
+    private void checkType(Training training) {
+        String type = training.getTrainingType();
+        if (type != null && !storage.isTrainingType(type)) {
+            throw new IllegalArgumentException("Unknown training type: " + type);
+        }
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " - " + to);
+        }
+    }
+
+    private List<Training> resolve(Set<Long> ids, Predicate<Training> stillMatches) {
+        List<Training> trainings = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Training training = storage.getTrainingStorage().get(id);
+            if (training != null && stillMatches.test(training)) {
+                trainings.add(training);
+            }
+        }
+        return trainings;
+    }
 }
\ No newline at end of file
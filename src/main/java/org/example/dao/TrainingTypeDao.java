@@ -2,13 +2,17 @@ package org.example.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.TrainingType;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
@@ -21,18 +25,24 @@ public class TrainingTypeDao {
         this.storage = storage;
     }
 
+    /**
+     * Stores a new training type under the next id, with the shared instance of its name, and returns it;
+     * {@code trainingType} itself is left as it is.
+     */
     public TrainingType create(TrainingType trainingType) {
         Long id = storage.getNextTrainingTypeId();
-        trainingType.setTrainingTypeId(id);
-        storage.getTrainingTypeStorage().put(id, trainingType);
+        TrainingType stored = new TrainingType(id, storage.internTrainingType(trainingType.getTrainingTypeName()));
+        storage.getTrainingTypeStorage().put(id, stored);
         log.info("Created trainingType with id: {}", id);
-        return trainingType;
+        return stored;
     }
 
     public TrainingType update(TrainingType trainingType) {
-        storage.getTrainingTypeStorage().put(trainingType.getTrainingTypeId(), trainingType);
-        log.info("Updated trainingType with id: {}", trainingType.getTrainingTypeId());
-        return trainingType;
+        TrainingType stored = new TrainingType(trainingType.getTrainingTypeId(),
+                storage.internTrainingType(trainingType.getTrainingTypeName()));
+        storage.getTrainingTypeStorage().put(stored.getTrainingTypeId(), stored);
+        log.info("Updated trainingType with id: {}", stored.getTrainingTypeId());
+        return stored;
     }
 
     public void delete(Long id) {
@@ -45,12 +55,49 @@ public class TrainingTypeDao {
     }
 
     public Optional<TrainingType> findByName(String name) {
-        return storage.getTrainingTypeStorage().values().stream()
-                .filter(t -> t.getTrainingTypeName().equals(name))
-                .findFirst();
+        Long id = storage.getTrainingTypeNameIndex().find(name);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(storage.getTrainingTypeStorage().get(id))
+                .filter(t -> name.equals(t.getTrainingTypeName()));
+    }
+
+    /**
+     * The shared instance of a type name, for records such as trainer specializations that carry it as text;
+     * text that names no training type is returned as it is.
+     */
+    public String intern(String name) {
+        return storage.canonicalTrainingType(name);
     }
 
     public List<TrainingType> findAll() {
         return new ArrayList<>(storage.getTrainingTypeStorage().values());
     }
+
+    /**
+     * Up to {@code limit} training types in id order after {@code afterId}, or from the first when it is null.
+     */
+    public List<TrainingType> findPage(Long afterId, int limit) {
+        return storage.getTrainingTypeStorage().page(afterId == null ? -1 : afterId, limit);
+    }
+
+    /**
+     * All training types, read lazily from storage; weakly consistent under concurrent writes, see {@link EntityStore#stream()}.
+     */
+    public Stream<TrainingType> stream() {
+        return storage.getTrainingTypeStorage().stream();
+    }
+
+    public Spliterator<TrainingType> spliterator() {
+        return storage.getTrainingTypeStorage().spliterator();
+    }
+
+    public Optional<TrainingType> findById(StorageView view, Long id) {
+        return Optional.ofNullable(storage.getTrainingTypeStorage().get(id, view));
+    }
+
+    public List<TrainingType> findAll(StorageView view) {
+        return storage.getTrainingTypeStorage().values(view).toList();
+    }
 }
\ No newline at end of file
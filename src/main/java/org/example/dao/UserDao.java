@@ -2,39 +2,99 @@ package org.example.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.User;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.example.utils.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Repository
 @Slf4j
 public class UserDao {
 
     private InMemoryStorage storage;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     public void setStorage(InMemoryStorage storage) {
         this.storage = storage;
     }
 
+    @Autowired
+    public void setPasswordHasher(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
+    }
+
+    /**
+     * Stores {@code user} under a new id, which is also set on {@code user}. The store keeps its own copy,
+     * as it does on every write. Here and in the other writes a password must be a hash.
+     * If the user is not stored, the suffix claimed for its username is released.
+     */
     public User create(User user) {
-        Long id = storage.getNextUserId();
-        user.setUserId(id);
-        storage.getUserStorage().put(id, user);
+        Long id;
+        try {
+            checkPassword(user.getPassword());
+            id = storage.getNextUserId();
+            user.setUserId(id);
+            storage.getUserStorage().put(id, user);
+        } catch (RuntimeException e) {
+            storage.getUsernameSuffixIndex().release(user.getUsername());
+            throw e;
+        }
         log.info("Created user with id: {}, username: {}", id, user.getUsername());
         return user;
     }
 
+    /**
+     * Inserts a batch of new users under a freshly reserved id range, all at once: if any is rejected,
+     * e.g. for a duplicate username, none is stored and the suffixes claimed for their usernames are released.
+     */
+    public List<User> createAll(List<User> users) {
+        Map<Long, User> batch = new LinkedHashMap<>();
+        long first;
+        try {
+            users.forEach(user -> checkPassword(user.getPassword()));
+            first = storage.reserveUserIds(users.size());
+            for (User user : users) {
+                long id = first + batch.size();
+                user.setUserId(id);
+                batch.put(id, user);
+            }
+            storage.getUserStorage().putAll(batch);
+        } catch (RuntimeException e) {
+            users.forEach(user -> storage.getUsernameSuffixIndex().release(user.getUsername()));
+            throw e;
+        }
+        log.info("Created {} users with ids {} to {}", batch.size(), first, first + batch.size() - 1);
+        return users;
+    }
+
     public User update(User user) {
+        checkPassword(user.getPassword());
         storage.getUserStorage().put(user.getUserId(), user);
         log.info("Updated user with id: {}", user.getUserId());
         return user;
     }
 
+    /**
+     * Stores {@code user} with a new password, unless it has been changed or deleted since it was read.
+     */
+    public boolean replacePassword(User user, String password) {
+        checkPassword(password);
+        User next = new User(user.getUserId(), user.getFirstName(), user.getLastName(), user.getUsername(),
+                password, user.isActive());
+        return storage.getUserStorage().replaceIf(user.getUserId(), user::equals, next);
+    }
+
     public void delete(Long id) {
         storage.getUserStorage().remove(id);
         log.info("Deleted user with id: {}", id);
@@ -45,17 +105,58 @@ public class UserDao {
     }
 
     public Optional<User> findByUsername(String username) {
-        return storage.getUserStorage().values().stream()
-                .filter(u -> u.getUsername().equals(username))
-                .findFirst();
+        Long id = storage.getUsernameIndex().find(username);
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(storage.getUserStorage().get(id))
+                .filter(u -> username.equals(u.getUsername()));
     }
 
     public List<User> findAll() {
         return new ArrayList<>(storage.getUserStorage().values());
     }
 
+    /**
+     * Up to {@code limit} users in id order after {@code afterId}, or from the first when it is null.
+     */
+    public List<User> findPage(Long afterId, int limit) {
+        return storage.getUserStorage().page(afterId == null ? -1 : afterId, limit);
+    }
+
+    /**
+     * All users, read lazily from storage; weakly consistent under concurrent writes, see {@link EntityStore#stream()}.
+     */
+    public Stream<User> stream() {
+        return storage.getUserStorage().stream();
+    }
+
+    public Spliterator<User> spliterator() {
+        return storage.getUserStorage().spliterator();
+    }
+
     public boolean existsByUsername(String username) {
-        return storage.getUserStorage().values().stream()
-                .anyMatch(u -> u.getUsername().equals(username));
+        return storage.getUsernameIndex().contains(username);
+    }
+
+    /**
+     * Claims the next numeric suffix for usernames made from {@code stem}, above any stored or claimed before.
+     */
+    public long claimUsernameSuffix(String stem) {
+        return storage.getUsernameSuffixIndex().claim(stem);
+    }
+
+    public Optional<User> findById(StorageView view, Long id) {
+        return Optional.ofNullable(storage.getUserStorage().get(id, view));
+    }
+
+    public List<User> findAll(StorageView view) {
+        return storage.getUserStorage().values(view).toList();
+    }
+
+    private void checkPassword(String password) {
+        if (password != null && !passwordHasher.isHashed(password)) {
+            throw new IllegalArgumentException("Password must be stored hashed");
+        }
     }
 }
\ No newline at end of file
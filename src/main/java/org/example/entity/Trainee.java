@@ -20,4 +20,9 @@ public class Trainee {
     private LocalDate dateOfBirth;
     private String address;
     private Long userId;
+    private long version;
+
+    public Trainee(Long traineeId, LocalDate dateOfBirth, String address, Long userId) {
+        this(traineeId, dateOfBirth, address, userId, 0);
+    }
 }
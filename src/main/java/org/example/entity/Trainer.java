@@ -17,4 +17,9 @@ public class Trainer {
     private Long trainerId;
     private String specialization;
     private Long userId;
+    private long version;
+
+    public Trainer(Long trainerId, String specialization, Long userId) {
+        this(trainerId, specialization, userId, 0);
+    }
 }
@@ -4,14 +4,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Trainee;
 import org.example.entity.Trainer;
 import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.entity.User;
+import org.example.service.SnapshotService;
+import org.example.service.TraineeRegistration;
 import org.example.service.TraineeService;
+import org.example.service.TrainerRegistration;
 import org.example.service.TrainerService;
 import org.example.service.TrainingService;
+import org.example.service.UserService;
+import org.example.storage.StorageView;
+import org.example.storage.TrainingTotals;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Component
 @Slf4j
@@ -20,13 +29,44 @@ public class GymFacade {
     private final TraineeService traineeService;
     private final TrainerService trainerService;
     private final TrainingService trainingService;
+    private final SnapshotService snapshotService;
+    private final UserService userService;
 
     public GymFacade(TraineeService traineeService,
                      TrainerService trainerService,
-                     TrainingService trainingService) {
+                     TrainingService trainingService,
+                     SnapshotService snapshotService,
+                     UserService userService) {
         this.traineeService = traineeService;
         this.trainerService = trainerService;
         this.trainingService = trainingService;
+        this.snapshotService = snapshotService;
+        this.userService = userService;
+    }
+
+    public boolean authenticate(String username, String password) {
+        log.info("Facade: authenticating user {}", username);
+        return userService.authenticate(username, password);
+    }
+
+    /**
+     * Opens a consistent view of all trainees, trainers and trainings for the select methods taking one;
+     * close it when done.
+     */
+    public StorageView openSnapshot() {
+        return snapshotService.open();
+    }
+
+    public List<User> selectUserPage(Long afterUserId, int limit) {
+        return userService.selectPage(afterUserId, limit);
+    }
+
+    public Optional<User> selectUser(StorageView view, Long userId) {
+        return userService.select(view, userId);
+    }
+
+    public List<User> selectAllUsers(StorageView view) {
+        return userService.selectAll(view);
     }
 
     public Trainee createTrainee(String firstName, String lastName, LocalDate dateOfBirth, String address) {
@@ -34,11 +74,21 @@ public class GymFacade {
         return traineeService.create(firstName, lastName, dateOfBirth, address);
     }
 
+    public List<Trainee> createTrainees(List<TraineeRegistration> registrations) {
+        log.info("Facade: creating {} trainees", registrations.size());
+        return traineeService.createAll(registrations);
+    }
+
     public Trainee updateTrainee(Long traineeId, LocalDate dateOfBirth, String address) {
         log.info("Facade: updating trainee with id: {}", traineeId);
         return traineeService.update(traineeId, dateOfBirth, address);
     }
 
+    public Trainee updateTrainee(Long traineeId, long version, LocalDate dateOfBirth, String address) {
+        log.info("Facade: updating trainee with id: {} at version {}", traineeId, version);
+        return traineeService.update(traineeId, version, dateOfBirth, address);
+    }
+
     public void deleteTrainee(Long traineeId) {
         log.info("Facade: deleting trainee with id: {}", traineeId);
         traineeService.delete(traineeId);
@@ -52,16 +102,38 @@ public class GymFacade {
         return traineeService.selectAll();
     }
 
+    public List<Trainee> selectTraineePage(Long afterTraineeId, int limit) {
+        return traineeService.selectPage(afterTraineeId, limit);
+    }
+
+    public Optional<Trainee> selectTrainee(StorageView view, Long traineeId) {
+        return traineeService.select(view, traineeId);
+    }
+
+    public List<Trainee> selectAllTrainees(StorageView view) {
+        return traineeService.selectAll(view);
+    }
+
     public Trainer createTrainer(String firstName, String lastName, String specialization) {
         log.info("Facade: creating trainer {} {}", firstName, lastName);
         return trainerService.create(firstName, lastName, specialization);
     }
 
+    public List<Trainer> createTrainers(List<TrainerRegistration> registrations) {
+        log.info("Facade: creating {} trainers", registrations.size());
+        return trainerService.createAll(registrations);
+    }
+
     public Trainer updateTrainer(Long trainerId, String specialization) {
         log.info("Facade: updating trainer with id: {}", trainerId);
         return trainerService.update(trainerId, specialization);
     }
 
+    public Trainer updateTrainer(Long trainerId, long version, String specialization) {
+        log.info("Facade: updating trainer with id: {} at version {}", trainerId, version);
+        return trainerService.update(trainerId, version, specialization);
+    }
+
     public Optional<Trainer> selectTrainer(Long trainerId) {
         return trainerService.select(trainerId);
     }
@@ -70,6 +142,18 @@ public class GymFacade {
         return trainerService.selectAll();
     }
 
+    public List<Trainer> selectTrainerPage(Long afterTrainerId, int limit) {
+        return trainerService.selectPage(afterTrainerId, limit);
+    }
+
+    public Optional<Trainer> selectTrainer(StorageView view, Long trainerId) {
+        return trainerService.select(view, trainerId);
+    }
+
+    public List<Trainer> selectAllTrainers(StorageView view) {
+        return trainerService.selectAll(view);
+    }
+
     public Training createTraining(Long traineeId, Long trainerId, String name,
                                    String type, int duration, LocalDate date) {
         log.info("Facade: creating training '{}'", name);
@@ -83,4 +167,56 @@ public class GymFacade {
     public List<Training> selectAllTrainings() {
         return trainingService.selectAll();
     }
+
+    public List<Training> selectTrainingPage(Long afterTrainingId, int limit) {
+        return trainingService.selectPage(afterTrainingId, limit);
+    }
+
+    public Optional<Training> selectTraining(StorageView view, Long trainingId) {
+        return trainingService.select(view, trainingId);
+    }
+
+    public List<Training> selectAllTrainings(StorageView view) {
+        return trainingService.selectAll(view);
+    }
+
+    public List<TrainingType> selectTrainingTypePage(Long afterTrainingTypeId, int limit) {
+        return trainingService.selectTypePage(afterTrainingTypeId, limit);
+    }
+
+    public Optional<TrainingType> selectTrainingType(StorageView view, Long trainingTypeId) {
+        return trainingService.selectType(view, trainingTypeId);
+    }
+
+    public List<TrainingType> selectAllTrainingTypes(StorageView view) {
+        return trainingService.selectAllTypes(view);
+    }
+
+    public List<Training> selectTrainingsByType(String type) {
+        return trainingService.selectByType(type);
+    }
+
+    public Stream<Training> selectTrainingsByDateRange(LocalDate from, LocalDate to) {
+        return trainingService.selectByDateRange(from, to);
+    }
+
+    public Stream<Training> selectTraineeTrainingsByDateRange(Long traineeId, LocalDate from, LocalDate to) {
+        return trainingService.selectByTraineeAndDateRange(traineeId, from, to);
+    }
+
+    public Stream<Training> selectTrainerTrainingsByDateRange(Long trainerId, LocalDate from, LocalDate to) {
+        return trainingService.selectByTrainerAndDateRange(trainerId, from, to);
+    }
+
+    public TrainingTotals selectTraineeTrainingTotals(Long traineeId) {
+        return trainingService.selectTotalsByTrainee(traineeId);
+    }
+
+    public TrainingTotals selectTrainerTrainingTotals(Long trainerId) {
+        return trainingService.selectTotalsByTrainer(trainerId);
+    }
+
+    public TrainingTotals selectTrainingTotalsByType(String type) {
+        return trainingService.selectTotalsByType(type);
+    }
 }
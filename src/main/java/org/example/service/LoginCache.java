@@ -0,0 +1,97 @@
+package org.example.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins verified recently, so that a repeat login within the time to live skips the password hash.
+ * An entry keeps an HMAC of the password under a key that never leaves the process, not the password itself,
+ * along with the stored hash it was verified against, so a changed password no longer matches.
+ * When full, expired entries are dropped first, then an eighth of the rest in no particular order.
+ */
+final class LoginCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    private volatile int maxSize = 10_000;
+    private volatile long ttlNanos = TimeUnit.MINUTES.toNanos(5);
+
+    LoginCache() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    private record Entry(String stored, byte[] digest, long expiresAt) {
+    }
+
+    void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        if (maxSize <= 0) {
+            entries.clear();
+        }
+    }
+
+    void setTtl(long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    boolean contains(String username, String stored, String password) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return false;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0 || !entry.stored().equals(stored)) {
+            entries.remove(username, entry);
+            return false;
+        }
+        return MessageDigest.isEqual(entry.digest(), digest(password));
+    }
+
+    void put(String username, String stored, String password) {
+        int limit = maxSize;
+        if (limit <= 0) {
+            return;
+        }
+        if (entries.size() >= limit && !entries.containsKey(username)) {
+            evict(limit);
+        }
+        entries.put(username, new Entry(stored, digest(password), System.nanoTime() + ttlNanos));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(int limit) {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+        int excess = entries.size() - limit + Math.max(1, limit / 8);
+        for (Iterator<String> it = entries.keySet().iterator(); excess > 0 && it.hasNext(); excess--) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private byte[] digest(String password) {
+        return macs.get().doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No HmacSHA256 available", e);
+        }
+    }
+}
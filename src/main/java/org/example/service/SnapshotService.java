@@ -0,0 +1,30 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Opens consistent point-in-time views for reads that span many entities, such as reports.
+ * Reads through a view take no locks and never see a write made after it was opened;
+ * close it when done, since the storage keeps old versions alive for it.
+ */
+@Service
+@Slf4j
+public class SnapshotService {
+
+    private InMemoryStorage storage;
+
+    @Autowired
+    public void setStorage(InMemoryStorage storage) {
+        this.storage = storage;
+    }
+
+    public StorageView open() {
+        StorageView view = storage.openView();
+        log.debug("Opened storage view at version {}", view.version());
+        return view;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.service;
+
+import java.time.LocalDate;
+
+/**
+ * One new trainee for {@link TraineeService#createAll}.
+ */
+public record TraineeRegistration(String firstName, String lastName, LocalDate dateOfBirth, String address) {
+}
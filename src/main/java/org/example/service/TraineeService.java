@@ -1,15 +1,21 @@
 package org.example.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.dao.StaleEntityException;
 import org.example.dao.TraineeDao;
 import org.example.entity.Trainee;
 import org.example.entity.User;
+import org.example.storage.StorageView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -17,6 +23,7 @@ public class TraineeService {
 
     private TraineeDao traineeDao;
     private UserService userService;
+    private int updateRetries;
 
     @Autowired
     public void setTraineeDao(TraineeDao traineeDao) {
@@ -28,6 +35,14 @@ public class TraineeService {
         this.userService = userService;
     }
 
+    /**
+     * How many times {@link #update(Long, LocalDate, String)} starts over when another update got in first.
+     */
+    @Value("${service.update.retries:3}")
+    public void setUpdateRetries(int updateRetries) {
+        this.updateRetries = updateRetries;
+    }
+
     public Trainee create(String firstName, String lastName, LocalDate dateOfBirth, String address) {
         User user = userService.createUser(firstName, lastName);
 
@@ -40,14 +55,64 @@ public class TraineeService {
         return traineeDao.create(trainee);
     }
 
+    /**
+     * Creates many trainees and their users with one id reservation and one insert per store.
+     */
+    public List<Trainee> createAll(List<TraineeRegistration> registrations) {
+        if (registrations.isEmpty()) {
+            return List.of();
+        }
+        List<User> users = new ArrayList<>(registrations.size());
+        for (TraineeRegistration registration : registrations) {
+            User user = new User();
+            user.setFirstName(registration.firstName());
+            user.setLastName(registration.lastName());
+            users.add(user);
+        }
+        userService.createAll(users);
+
+        List<Trainee> trainees = new ArrayList<>(registrations.size());
+        for (int i = 0; i < registrations.size(); i++) {
+            TraineeRegistration registration = registrations.get(i);
+            trainees.add(new Trainee(null, registration.dateOfBirth(), registration.address(),
+                    users.get(i).getUserId()));
+        }
+        log.info("Creating {} trainees", trainees.size());
+        return traineeDao.createAll(trainees);
+    }
+
+    /**
+     * Sets the trainee's fields whatever its version, re-reading it and trying again when a concurrent update wins.
+     */
     public Trainee update(Long traineeId, LocalDate dateOfBirth, String address) {
-        Trainee trainee = traineeDao.findById(traineeId)
+        for (int attempt = 0; ; attempt++) {
+            Trainee current = traineeDao.findById(traineeId)
+                    .orElseThrow(() -> new IllegalArgumentException("Trainee not found: " + traineeId));
+            try {
+                return write(current, current.getVersion(), dateOfBirth, address);
+            } catch (StaleEntityException e) {
+                if (attempt >= updateRetries) {
+                    throw e;
+                }
+                log.debug("Retrying update of trainee {} after a concurrent change", traineeId);
+            }
+        }
+    }
+
+    /**
+     * Sets the trainee's fields only if it is still at {@code version}, the one the caller based its edit on.
+     */
+    public Trainee update(Long traineeId, long version, LocalDate dateOfBirth, String address) {
+        Trainee current = traineeDao.findById(traineeId)
                 .orElseThrow(() -> new IllegalArgumentException("Trainee not found: " + traineeId));
+        return write(current, version, dateOfBirth, address);
+    }
 
-        trainee.setDateOfBirth(dateOfBirth);
-        trainee.setAddress(address);
+    private Trainee write(Trainee current, long version, LocalDate dateOfBirth, String address) {
+        // stored trainees are shared with readers, so the update goes in as a new object
+        Trainee trainee = new Trainee(current.getTraineeId(), dateOfBirth, address, current.getUserId(), version);
 
-        log.info("Updating trainee with id: {}", traineeId);
+        log.info("Updating trainee with id: {}", current.getTraineeId());
         return traineeDao.update(trainee);
     }
 
@@ -63,4 +128,32 @@ public class TraineeService {
     public List<Trainee> selectAll() {
         return traineeDao.findAll();
     }
+
+    /**
+     * A page of trainees in id order after {@code afterId}, or from the first when it is null;
+     * the last id of a page is the cursor for the next.
+     */
+    public List<Trainee> selectPage(Long afterId, int limit) {
+        return traineeDao.findPage(afterId, limit);
+    }
+
+    /**
+     * All trainees, streamed lazily from storage rather than copied; see {@link TraineeDao#stream()}.
+     * It splits evenly when run in parallel.
+     */
+    public Stream<Trainee> stream() {
+        return traineeDao.stream();
+    }
+
+    public Spliterator<Trainee> spliterator() {
+        return traineeDao.spliterator();
+    }
+
+    public Optional<Trainee> select(StorageView view, Long traineeId) {
+        return traineeDao.findById(view, traineeId);
+    }
+
+    public List<Trainee> selectAll(StorageView view) {
+        return traineeDao.findAll(view);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package org.example.service;
+
+/**
+ * One new trainer for {@link TrainerService#createAll}.
+ */
+public record TrainerRegistration(String firstName, String lastName, String specialization) {
+}
@@ -1,14 +1,21 @@
 package org.example.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.dao.StaleEntityException;
 import org.example.dao.TrainerDao;
+import org.example.dao.TrainingTypeDao;
 import org.example.entity.Trainer;
 import org.example.entity.User;
+import org.example.storage.StorageView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -16,6 +23,8 @@ public class TrainerService {
 
     private TrainerDao trainerDao;
     private UserService userService;
+    private TrainingTypeDao trainingTypeDao;
+    private int updateRetries;
 
     @Autowired
     public void setTrainerDao(TrainerDao trainerDao) {
@@ -27,24 +36,89 @@ public class TrainerService {
         this.userService = userService;
     }
 
+    @Autowired
+    public void setTrainingTypeDao(TrainingTypeDao trainingTypeDao) {
+        this.trainingTypeDao = trainingTypeDao;
+    }
+
+    /**
+     * How many times {@link #update(Long, String)} starts over when another update got in first.
+     */
+    @Value("${service.update.retries:3}")
+    public void setUpdateRetries(int updateRetries) {
+        this.updateRetries = updateRetries;
+    }
+
     public Trainer create(String firstName, String lastName, String specialization) {
         User user = userService.createUser(firstName, lastName);
 
         Trainer trainer = new Trainer();
         trainer.setUserId(user.getUserId());
-        trainer.setSpecialization(specialization);
+        trainer.setSpecialization(trainingTypeDao.intern(specialization));
 
         log.info("Creating trainer for user: {}", user.getUsername());
         return trainerDao.create(trainer);
     }
 
+    /**
+     * Creates many trainers and their users with one id reservation and one insert per store.
+     */
+    public List<Trainer> createAll(List<TrainerRegistration> registrations) {
+        if (registrations.isEmpty()) {
+            return List.of();
+        }
+        List<User> users = new ArrayList<>(registrations.size());
+        for (TrainerRegistration registration : registrations) {
+            User user = new User();
+            user.setFirstName(registration.firstName());
+            user.setLastName(registration.lastName());
+            users.add(user);
+        }
+        userService.createAll(users);
+
+        List<Trainer> trainers = new ArrayList<>(registrations.size());
+        for (int i = 0; i < registrations.size(); i++) {
+            trainers.add(new Trainer(null, trainingTypeDao.intern(registrations.get(i).specialization()),
+                    users.get(i).getUserId()));
+        }
+        log.info("Creating {} trainers", trainers.size());
+        return trainerDao.createAll(trainers);
+    }
+
+    /**
+     * Sets the specialization whatever the trainer's version, re-reading it and trying again when a concurrent
+     * update wins.
+     */
     public Trainer update(Long trainerId, String specialization) {
-        Trainer trainer = trainerDao.findById(trainerId)
+        for (int attempt = 0; ; attempt++) {
+            Trainer current = trainerDao.findById(trainerId)
+                    .orElseThrow(() -> new IllegalArgumentException("Trainer not found: " + trainerId));
+            try {
+                return write(current, current.getVersion(), specialization);
+            } catch (StaleEntityException e) {
+                if (attempt >= updateRetries) {
+                    throw e;
+                }
+                log.debug("Retrying update of trainer {} after a concurrent change", trainerId);
+            }
+        }
+    }
+
+    /**
+     * Sets the specialization only if the trainer is still at {@code version}, the one the caller based its edit on.
+     */
+    public Trainer update(Long trainerId, long version, String specialization) {
+        Trainer current = trainerDao.findById(trainerId)
                 .orElseThrow(() -> new IllegalArgumentException("Trainer not found: " + trainerId));
+        return write(current, version, specialization);
+    }
 
-        trainer.setSpecialization(specialization);
+    private Trainer write(Trainer current, long version, String specialization) {
+        // stored trainers are shared with readers, so the update goes in as a new object
+        Trainer trainer = new Trainer(current.getTrainerId(), trainingTypeDao.intern(specialization),
+                current.getUserId(), version);
 
-        log.info("Updating trainer with id: {}", trainerId);
+        log.info("Updating trainer with id: {}", current.getTrainerId());
         return trainerDao.update(trainer);
     }
 
@@ -55,4 +129,32 @@ public class TrainerService {
     public List<Trainer> selectAll() {
         return trainerDao.findAll();
     }
+
+    /**
+     * A page of trainers in id order after {@code afterId}, or from the first when it is null;
+     * the last id of a page is the cursor for the next.
+     */
+    public List<Trainer> selectPage(Long afterId, int limit) {
+        return trainerDao.findPage(afterId, limit);
+    }
+
+    /**
+     * All trainers, streamed lazily from storage rather than copied; see {@link TrainerDao#stream()}.
+     * It splits evenly when run in parallel.
+     */
+    public Stream<Trainer> stream() {
+        return trainerDao.stream();
+    }
+
+    public Spliterator<Trainer> spliterator() {
+        return trainerDao.spliterator();
+    }
+
+    public Optional<Trainer> select(StorageView view, Long trainerId) {
+        return trainerDao.findById(view, trainerId);
+    }
+
+    public List<Trainer> selectAll(StorageView view) {
+        return trainerDao.findAll(view);
+    }
 }
\ No newline at end of file
@@ -2,32 +2,46 @@ package org.example.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.dao.TrainingDao;
+import org.example.dao.TrainingTypeDao;
 import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.storage.StorageView;
+import org.example.storage.TrainingTotals;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class TrainingService {
     private TrainingDao trainingDao;
+    private TrainingTypeDao trainingTypeDao;
 
     @Autowired
     public void setTrainingDao(TrainingDao trainingDao) {
         this.trainingDao = trainingDao;
     }
 
+    @Autowired
+    public void setTrainingTypeDao(TrainingTypeDao trainingTypeDao) {
+        this.trainingTypeDao = trainingTypeDao;
+    }
+
     public Training create(Long traineeId, Long trainerId, String trainingName,
                            String trainingType, int duration, LocalDate date) {
+        TrainingType type = trainingTypeDao.findByName(trainingType)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown training type: " + trainingType));
 
         Training training = new Training();
         training.setTraineeId(traineeId);
         training.setTrainerId(trainerId);
         training.setTrainingName(trainingName);
-        training.setTrainingType(trainingType);
+        training.setTrainingType(type.getTrainingTypeName());
         training.setTrainingDuration(duration);
         training.setTrainingDate(date);
 
@@ -43,6 +57,60 @@ public class TrainingService {
         return trainingDao.findAll();
     }
 
+    /**
+     * A page of trainings in id order after {@code afterId}, or from the first when it is null;
+     * the last id of a page is the cursor for the next.
+     */
+    public List<Training> selectPage(Long afterId, int limit) {
+        return trainingDao.findPage(afterId, limit);
+    }
+
+    /**
+     * All trainings, streamed lazily from storage rather than copied; see {@link TrainingDao#stream()}.
+     * It splits evenly when run in parallel.
+     */
+    public Stream<Training> stream() {
+        return trainingDao.stream();
+    }
+
+    public Spliterator<Training> spliterator() {
+        return trainingDao.spliterator();
+    }
+
+    public Optional<Training> select(StorageView view, Long trainingId) {
+        return trainingDao.findById(view, trainingId);
+    }
+
+    public List<Training> selectAll(StorageView view) {
+        return trainingDao.findAll(view);
+    }
+
+    /**
+     * A page of training types in id order after {@code afterId}, or from the first when it is null.
+     */
+    public List<TrainingType> selectTypePage(Long afterId, int limit) {
+        return trainingTypeDao.findPage(afterId, limit);
+    }
+
+    /**
+     * All training types, streamed lazily from storage; see {@link TrainingTypeDao#stream()}.
+     */
+    public Stream<TrainingType> streamTypes() {
+        return trainingTypeDao.stream();
+    }
+
+    public Spliterator<TrainingType> typeSpliterator() {
+        return trainingTypeDao.spliterator();
+    }
+
+    public Optional<TrainingType> selectType(StorageView view, Long trainingTypeId) {
+        return trainingTypeDao.findById(view, trainingTypeId);
+    }
+
+    public List<TrainingType> selectAllTypes(StorageView view) {
+        return trainingTypeDao.findAll(view);
+    }
+
     public List<Training> selectByTraineeId(Long traineeId) {
         return trainingDao.findByTraineeId(traineeId);
     }
@@ -50,4 +118,35 @@ public class TrainingService {
     public List<Training> selectByTrainerId(Long trainerId) {
         return trainingDao.findByTrainerId(trainerId);
     }
+
+    public List<Training> selectByType(String trainingType) {
+        return trainingDao.findByType(trainingType);
+    }
+
+    public Stream<Training> selectByDateRange(LocalDate from, LocalDate to) {
+        return trainingDao.findByDateRange(from, to);
+    }
+
+    public Stream<Training> selectByTraineeAndDateRange(Long traineeId, LocalDate from, LocalDate to) {
+        return trainingDao.findByTraineeAndDateRange(traineeId, from, to);
+    }
+
+    public Stream<Training> selectByTrainerAndDateRange(Long trainerId, LocalDate from, LocalDate to) {
+        return trainingDao.findByTrainerAndDateRange(trainerId, from, to);
+    }
+
+    /**
+     * Running totals of the trainee's trainings, read without going through the trainings themselves.
+     */
+    public TrainingTotals selectTotalsByTrainee(Long traineeId) {
+        return trainingDao.totalsByTrainee(traineeId);
+    }
+
+    public TrainingTotals selectTotalsByTrainer(Long trainerId) {
+        return trainingDao.totalsByTrainer(trainerId);
+    }
+
+    public TrainingTotals selectTotalsByType(String trainingType) {
+        return trainingDao.totalsByType(trainingType);
+    }
 }
\ No newline at end of file
@@ -1,20 +1,36 @@
 package org.example.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dao.UserDao;
 import org.example.entity.User;
+import org.example.storage.DuplicateKeyException;
+import org.example.storage.StorageView;
 import org.example.utils.PasswordGenerator;
+import org.example.utils.PasswordHasher;
 import org.example.utils.UsernameGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
 @Service
 @Slf4j
 public class UserService {
 
+    private static final int BATCH_ATTEMPTS = 3;
+
     private UserDao userDao;
     private UsernameGenerator usernameGenerator;
     private PasswordGenerator passwordGenerator;
+    private PasswordHasher passwordHasher;
+    private final LoginCache loginCache = new LoginCache();
 
     @Autowired
     public void setUserDao(UserDao userDao) { this.userDao = userDao; }
@@ -25,18 +41,178 @@ public class UserService {
     @Autowired
     public void setPasswordGenerator(PasswordGenerator passwordGenerator) { this.passwordGenerator = passwordGenerator; }
 
+    @Autowired
+    public void setPasswordHasher(PasswordHasher passwordHasher) { this.passwordHasher = passwordHasher; }
+
+    /**
+     * How many verified logins are remembered; 0 checks every login against its hash.
+     */
+    @Value("${auth.cache.size:10000}")
+    public void setLoginCacheSize(int size) { loginCache.setMaxSize(size); }
+
+    @Value("${auth.cache.ttlSeconds:300}")
+    public void setLoginCacheTtlSeconds(long seconds) { loginCache.setTtl(seconds, TimeUnit.SECONDS); }
+
+    /**
+     * Hashes, on the hashing pool, the passwords still stored in clear as seed files give them, before the service
+     * is in use, since a clear password matches no login. Users changed while their hashes were made are hashed
+     * again on the next pass.
+     */
+    @PostConstruct
+    public void hashStoredPasswords() {
+        long start = System.nanoTime();
+        int hashed = 0;
+        for (int attempt = 1; ; attempt++) {
+            List<User> clear = userDao.findAll().stream()
+                    .filter(u -> u.getPassword() != null && !passwordHasher.isHashed(u.getPassword()))
+                    .toList();
+            if (clear.isEmpty()) {
+                break;
+            }
+            if (attempt > BATCH_ATTEMPTS) {
+                throw new IllegalStateException("Failed to hash the stored passwords of " + clear.size() + " users");
+            }
+            List<String> hashes = passwordHasher.hashAll(clear.stream().map(User::getPassword).toList()).join();
+            for (int i = 0; i < clear.size(); i++) {
+                if (userDao.replacePassword(clear.get(i), hashes.get(i))) {
+                    hashed++;
+                }
+            }
+        }
+        if (hashed > 0) {
+            log.info("Hashed {} stored passwords in {} ms", hashed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Creates a user with a generated username and password. Only the password's hash is stored;
+     * the returned user carries the password itself, for handing to its owner. If a concurrent create
+     * takes the username first, the user is renamed and stored again.
+     */
     public User createUser(String firstName, String lastName) {
-        String username = usernameGenerator.generateUsername(firstName, lastName, userDao::existsByUsername);
         String password = passwordGenerator.generatePassword();
 
         User user = new User();
         user.setFirstName(firstName);
         user.setLastName(lastName);
-        user.setUsername(username);
-        user.setPassword(password);
+        user.setPassword(passwordHasher.hash(password));
         user.setActive(true);
 
-        log.info("Creating user with username: {}", username);
-        return userDao.create(user);
+        for (int attempt = 1; ; attempt++) {
+            String username = usernameGenerator.generateUsername(firstName, lastName, userDao::existsByUsername,
+                    userDao::claimUsernameSuffix);
+            user.setUsername(username);
+            log.info("Creating user with username: {}", username);
+            try {
+                return withPassword(userDao.create(user), password);
+            } catch (DuplicateKeyException e) {
+                if (attempt == BATCH_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Username {} taken meanwhile, renaming the user", username, e);
+            }
+        }
+    }
+
+    /**
+     * Creates users for the given first and last names in one insert, with usernames resolved for the whole
+     * batch at once and passwords hashed on the hashing pool. If a concurrent create takes one of the usernames
+     * first, the batch is renamed and retried. As with {@link #createUser}, the given users end up with their ids,
+     * usernames and passwords while the stored copies keep only the hashes.
+     */
+    public List<User> createAll(List<User> users) {
+        List<String> passwords = passwordGenerator.generate(users.size());
+        List<String> hashes = passwordHasher.hashAll(passwords).join();
+        List<User> stored = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            stored.add(new User(null, user.getFirstName(), user.getLastName(), null, hashes.get(i), true));
+        }
+        for (int attempt = 1; ; attempt++) {
+            UsernameGenerator.Batch usernames =
+                    usernameGenerator.newBatch(userDao::existsByUsername, userDao::claimUsernameSuffix);
+            for (User user : stored) {
+                user.setUsername(usernames.next(user.getFirstName(), user.getLastName()));
+            }
+            try {
+                userDao.createAll(stored);
+                break;
+            } catch (DuplicateKeyException e) {
+                if (attempt == BATCH_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Username taken while creating {} users, renaming the batch", users.size(), e);
+            }
+        }
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setUserId(stored.get(i).getUserId());
+            user.setUsername(stored.get(i).getUsername());
+            user.setPassword(passwords.get(i));
+            user.setActive(true);
+        }
+        return users;
+    }
+
+    /**
+     * Whether the password is the user's and the user is active. A login verified within the cache's time to live is accepted
+     * without hashing again.
+     */
+    public boolean authenticate(String username, String password) {
+        if (username == null || password == null) {
+            return false;
+        }
+        Optional<User> user = userDao.findByUsername(username);
+        if (user.isEmpty()) {
+            log.debug("Login failed, no user {}", username);
+            return false;
+        }
+        if (!user.get().isActive()) {
+            log.debug("Login failed, user {} is inactive", username);
+            return false;
+        }
+        String stored = user.get().getPassword();
+        if (loginCache.contains(username, stored, password)) {
+            return true;
+        }
+        if (!passwordHasher.matches(password, stored)) {
+            log.debug("Login failed for user {}", username);
+            return false;
+        }
+        loginCache.put(username, stored, password);
+        return true;
+    }
+
+    /**
+     * A page of users in id order after {@code afterId}, or from the first when it is null;
+     * the last id of a page is the cursor for the next.
+     */
+    public List<User> selectPage(Long afterId, int limit) {
+        return userDao.findPage(afterId, limit);
+    }
+
+    /**
+     * All users, streamed lazily from storage rather than copied; see {@link UserDao#stream()}.
+     * It splits evenly when run in parallel.
+     */
+    public Stream<User> stream() {
+        return userDao.stream();
+    }
+
+    public Spliterator<User> spliterator() {
+        return userDao.spliterator();
+    }
+
+    public Optional<User> select(StorageView view, Long userId) {
+        return userDao.findById(view, userId);
+    }
+
+    public List<User> selectAll(StorageView view) {
+        return userDao.findAll(view);
+    }
+
+    private static User withPassword(User user, String password) {
+        return new User(user.getUserId(), user.getFirstName(), user.getLastName(), user.getUsername(),
+                password, user.isActive());
     }
-}
\ No newline at end of file
+}
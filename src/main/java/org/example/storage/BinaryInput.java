@@ -0,0 +1,109 @@
+package org.example.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Reads what {@link BinaryOutput} writes, refilling its buffer from a channel
+ * in large bulk reads, or straight from a buffer when there is no channel.
+ */
+final class BinaryInput {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] scratch = new byte[64];
+
+    BinaryInput(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).limit(0);
+    }
+
+    BinaryInput(ByteBuffer buffer) {
+        this.channel = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns false once the input is exhausted.
+     */
+    boolean hasMore() throws IOException {
+        return buffer.hasRemaining() || fill() > 0;
+    }
+
+    int readByte() throws IOException {
+        require(Byte.BYTES);
+        return buffer.get();
+    }
+
+    boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    Long readNullableLong() throws IOException {
+        long value = readLong();
+        return value == BinaryOutput.NULL_LONG ? null : value;
+    }
+
+    LocalDate readDate() throws IOException {
+        long value = readLong();
+        return value == BinaryOutput.NULL_LONG ? null : LocalDate.ofEpochDay(value);
+    }
+
+    String readString() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        readBytes(scratch, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    void readBytes(byte[] target, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining() && fill() <= 0) {
+                throw new EOFException("Unexpected end of input");
+            }
+            int count = Math.min(buffer.remaining(), length - offset);
+            buffer.get(target, offset, count);
+            offset += count;
+        }
+    }
+
+    private void require(int bytes) throws IOException {
+        while (buffer.remaining() < bytes) {
+            if (fill() <= 0) {
+                throw new EOFException("Unexpected end of input");
+            }
+        }
+    }
+
+    private int fill() throws IOException {
+        if (channel == null) {
+            return -1;
+        }
+        buffer.compact();
+        try {
+            return channel.read(buffer);
+        } finally {
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Big-endian binary encoder writing through a buffer, either to a channel
+ * or, without a channel, into a buffer that grows as needed.
+ * Strings are written as an int byte length (-1 for null) followed by UTF-8 bytes,
+ * dates as their epoch day, and absent values as {@link #NULL_LONG}.
+ */
+final class BinaryOutput {
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer;
+
+    BinaryOutput(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    BinaryOutput(int initialCapacity) {
+        this.channel = null;
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    void writeByte(int value) throws IOException {
+        ensure(Byte.BYTES);
+        buffer.put((byte) value);
+    }
+
+    void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void writeNullableLong(Long value) throws IOException {
+        writeLong(value == null ? NULL_LONG : value);
+    }
+
+    void writeDate(LocalDate value) throws IOException {
+        writeLong(value == null ? NULL_LONG : value.toEpochDay());
+    }
+
+    void writeString(String value) throws IOException {
+        if (value == null) {
+            writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        writeBytes(ByteBuffer.wrap(bytes));
+    }
+
+    void writeBytes(ByteBuffer bytes) throws IOException {
+        if (bytes.remaining() <= buffer.capacity() || channel == null) {
+            ensure(bytes.remaining());
+            buffer.put(bytes);
+            return;
+        }
+        flush();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Bytes buffered and not yet flushed.
+     */
+    int size() {
+        return buffer.position();
+    }
+
+    /**
+     * Bytes written so far, for an output without a channel.
+     */
+    ByteBuffer toByteBuffer() {
+        return buffer.duplicate().flip();
+    }
+
+    void reset() {
+        buffer.clear();
+    }
+
+    void flush() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (channel != null) {
+            flush();
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        grown.put(buffer.flip());
+        buffer = grown;
+    }
+}
@@ -0,0 +1,420 @@
+package org.example.storage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Concurrent map from primitive long keys to values, with open addressing and no per-entry objects.
+ * Keys hash to one of 64 segments, each a linear-probing table of parallel key and value arrays
+ * guarded by its own lock, which callers may also hold to make several steps atomic with a write.
+ * Reads take no lock: a new key is published after its value, and a removed key keeps its slot with
+ * a tombstone until the segment is rebuilt, so a probe never skips a present key. A segment grows or
+ * sheds tombstones by copying into new arrays and publishing them at once; readers still on the old
+ * arrays see the segment as it was just before. Iteration is weakly consistent.
+ */
+public final class ConcurrentLongMap<V> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MIN_SPLIT_SLOTS = 1024;
+    private static final long EMPTY = 0;
+    private static final Object TOMBSTONE = new Object();
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public ConcurrentLongMap() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Maps an entry to a result, or to null to leave it out.
+     */
+    public interface EntryFunction<V, R> {
+
+        R apply(long key, V value);
+    }
+
+    private static final class Table {
+
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment extends ReentrantLock {
+
+        volatile Table table = new Table(MIN_CAPACITY);
+        volatile Object zero;
+        volatile int size;
+        int used;
+    }
+
+    public V get(long key) {
+        Segment segment = segmentFor(key);
+        Object value = key == EMPTY ? segment.zero : find(segment.table, key);
+        return value == TOMBSTONE ? null : cast(value);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value for key " + key);
+        }
+        Segment segment = segmentFor(key);
+        segment.lock();
+        try {
+            Object previous;
+            if (key == EMPTY) {
+                previous = segment.zero;
+                segment.zero = value;
+            } else {
+                previous = insert(segment, key, value);
+            }
+            if (previous == null || previous == TOMBSTONE) {
+                segment.size++;
+                return null;
+            }
+            return cast(previous);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    public V remove(long key) {
+        Segment segment = segmentFor(key);
+        segment.lock();
+        try {
+            Object previous;
+            if (key == EMPTY) {
+                previous = segment.zero;
+                segment.zero = null;
+            } else {
+                Table table = segment.table;
+                int slot = slotOf(table, key);
+                previous = slot < 0 ? null : table.values[slot];
+                if (previous != null && previous != TOMBSTONE) {
+                    VALUES.setRelease(table.values, slot, TOMBSTONE);
+                }
+            }
+            if (previous == null || previous == TOMBSTONE) {
+                return null;
+            }
+            segment.size--;
+            return cast(previous);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * The lock guarding writes to {@code key}'s segment; holding it makes a read-modify-write on the key atomic.
+     */
+    public ReentrantLock lockFor(long key) {
+        return segmentFor(key);
+    }
+
+    public void lockAll() {
+        for (Segment segment : segments) {
+            segment.lock();
+        }
+    }
+
+    public void unlockAll() {
+        for (int i = SEGMENTS - 1; i >= 0; i--) {
+            segments[i].unlock();
+        }
+    }
+
+    /**
+     * The values, splitting by segment when run in parallel.
+     */
+    public Stream<V> values() {
+        return map((key, value) -> value);
+    }
+
+    /**
+     * The non-null results of {@code function} over the entries, splitting by segment when run in parallel.
+     */
+    public <R> Stream<R> map(EntryFunction<? super V, ? extends R> function) {
+        return StreamSupport.stream(new EntrySpliterator<>(function, 0, SEGMENTS), false);
+    }
+
+    private Object find(Table table, long key) {
+        long[] keys = table.keys;
+        int mask = keys.length - 1;
+        for (int i = indexFor(key, mask); ; i = (i + 1) & mask) {
+            long k = (long) KEYS.getAcquire(keys, i);
+            if (k == key) {
+                return VALUES.getAcquire(table.values, i);
+            }
+            if (k == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Slot holding {@code key}, or -1; only called with the segment locked.
+     */
+    private static int slotOf(Table table, long key) {
+        int mask = table.keys.length - 1;
+        for (int i = indexFor(key, mask); ; i = (i + 1) & mask) {
+            long k = table.keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private static Object insert(Segment segment, long key, Object value) {
+        Table table = segment.table;
+        int slot = slotOf(table, key);
+        if (slot >= 0) {
+            Object previous = table.values[slot];
+            VALUES.setRelease(table.values, slot, value);
+            return previous;
+        }
+        if ((segment.used + 1) * 4L > table.keys.length * 3L) {
+            table = rebuild(segment);
+        }
+        int mask = table.keys.length - 1;
+        int i = indexFor(key, mask);
+        while (table.keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table.values[i] = value;
+        KEYS.setRelease(table.keys, i, key);
+        segment.used++;
+        return null;
+    }
+
+    /**
+     * Copies the live entries into arrays sized for twice their number and publishes them.
+     */
+    private static Table rebuild(Segment segment) {
+        Table old = segment.table;
+        int capacity = MIN_CAPACITY;
+        while (capacity < (segment.size + 1) * 2) {
+            capacity <<= 1;
+        }
+        Table table = new Table(capacity);
+        int mask = capacity - 1;
+        int used = 0;
+        for (int j = 0; j < old.keys.length; j++) {
+            long key = old.keys[j];
+            Object value = old.values[j];
+            if (key != EMPTY && value != TOMBSTONE) {
+                int i = indexFor(key, mask);
+                while (table.keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table.keys[i] = key;
+                table.values[i] = value;
+                used++;
+            }
+        }
+        segment.used = used;
+        segment.table = table;
+        return table;
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - SEGMENT_BITS))];
+    }
+
+    private static int indexFor(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+        return (V) value;
+    }
+
+    /**
+     * Splits whole segments in halves first; once down to one segment, splits that segment's slots in halves
+     * while there are at least {@link #MIN_SPLIT_SLOTS}, so a large map keeps splitting past 64 pieces.
+     * A segment is read from the arrays published when its traversal opens it; the zero key is read then too.
+     */
+    private final class EntrySpliterator<R> implements Spliterator<R> {
+
+        private final EntryFunction<? super V, ? extends R> function;
+        private final int end;
+        private int segment;
+        private Table table;
+        private int slot;
+        private int limit;
+        private Object zero;
+
+        EntrySpliterator(EntryFunction<? super V, ? extends R> function, int segment, int end) {
+            this.function = function;
+            this.segment = segment;
+            this.end = end;
+        }
+
+        private void open() {
+            Segment current = segments[segment];
+            zero = current.zero;
+            table = current.table;
+            slot = 0;
+            limit = table.keys.length;
+        }
+
+        private void close() {
+            segment++;
+            table = null;
+            zero = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (segment < end) {
+                if (table == null) {
+                    open();
+                }
+                Object pending = zero;
+                if (pending != null) {
+                    zero = null;
+                    if (pending != TOMBSTONE && emit(EMPTY, pending, action)) {
+                        return true;
+                    }
+                }
+                while (slot < limit) {
+                    int i = slot++;
+                    long key = (long) KEYS.getAcquire(table.keys, i);
+                    if (key != EMPTY) {
+                        Object value = VALUES.getAcquire(table.values, i);
+                        if (value != TOMBSTONE && emit(key, value, action)) {
+                            return true;
+                        }
+                    }
+                }
+                close();
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            for (; segment < end; close()) {
+                if (table == null) {
+                    open();
+                }
+                if (zero != null && zero != TOMBSTONE) {
+                    emit(EMPTY, zero, action);
+                }
+                drain(table, slot, limit, action);
+            }
+        }
+
+        private void drain(Table table, int from, int to, Consumer<? super R> action) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            for (int i = from; i < to; i++) {
+                long key = (long) KEYS.getAcquire(keys, i);
+                if (key != EMPTY) {
+                    Object value = VALUES.getAcquire(values, i);
+                    if (value != TOMBSTONE) {
+                        emit(key, value, action);
+                    }
+                }
+            }
+        }
+
+        private boolean emit(long key, Object value, Consumer<? super R> action) {
+            R result = function.apply(key, cast(value));
+            if (result == null) {
+                return false;
+            }
+            action.accept(result);
+            return true;
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            int untouched = end - segment - (table == null ? 0 : 1);
+            if (untouched >= 2 || untouched == 1 && table != null) {
+                int mid = untouched >= 2 ? end - untouched / 2 : segment + 1;
+                EntrySpliterator<R> prefix = new EntrySpliterator<>(function, segment, mid);
+                prefix.table = table;
+                prefix.slot = slot;
+                prefix.limit = limit;
+                prefix.zero = zero;
+                segment = mid;
+                table = null;
+                zero = null;
+                return prefix;
+            }
+            if (segment >= end) {
+                return null;
+            }
+            if (table == null) {
+                open();
+            }
+            if (limit - slot < MIN_SPLIT_SLOTS) {
+                return null;
+            }
+            int mid = (slot + limit) >>> 1;
+            EntrySpliterator<R> prefix = new EntrySpliterator<>(function, segment, segment + 1);
+            prefix.table = table;
+            prefix.slot = slot;
+            prefix.limit = mid;
+            prefix.zero = zero;
+            slot = mid;
+            zero = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long estimate = 0;
+            int from = segment;
+            if (table != null) {
+                estimate += (long) segments[segment].size * (limit - slot) / table.keys.length;
+                from++;
+            }
+            for (int i = from; i < end; i++) {
+                estimate += segments[i].size;
+            }
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return CONCURRENT | NONNULL;
+        }
+    }
+}
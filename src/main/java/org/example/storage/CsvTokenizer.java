@@ -0,0 +1,163 @@
+package org.example.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Splits one comma-separated line of a byte buffer into trimmed fields without copying it.
+ * Numbers, booleans and ISO dates are parsed straight from the bytes; only text fields
+ * become Strings. An instance is reused line after line and is not thread-safe.
+ */
+final class CsvTokenizer {
+
+    private static final int MAX_FIELDS = 8;
+
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private byte[] scratch = new byte[64];
+    private ByteBuffer buffer;
+    private int lineStart;
+    private int lineEnd;
+    private int fieldCount;
+
+    /**
+     * Tokenizes bytes {@code [from, to)} of {@code buffer}. Like {@code String.split(",")},
+     * trailing empty fields are dropped. Lines with more than {@value #MAX_FIELDS} fields
+     * report their field count but keep only the first ones.
+     */
+    CsvTokenizer reset(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        lineStart = from;
+        lineEnd = to;
+        fieldCount = 0;
+        int fieldStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buffer.get(i) == ',') {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        while (fieldCount > 0 && fieldCount <= MAX_FIELDS && starts[fieldCount - 1] == ends[fieldCount - 1]) {
+            fieldCount--;
+        }
+        return this;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    boolean isBlankOrComment() {
+        int i = skipWhitespace(lineStart, lineEnd);
+        return i == lineEnd || buffer.get(i) == '#';
+    }
+
+    long longField(int field) {
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = i < end && buffer.get(i) == '-';
+        if (negative || (i < end && buffer.get(i) == '+')) {
+            i++;
+        }
+        if (i == end || end - i > 18) {
+            throw new NumberFormatException("Invalid number: " + textField(field));
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid number: " + textField(field));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    int intField(int field) {
+        long value = longField(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Invalid int: " + textField(field));
+        }
+        return (int) value;
+    }
+
+    boolean booleanField(int field) {
+        int start = starts[field];
+        if (ends[field] - start != 4) {
+            return false;
+        }
+        return (buffer.get(start) | 0x20) == 't'
+                && (buffer.get(start + 1) | 0x20) == 'r'
+                && (buffer.get(start + 2) | 0x20) == 'u'
+                && (buffer.get(start + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * Parses an ISO {@code yyyy-MM-dd} date.
+     */
+    LocalDate dateField(int field) {
+        int start = starts[field];
+        if (ends[field] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw new DateTimeException("Invalid date: " + textField(field));
+        }
+        return LocalDate.of(digits(field, start, 4), digits(field, start + 5, 2), digits(field, start + 8, 2));
+    }
+
+    String textField(int field) {
+        return decode(starts[field], ends[field]);
+    }
+
+    String line() {
+        return decode(lineStart, lineEnd).trim();
+    }
+
+    private void addField(int from, int to) {
+        if (fieldCount < MAX_FIELDS) {
+            int start = skipWhitespace(from, to);
+            int end = to;
+            while (end > start && isWhitespace(buffer.get(end - 1))) {
+                end--;
+            }
+            starts[fieldCount] = start;
+            ends[fieldCount] = end;
+        }
+        fieldCount++;
+    }
+
+    private int digits(int field, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeException("Invalid date: " + textField(field));
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + from, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(from, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int skipWhitespace(int from, int to) {
+        while (from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
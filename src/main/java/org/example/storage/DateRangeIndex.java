@@ -0,0 +1,115 @@
+package org.example.storage;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Ids ordered by date, optionally partitioned by a group key such as a trainee id.
+ * A range query seeks to the start of the range in logarithmic time and then
+ * walks the skip list lazily, yielding ids in date order.
+ * Entities with a null date or group are not indexed.
+ */
+public class DateRangeIndex<T> implements EntityIndex<T> {
+
+    private static final long UNGROUPED = 0L;
+
+    /**
+     * Compared field by field directly: the skip list calls this on every hop,
+     * and a composed {@code Comparator} chain made those calls the dominant cost of inserts.
+     */
+    private record Key(long group, long epochDay, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            if (group != other.group) {
+                return Long.compare(group, other.group);
+            }
+            if (epochDay != other.epochDay) {
+                return Long.compare(epochDay, other.epochDay);
+            }
+            return Long.compare(id, other.id);
+        }
+    }
+
+    private final Function<T, Long> groupExtractor;
+    private final Function<T, LocalDate> dateExtractor;
+    private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<Long, Key> keysById = new ConcurrentHashMap<>();
+
+    public DateRangeIndex(Function<T, LocalDate> dateExtractor) {
+        this(entity -> UNGROUPED, dateExtractor);
+    }
+
+    public DateRangeIndex(Function<T, Long> groupExtractor, Function<T, LocalDate> dateExtractor) {
+        this.groupExtractor = groupExtractor;
+        this.dateExtractor = dateExtractor;
+    }
+
+    public Stream<Long> find(LocalDate from, LocalDate to) {
+        return find(UNGROUPED, from, to);
+    }
+
+    public Stream<Long> find(long group, LocalDate from, LocalDate to) {
+        Key lower = new Key(group, from.toEpochDay(), Long.MIN_VALUE);
+        Key upper = new Key(group, to.toEpochDay(), Long.MAX_VALUE);
+        return keys.subSet(lower, true, upper, true).stream().map(Key::id);
+    }
+
+    @Override
+    public void onPut(long id, T previous, T current) {
+        Key newKey = keyOf(id, current);
+        Key oldKey = newKey == null ? keysById.remove(id) : keysById.put(id, newKey);
+        if (newKey != null && newKey.equals(oldKey)) {
+            return;
+        }
+        if (newKey != null) {
+            keys.add(newKey);
+        }
+        if (oldKey != null) {
+            keys.remove(oldKey);
+        }
+    }
+
+    /**
+     * Inserts the batch in key order: consecutive inserts then descend the skip list
+     * along mostly the same, cached path, which is several times cheaper than random order.
+     */
+    @Override
+    public void onPutAll(Map<Long, T> added) {
+        Key[] batch = new Key[added.size()];
+        int count = 0;
+        for (Map.Entry<Long, T> entry : added.entrySet()) {
+            Key key = keyOf(entry.getKey(), entry.getValue());
+            if (key != null) {
+                batch[count++] = key;
+            }
+        }
+        Arrays.parallelSort(batch, 0, count);
+        for (int i = 0; i < count; i++) {
+            keysById.put(batch[i].id(), batch[i]);
+            keys.add(batch[i]);
+        }
+    }
+
+    @Override
+    public void onRemove(long id, T previous) {
+        Key key = keysById.remove(id);
+        if (key != null) {
+            keys.remove(key);
+        }
+    }
+
+    private Key keyOf(long id, T entity) {
+        Long group = groupExtractor.apply(entity);
+        LocalDate date = dateExtractor.apply(entity);
+        if (group == null || date == null) {
+            return null;
+        }
+        return new Key(group, date.toEpochDay(), id);
+    }
+}
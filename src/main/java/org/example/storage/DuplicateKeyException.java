@@ -0,0 +1,8 @@
+package org.example.storage;
+
+public class DuplicateKeyException extends IllegalStateException {
+
+    public DuplicateKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.example.entity.Trainer;
+import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.entity.User;
+
+import java.io.IOException;
+
+/**
+ * Binary form of the entities: a one-byte type tag followed by the fields in declaration order.
+ * Tags are part of the file formats built on it and must never be reused; 0 is reserved as an end marker.
+ * Trainees and trainers are written with their version under their own tags, and the older unversioned
+ * records are still read, at version 0.
+ */
+final class EntityCodec {
+
+    static final int END = 0;
+    private static final int TRAINING_TYPE = 1;
+    private static final int USER = 2;
+    private static final int TRAINEE = 3;
+    private static final int TRAINER = 4;
+    private static final int TRAINING = 5;
+    private static final int VERSIONED_TRAINEE = 6;
+    private static final int VERSIONED_TRAINER = 7;
+
+    private EntityCodec() {
+    }
+
+    static int tag(SeedKind kind) {
+        return switch (kind) {
+            case TRAINING_TYPE -> TRAINING_TYPE;
+            case USER -> USER;
+            case TRAINEE -> TRAINEE;
+            case TRAINER -> TRAINER;
+            case TRAINING -> TRAINING;
+        };
+    }
+
+    static SeedKind kind(int tag) {
+        return switch (tag) {
+            case TRAINING_TYPE -> SeedKind.TRAINING_TYPE;
+            case USER -> SeedKind.USER;
+            case TRAINEE -> SeedKind.TRAINEE;
+            case TRAINER -> SeedKind.TRAINER;
+            case TRAINING -> SeedKind.TRAINING;
+            default -> throw new IllegalStateException("Unknown record tag: " + tag);
+        };
+    }
+
+    static void write(BinaryOutput out, Object record) throws IOException {
+        switch (record) {
+            case TrainingType trainingType -> {
+                out.writeByte(TRAINING_TYPE);
+                out.writeNullableLong(trainingType.getTrainingTypeId());
+                out.writeString(trainingType.getTrainingTypeName());
+            }
+            case User user -> {
+                out.writeByte(USER);
+                out.writeNullableLong(user.getUserId());
+                out.writeString(user.getFirstName());
+                out.writeString(user.getLastName());
+                out.writeString(user.getUsername());
+                out.writeString(user.getPassword());
+                out.writeBoolean(user.isActive());
+            }
+            case Trainee trainee -> {
+                out.writeByte(VERSIONED_TRAINEE);
+                out.writeNullableLong(trainee.getTraineeId());
+                out.writeDate(trainee.getDateOfBirth());
+                out.writeString(trainee.getAddress());
+                out.writeNullableLong(trainee.getUserId());
+                out.writeLong(trainee.getVersion());
+            }
+            case Trainer trainer -> {
+                out.writeByte(VERSIONED_TRAINER);
+                out.writeNullableLong(trainer.getTrainerId());
+                out.writeString(trainer.getSpecialization());
+                out.writeNullableLong(trainer.getUserId());
+                out.writeLong(trainer.getVersion());
+            }
+            case Training training -> {
+                out.writeByte(TRAINING);
+                out.writeNullableLong(training.getTrainingId());
+                out.writeNullableLong(training.getTraineeId());
+                out.writeNullableLong(training.getTrainerId());
+                out.writeString(training.getTrainingName());
+                out.writeString(training.getTrainingType());
+                out.writeInt(training.getTrainingDuration());
+                out.writeDate(training.getTrainingDate());
+            }
+            default -> throw new IllegalArgumentException("Unsupported record: " + record);
+        }
+    }
+
+    /**
+     * Reads the next record, or returns null at the end marker.
+     */
+    static Object read(BinaryInput in) throws IOException {
+        int tag = in.readByte();
+        return switch (tag) {
+            case END -> null;
+            case TRAINING_TYPE -> new TrainingType(in.readNullableLong(), in.readString());
+            case USER -> new User(in.readNullableLong(), in.readString(), in.readString(),
+                    in.readString(), in.readString(), in.readBoolean());
+            case TRAINEE -> new Trainee(in.readNullableLong(), in.readDate(), in.readString(), in.readNullableLong());
+            case TRAINER -> new Trainer(in.readNullableLong(), in.readString(), in.readNullableLong());
+            case VERSIONED_TRAINEE -> new Trainee(in.readNullableLong(), in.readDate(), in.readString(),
+                    in.readNullableLong(), in.readLong());
+            case VERSIONED_TRAINER -> new Trainer(in.readNullableLong(), in.readString(), in.readNullableLong(),
+                    in.readLong());
+            case TRAINING -> new Training(in.readNullableLong(), in.readNullableLong(), in.readNullableLong(),
+                    in.readString(), in.readString(), in.readInt(), in.readDate());
+            default -> throw new IllegalStateException("Unknown record tag: " + tag);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.example.entity.Trainer;
+import org.example.entity.TrainingType;
+import org.example.entity.User;
+
+/**
+ * Field-by-field copies of the mutable entities kept through {@link EntityLayout#copies}.
+ */
+final class EntityCopies {
+
+    private EntityCopies() {
+    }
+
+    static User user(User user) {
+        return new User(user.getUserId(), user.getFirstName(), user.getLastName(), user.getUsername(),
+                user.getPassword(), user.isActive());
+    }
+
+    static Trainee trainee(Trainee trainee) {
+        return new Trainee(trainee.getTraineeId(), trainee.getDateOfBirth(), trainee.getAddress(),
+                trainee.getUserId(), trainee.getVersion());
+    }
+
+    static Trainer trainer(Trainer trainer) {
+        return new Trainer(trainer.getTrainerId(), trainer.getSpecialization(), trainer.getUserId(),
+                trainer.getVersion());
+    }
+
+    static TrainingType trainingType(TrainingType trainingType) {
+        return new TrainingType(trainingType.getTrainingTypeId(), trainingType.getTrainingTypeName());
+    }
+}
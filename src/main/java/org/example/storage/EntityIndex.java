@@ -0,0 +1,41 @@
+package org.example.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary index kept in step with an {@link EntityStore}.
+ * Callbacks run while the store holds the write lock for {@code id},
+ * so two callbacks for the same id never interleave.
+ */
+public interface EntityIndex<T> {
+
+    /**
+     * Called before {@code current} replaces {@code previous} (null on insert).
+     * May throw to veto the write, in which case nothing must have changed.
+     */
+    void onPut(long id, T previous, T current);
+
+    /**
+     * Called before a batch of entities under new ids is inserted, with every stripe locked.
+     * Indexes can override this to index the batch more cheaply than one entity at a time.
+     * As with {@link #onPut}, if it throws nothing of the batch must have been indexed.
+     */
+    default void onPutAll(Map<Long, T> added) {
+        List<Map.Entry<Long, T>> done = new ArrayList<>(added.size());
+        try {
+            for (Map.Entry<Long, T> entry : added.entrySet()) {
+                onPut(entry.getKey(), null, entry.getValue());
+                done.add(entry);
+            }
+        } catch (RuntimeException e) {
+            for (int i = done.size() - 1; i >= 0; i--) {
+                onRemove(done.get(i).getKey(), done.get(i).getValue());
+            }
+            throw e;
+        }
+    }
+
+    void onRemove(long id, T previous);
+}
@@ -0,0 +1,27 @@
+package org.example.storage;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * How an {@link EntityStore} keeps the values it is given. By default it holds on to the objects;
+ * a layout such as {@link TrainingColumns} copies them into its own form and hands out fresh objects on read.
+ */
+interface EntityLayout<T> {
+
+    EntityLayout<Object> OBJECTS = EntityVersion::of;
+
+    EntityVersion<T> newVersion(T value, long version, EntityVersion<T> older);
+
+    @SuppressWarnings("unchecked")
+    static <T> EntityLayout<T> objects() {
+        return (EntityLayout<T>) OBJECTS;
+    }
+
+    /**
+     * For mutable entity classes: the store keeps its own copy of each value and every read gets a fresh copy,
+     * so no change a caller makes to an object it wrote or read reaches a stored version.
+     */
+    static <T> EntityLayout<T> copies(UnaryOperator<T> copy) {
+        return (value, version, older) -> EntityVersion.copyOf(value, copy, version, older);
+    }
+}
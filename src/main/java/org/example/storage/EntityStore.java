@@ -0,0 +1,447 @@
+package org.example.storage;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe table of entities keyed by id.
+ * Reads never block. Writes lock one of 64 stripes chosen by id,
+ * so writes to different ids rarely contend, and attached indexes are updated
+ * atomically with the entry itself.
+ * Iteration is weakly consistent: it never throws and reflects the table
+ * at some point at or since the iterator was created.
+ * With a {@link StoreJournal} attached, writes return only once they are durable.
+ * Every entry is an {@link EntityVersion} stamped with the {@link VersionClock} version it was written at;
+ * while a snapshot is open, replaced values and removals are chained behind the entry so {@link #valuesAt(long)}
+ * can still see the table as it was, and the chain is trimmed as soon as no snapshot needs it.
+ * An {@link EntityLayout} decides how values are kept, as the objects themselves by default;
+ * a stored object is then shared with every reader and must not be changed, only replaced by a new one.
+ * An {@link IdOrder} kept like the attached indexes lets {@link #page} walk the ids in order.
+ */
+public class EntityStore<T> {
+
+    private final ConcurrentLongMap<EntityVersion<T>> entries = new ConcurrentLongMap<>();
+    private final IdOrder<T> ids = new IdOrder<>();
+    private final List<EntityIndex<T>> indexes;
+    private final VersionClock clock;
+    private final EntityLayout<T> layout;
+    private final LongAdder size = new LongAdder();
+    private final Set<Long> history = ConcurrentHashMap.newKeySet();
+    private final Collection<T> values = new Values();
+    private volatile StoreJournal<T> journal;
+
+    @SafeVarargs
+    public EntityStore(EntityIndex<T>... indexes) {
+        this(new VersionClock(), indexes);
+    }
+
+    @SafeVarargs
+    public EntityStore(VersionClock clock, EntityIndex<T>... indexes) {
+        this(clock, EntityLayout.objects(), indexes);
+    }
+
+    @SafeVarargs
+    EntityStore(VersionClock clock, EntityLayout<T> layout, EntityIndex<T>... indexes) {
+        this.clock = clock;
+        this.layout = layout;
+        List<EntityIndex<T>> all = new ArrayList<>(indexes.length + 1);
+        all.add(ids);
+        all.addAll(List.of(indexes));
+        this.indexes = List.copyOf(all);
+    }
+
+    public T get(long id) {
+        while (true) {
+            EntityVersion<T> head = entries.get(id);
+            if (head == null) {
+                return null;
+            }
+            T value = head.value();
+            if (value != null || head.isRemoval()) {
+                return value;
+            }
+        }
+    }
+
+    public boolean containsKey(long id) {
+        return get(id) != null;
+    }
+
+    public T put(long id, T entity) {
+        StoreJournal<T> journal = this.journal;
+        long ticket;
+        T previous;
+        ReentrantLock lock = entries.lockFor(id);
+        lock.lock();
+        try {
+            EntityVersion<T> head = entries.get(id);
+            previous = head == null ? null : head.value();
+            ticket = replace(journal, id, head, previous, entity);
+        } finally {
+            lock.unlock();
+        }
+        if (ticket > 0) {
+            journal.awaitDurable(ticket);
+        }
+        return previous;
+    }
+
+    /**
+     * Replaces the entity under {@code id} only if the current one passes {@code expected}, checked atomically
+     * with the write, e.g. against the version the caller read. Returns false, writing nothing, when there is
+     * no entity under the id or it does not pass.
+     */
+    public boolean replaceIf(long id, Predicate<? super T> expected, T entity) {
+        StoreJournal<T> journal = this.journal;
+        long ticket;
+        ReentrantLock lock = entries.lockFor(id);
+        lock.lock();
+        try {
+            EntityVersion<T> head = entries.get(id);
+            T previous = head == null ? null : head.value();
+            if (previous == null || !expected.test(previous)) {
+                return false;
+            }
+            ticket = replace(journal, id, head, previous, entity);
+        } finally {
+            lock.unlock();
+        }
+        if (ticket > 0) {
+            journal.awaitDurable(ticket);
+        }
+        return true;
+    }
+
+    /**
+     * Inserts a batch of entities under ids that are not in the store yet, e.g. when restoring a snapshot.
+     * Every stripe is locked meanwhile, and if an index rejects the batch nothing is inserted.
+     */
+    public void putAll(Map<Long, T> batch) {
+        StoreJournal<T> journal = this.journal;
+        long ticket = 0;
+        entries.lockAll();
+        try {
+            for (Long id : batch.keySet()) {
+                if (containsKey(id)) {
+                    throw new IllegalStateException("Id already present: " + id);
+                }
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                try {
+                    indexes.get(i).onPutAll(batch);
+                } catch (RuntimeException e) {
+                    rollbackAll(i - 1, batch);
+                    throw e;
+                }
+            }
+            if (journal != null) {
+                try {
+                    for (Map.Entry<Long, T> entry : batch.entrySet()) {
+                        ticket = journal.put(entry.getKey(), entry.getValue());
+                    }
+                } catch (RuntimeException e) {
+                    rollbackAll(indexes.size() - 1, batch);
+                    throw e;
+                }
+            }
+            batch.forEach((id, entity) -> {
+                EntityVersion<T> head = entries.get(id);
+                EntityVersion<T> next = next(id, head, entity);
+                entries.put(id, next);
+                release(head, next.older);
+            });
+            size.add(batch.size());
+        } finally {
+            entries.unlockAll();
+        }
+        if (ticket > 0) {
+            journal.awaitDurable(ticket);
+        }
+    }
+
+    public T remove(long id) {
+        StoreJournal<T> journal = this.journal;
+        long ticket = 0;
+        T previous;
+        ReentrantLock lock = entries.lockFor(id);
+        lock.lock();
+        try {
+            EntityVersion<T> head = entries.get(id);
+            previous = head == null ? null : head.value();
+            if (previous != null) {
+                if (journal != null) {
+                    ticket = journal.remove(id);
+                }
+                EntityVersion<T> removal = next(id, head, null);
+                if (removal.older == null) {
+                    entries.remove(id);
+                } else {
+                    entries.put(id, removal);
+                }
+                release(head, removal.older);
+                size.decrement();
+                for (EntityIndex<T> index : indexes) {
+                    index.onRemove(id, previous);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (ticket > 0) {
+            journal.awaitDurable(ticket);
+        }
+        return previous;
+    }
+
+    public int size() {
+        return (int) size.sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public Collection<T> values() {
+        return values;
+    }
+
+    /**
+     * The current entities, read lazily from the table without copying it. The stream is weakly consistent:
+     * an entity present throughout is seen exactly once, as it was at some point during the traversal, and one
+     * put or removed meanwhile may or may not be seen; it never throws {@link java.util.ConcurrentModificationException}.
+     * Run in parallel it splits by segment and then within a segment, into parts of about the same size.
+     */
+    public Stream<T> stream() {
+        return entries.map(this::current);
+    }
+
+    public Spliterator<T> spliterator() {
+        return stream().spliterator();
+    }
+
+    /**
+     * Up to {@code limit} entities with ids above {@code afterId}, in id order; -1 starts from the first, and
+     * the last id of a page gives the next. Reading a page costs the page, not the table, and entities
+     * inserted meanwhile never shift the pages after a cursor: they appear in order if their id is past it.
+     */
+    public List<T> page(long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        List<T> page = new ArrayList<>(Math.min(limit, 1024));
+        for (long id = ids.next(afterId); id >= 0 && page.size() < limit; id = ids.next(id)) {
+            T value = get(id);
+            if (value != null) {
+                page.add(value);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * The entity as it was when {@code view} was opened.
+     */
+    public T get(long id, StorageView view) {
+        return getAt(id, view.checkOpen());
+    }
+
+    /**
+     * The entities as they were when {@code view} was opened; the view must stay open while the stream is used.
+     */
+    public Stream<T> values(StorageView view) {
+        return valuesAt(view.checkOpen());
+    }
+
+    /**
+     * The entity as it was at the given snapshot version, which must still be open.
+     */
+    T getAt(long id, long version) {
+        EntityVersion<T> head = entries.get(id);
+        return head == null ? null : head.at(version);
+    }
+
+    /**
+     * The entities as they were at the given snapshot version, which must stay open while the stream is used.
+     */
+    Stream<T> valuesAt(long version) {
+        return entries.map((id, head) -> head.at(version));
+    }
+
+    /**
+     * Drops the replaced versions no open snapshot can see any more; called when a snapshot closes.
+     */
+    void trimHistory() {
+        for (Iterator<Long> ids = history.iterator(); ids.hasNext(); ) {
+            long id = ids.next();
+            ids.remove();
+            ReentrantLock lock = entries.lockFor(id);
+            lock.lock();
+            try {
+                EntityVersion<T> head = entries.get(id);
+                if (head == null) {
+                    continue;
+                }
+                long oldest = clock.oldestOpen();
+                if (head.isRemoval() && head.version <= oldest) {
+                    entries.remove(id);
+                    release(head, null);
+                } else {
+                    trim(head, oldest);
+                    if (head.older != null) {
+                        history.add(id);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void lockAll() {
+        entries.lockAll();
+    }
+
+    void unlockAll() {
+        entries.unlockAll();
+    }
+
+    void setJournal(StoreJournal<T> journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Writes {@code entity} over {@code head} with the entry's lock held, and returns the journal ticket to await.
+     */
+    private long replace(StoreJournal<T> journal, long id, EntityVersion<T> head, T previous, T entity) {
+        long ticket = 0;
+        updateIndexes(id, previous, entity);
+        if (journal != null) {
+            ticket = logPut(journal, id, previous, entity);
+        }
+        EntityVersion<T> next = next(id, head, entity);
+        entries.put(id, next);
+        release(head, next.older);
+        if (previous == null) {
+            size.increment();
+        }
+        return ticket;
+    }
+
+    private EntityVersion<T> next(long id, EntityVersion<T> head, T value) {
+        long version = clock.current();
+        EntityVersion<T> older = null;
+        if (head != null) {
+            head.retire();
+            if (clock.retainsHistory()) {
+                older = head.version == version ? head.older : head;
+                trim(older, clock.oldestOpen());
+                if (older != null) {
+                    history.add(id);
+                }
+            }
+        }
+        return value == null ? EntityVersion.removal(version, older) : layout.newVersion(value, version, older);
+    }
+
+    /**
+     * Cuts the chain after the newest version the oldest open snapshot sees.
+     */
+    private static <T> void trim(EntityVersion<T> chain, long oldest) {
+        for (EntityVersion<T> v = chain; v != null; v = v.older) {
+            if (v.version <= oldest) {
+                EntityVersion<T> cut = v.older;
+                v.older = null;
+                release(cut, null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases the versions from {@code from} up to, not including, {@code kept}.
+     */
+    private static <T> void release(EntityVersion<T> from, EntityVersion<T> kept) {
+        for (EntityVersion<T> v = from; v != null && v != kept; v = v.older) {
+            v.release();
+        }
+    }
+
+    private void updateIndexes(long id, T previous, T current) {
+        for (int i = 0; i < indexes.size(); i++) {
+            try {
+                indexes.get(i).onPut(id, previous, current);
+            } catch (RuntimeException e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    rollback(indexes.get(j), id, previous, current);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private long logPut(StoreJournal<T> journal, long id, T previous, T current) {
+        try {
+            return journal.put(id, current);
+        } catch (RuntimeException e) {
+            for (int j = indexes.size() - 1; j >= 0; j--) {
+                rollback(indexes.get(j), id, previous, current);
+            }
+            throw e;
+        }
+    }
+
+    private void rollbackAll(int lastIndex, Map<Long, T> batch) {
+        for (int j = lastIndex; j >= 0; j--) {
+            EntityIndex<T> index = indexes.get(j);
+            batch.forEach(index::onRemove);
+        }
+    }
+
+    private void rollback(EntityIndex<T> index, long id, T previous, T current) {
+        if (previous == null) {
+            index.onRemove(id, current);
+        } else {
+            index.onPut(id, current, previous);
+        }
+    }
+
+    private T current(long id, EntityVersion<T> head) {
+        T value = head.value();
+        return value != null || head.isRemoval() ? value : get(id);
+    }
+
+    private final class Values extends AbstractCollection<T> {
+
+        @Override
+        public Iterator<T> iterator() {
+            Iterator<T> current = EntityStore.this.stream().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return current.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return EntityStore.this.size();
+        }
+    }
+}
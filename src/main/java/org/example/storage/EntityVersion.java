@@ -0,0 +1,107 @@
+package org.example.storage;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * One value of a store entry, stamped with the {@link VersionClock} version it was written at and linked
+ * to the value it replaced for as long as an open snapshot may still need that one.
+ * A version without a value records a removal.
+ */
+abstract class EntityVersion<T> {
+
+    final long version;
+    volatile EntityVersion<T> older;
+
+    EntityVersion(long version, EntityVersion<T> older) {
+        this.version = version;
+        this.older = older;
+    }
+
+    static <T> EntityVersion<T> of(T value, long version, EntityVersion<T> older) {
+        return new Value<>(value, version, older);
+    }
+
+    /**
+     * A version of a mutable object: it keeps a copy of {@code value} and hands out a fresh copy on every read.
+     */
+    static <T> EntityVersion<T> copyOf(T value, UnaryOperator<T> copy, long version, EntityVersion<T> older) {
+        return new Copy<>(copy.apply(value), copy, version, older);
+    }
+
+    static <T> EntityVersion<T> removal(long version, EntityVersion<T> older) {
+        return new Value<>(null, version, older);
+    }
+
+    /**
+     * The value, or null for a removal and for a version released while it was being read.
+     */
+    abstract T value();
+
+    abstract boolean isRemoval();
+
+    /**
+     * Called under the entry's lock once a newer version has replaced this one.
+     */
+    void retire() {
+    }
+
+    /**
+     * Called under the entry's lock once no snapshot can reach this version any more.
+     */
+    void release() {
+    }
+
+    /**
+     * The value as of the given snapshot version, or null when the entry did not exist then.
+     */
+    final T at(long snapshot) {
+        for (EntityVersion<T> v = this; v != null; v = v.older) {
+            if (v.version <= snapshot) {
+                return v.value();
+            }
+        }
+        return null;
+    }
+
+    private static final class Value<T> extends EntityVersion<T> {
+
+        private final T value;
+
+        Value(T value, long version, EntityVersion<T> older) {
+            super(version, older);
+            this.value = value;
+        }
+
+        @Override
+        T value() {
+            return value;
+        }
+
+        @Override
+        boolean isRemoval() {
+            return value == null;
+        }
+    }
+
+    private static final class Copy<T> extends EntityVersion<T> {
+
+        private final T value;
+        private final UnaryOperator<T> copy;
+
+        Copy(T value, UnaryOperator<T> copy, long version, EntityVersion<T> older) {
+            super(version, older);
+            this.value = value;
+            this.copy = copy;
+        }
+
+        @Override
+        T value() {
+            return copy.apply(value);
+        }
+
+        @Override
+        boolean isRemoval() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.storage;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hands out the ids of one kind of entity. With a block size above one, each thread takes its ids from
+ * a block of its own, reserved from the shared counter a block at a time, so creating threads only meet
+ * on the counter once per block. The counter sits in the middle of an array with a cache line of padding
+ * on either side, so it shares its line neither with other counters nor with whatever is allocated next to it.
+ * The counter is the high-water mark: every id handed out, used or not, is below it, and views and snapshots
+ * record it so a restarted storage never hands out the same id twice. Ids left in a block when a thread
+ * stops are skipped, so ids stay unique and increase within a thread but are no longer dense.
+ */
+final class IdAllocator {
+
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray counter = new AtomicLongArray(2 * PADDING + 1);
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+    private volatile int blockSize = 1;
+
+    IdAllocator() {
+        counter.set(PADDING, 1);
+    }
+
+    private static final class Block {
+
+        long next;
+        long limit;
+    }
+
+    void setBlockSize(int blockSize) {
+        this.blockSize = Math.max(blockSize, 1);
+    }
+
+    int blockSize() {
+        return blockSize;
+    }
+
+    long next() {
+        int size = blockSize;
+        if (size == 1) {
+            return counter.getAndIncrement(PADDING);
+        }
+        Block block = blocks.get();
+        if (block.next == block.limit) {
+            block.next = counter.getAndAdd(PADDING, size);
+            block.limit = block.next + size;
+        }
+        return block.next++;
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids straight from the counter and returns the first.
+     */
+    long reserve(int count) {
+        return counter.getAndAdd(PADDING, count);
+    }
+
+    /**
+     * Moves the counter up to at least {@code next}. Records stored under their own ids move it past them;
+     * that happens while loading, before any thread holds a block that could already cover such an id.
+     */
+    void advanceTo(long next) {
+        long current;
+        while ((current = counter.get(PADDING)) < next && !counter.compareAndSet(PADDING, current, next)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    long highWaterMark() {
+        return counter.get(PADDING);
+    }
+}
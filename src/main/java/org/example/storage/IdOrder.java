@@ -0,0 +1,82 @@
+package org.example.storage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The ids present in an {@link EntityStore}, in order, as bitmaps of 4096 ids each kept in a skip list by block.
+ * Dense ids, as the id allocators hand out, cost a fraction of a byte each; a sparse id costs a block.
+ * Finding the next id scans the words of its block and jumps over missing blocks in the skip list.
+ * Blocks emptied by removals stay, and a scan across them reads their 64 words.
+ * Negative ids are not ordered.
+ */
+final class IdOrder<T> implements EntityIndex<T> {
+
+    private static final int BLOCK_BITS = 12;
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+    private static final int WORDS = 1 << (BLOCK_BITS - 6);
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final ConcurrentSkipListMap<Long, long[]> blocks = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void onPut(long id, T previous, T current) {
+        add(id);
+    }
+
+    @Override
+    public void onRemove(long id, T previous) {
+        remove(id);
+    }
+
+    void add(long id) {
+        if (id < 0) {
+            return;
+        }
+        long[] words = blocks.get(id >>> BLOCK_BITS);
+        if (words == null) {
+            words = blocks.computeIfAbsent(id >>> BLOCK_BITS, block -> new long[WORDS]);
+        }
+        int bit = (int) id & BLOCK_MASK;
+        long mask = 1L << (bit & 63);
+        if (((long) BITS.getOpaque(words, bit >>> 6) & mask) == 0) {
+            BITS.getAndBitwiseOr(words, bit >>> 6, mask);
+        }
+    }
+
+    void remove(long id) {
+        long[] words = id < 0 ? null : blocks.get(id >>> BLOCK_BITS);
+        if (words != null) {
+            int bit = (int) id & BLOCK_MASK;
+            BITS.getAndBitwiseAnd(words, bit >>> 6, ~(1L << (bit & 63)));
+        }
+    }
+
+    /**
+     * The smallest id above {@code after}, or -1 when there is none.
+     */
+    long next(long after) {
+        if (after == Long.MAX_VALUE) {
+            return -1;
+        }
+        long from = Math.max(after + 1, 0);
+        for (Map.Entry<Long, long[]> block = blocks.ceilingEntry(from >>> BLOCK_BITS);
+             block != null; block = blocks.higherEntry(block.getKey())) {
+            long base = block.getKey() << BLOCK_BITS;
+            int start = base >= from ? 0 : (int) (from - base);
+            long[] words = block.getValue();
+            for (int w = start >>> 6; w < WORDS; w++) {
+                long word = (long) BITS.getAcquire(words, w);
+                if (w == start >>> 6) {
+                    word &= -1L << (start & 63);
+                }
+                if (word != 0) {
+                    return base + ((long) w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+        }
+        return -1;
+    }
+}
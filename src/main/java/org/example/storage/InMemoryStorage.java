@@ -8,168 +8,421 @@ import org.example.entity.Trainer;
 import org.example.entity.Training;
 import org.example.entity.TrainingType;
 import org.example.entity.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.core.io.Resource;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
-@Getter
 @Slf4j
 public class InMemoryStorage {
 
-    private final Map<Long, User> userStorage = new HashMap<>();
-    private final Map<Long, Trainee> traineeStorage = new HashMap<>();
-    private final Map<Long, Trainer> trainerStorage = new HashMap<>();
-    private final Map<Long, Training> trainingStorage = new HashMap<>();
-    private final Map<Long, TrainingType> trainingTypeStorage = new HashMap<>();
-
-    private final AtomicLong userIdCounter = new AtomicLong(1);
-    private final AtomicLong traineeIdCounter = new AtomicLong(1);
-    private final AtomicLong trainerIdCounter = new AtomicLong(1);
-    private final AtomicLong trainingIdCounter = new AtomicLong(1);
-    private final AtomicLong trainingTypeIdCounter = new AtomicLong(1);
+    private final VersionClock clock = new VersionClock();
+    @Getter
+    private final UniqueIndex<User, String> usernameIndex = new UniqueIndex<>("username", User::getUsername);
+    @Getter
+    private final UsernameSuffixIndex usernameSuffixIndex = new UsernameSuffixIndex();
+    @Getter
+    private final EntityStore<User> userStorage = new EntityStore<>(clock,
+            EntityLayout.copies(EntityCopies::user), usernameIndex, usernameSuffixIndex);
+    @Getter
+    private final UniqueIndex<Trainee, Long> traineeUserIndex = new UniqueIndex<>("trainee userId", Trainee::getUserId);
+    @Getter
+    private final EntityStore<Trainee> traineeStorage = new EntityStore<>(clock,
+            EntityLayout.copies(EntityCopies::trainee), traineeUserIndex);
+    @Getter
+    private final UniqueIndex<Trainer, Long> trainerUserIndex = new UniqueIndex<>("trainer userId", Trainer::getUserId);
+    @Getter
+    private final EntityStore<Trainer> trainerStorage = new EntityStore<>(clock,
+            EntityLayout.copies(EntityCopies::trainer), trainerUserIndex);
+    @Getter
+    private final MultiIndex<Training, Long> traineeTrainingIndex = new MultiIndex<>(Training::getTraineeId);
+    @Getter
+    private final MultiIndex<Training, Long> trainerTrainingIndex = new MultiIndex<>(Training::getTrainerId);
+    @Getter
+    private final DateRangeIndex<Training> trainingDateIndex = new DateRangeIndex<>(Training::getTrainingDate);
+    @Getter
+    private final DateRangeIndex<Training> traineeTrainingDateIndex =
+            new DateRangeIndex<>(Training::getTraineeId, Training::getTrainingDate);
+    @Getter
+    private final DateRangeIndex<Training> trainerTrainingDateIndex =
+            new DateRangeIndex<>(Training::getTrainerId, Training::getTrainingDate);
+    @Getter
+    private final TrainingTotalsIndex trainingTotals = new TrainingTotalsIndex();
+    private final StringDictionary trainingTypes = new StringDictionary();
+    private final TrainingColumns trainingColumns = new TrainingColumns(trainingTypes);
+    @Getter
+    private final EntityStore<Training> trainingStorage = new EntityStore<>(clock, trainingColumns,
+            traineeTrainingIndex, trainerTrainingIndex,
+            trainingDateIndex, traineeTrainingDateIndex, trainerTrainingDateIndex, trainingTotals);
+    @Getter
+    private final UniqueIndex<TrainingType, String> trainingTypeNameIndex =
+            new UniqueIndex<>("training type name", TrainingType::getTrainingTypeName);
+    @Getter
+    private final EntityStore<TrainingType> trainingTypeStorage = new EntityStore<>(clock,
+            EntityLayout.copies(EntityCopies::trainingType), trainingTypeNameIndex);
+
+    private final IdAllocator userIds = new IdAllocator();
+    private final IdAllocator traineeIds = new IdAllocator();
+    private final IdAllocator trainerIds = new IdAllocator();
+    private final IdAllocator trainingIds = new IdAllocator();
+    private final IdAllocator trainingTypeIds = new IdAllocator();
 
     private final List<Resource> initFiles;
 
+    @Value("${storage.load.parallelism:0}")
+    private int loadParallelism;
+
+    @Value("${storage.trainings.offHeap:false}")
+    private boolean trainingsOffHeap;
+
+    @Value("${storage.ids.blockSize:64}")
+    private int idBlockSize;
+
+    @Value("${storage.snapshot.path:}")
+    private String snapshotPath;
+
+    @Value("${storage.snapshot.intervalSeconds:0}")
+    private long snapshotIntervalSeconds;
+
+    @Value("${storage.journal.path:}")
+    private String journalPath;
+
+    @Value("${storage.journal.commitWindowMicros:0}")
+    private long journalCommitWindowMicros;
+
+    private volatile Journal journal;
+    private volatile long journalSequence;
+    private ScheduledExecutorService snapshotScheduler;
+
+    /**
+     * Restores the configured snapshot when there is one, and loads the seed files otherwise,
+     * then replays the journal on top and keeps logging every write to it.
+     * With a snapshot interval set, a background thread then writes a fresh snapshot at that interval
+     * while writes go on, and drops the journal segments it covers.
+     * Training rows are kept outside the heap when {@code storage.trainings.offHeap} is set,
+     * and each thread takes new ids {@code storage.ids.blockSize} at a time.
+     */
     @PostConstruct
     public void init() {
-        for (Resource resource : initFiles) {
-            loadFile(resource);
+        trainingColumns.setOffHeap(trainingsOffHeap);
+        setIdBlockSize(idBlockSize);
+        if (isConfigured(snapshotPath) && Files.exists(Path.of(snapshotPath))) {
+            restoreSnapshot(Path.of(snapshotPath));
+        } else {
+            new SeedLoader(this, parallelism()).load(initFiles);
+        }
+        if (isConfigured(journalPath)) {
+            openJournal(Path.of(journalPath), journalCommitWindowMicros);
+        }
+        if (isConfigured(snapshotPath) && snapshotIntervalSeconds > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "storage-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::saveScheduledSnapshot,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Syncs the journal and, when snapshots are configured, folds it into a fresh snapshot.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        closeJournal();
+        if (isConfigured(snapshotPath)) {
+            saveSnapshot(Path.of(snapshotPath));
+            if (isConfigured(journalPath)) {
+                try {
+                    Journal.delete(Path.of(journalPath));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to delete journal: " + journalPath, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a point-in-time snapshot while writes go on, and drops the journal segments it makes redundant.
+     */
+    public void saveSnapshot(Path path) {
+        try (StorageView view = openView(true)) {
+            new StorageSnapshot(this, parallelism()).write(view, path);
+            Journal current = journal;
+            if (current != null) {
+                current.deleteSegmentsThrough(view.journalSequence());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write snapshot: " + path, e);
+        }
+    }
+
+    /**
+     * Opens a point-in-time view of every store and id counter; close it when done.
+     */
+    public StorageView openView() {
+        return openView(false);
+    }
+
+    private StorageView openView(boolean rotateJournal) {
+        long start = System.nanoTime();
+        SeedKind[] kinds = SeedKind.values();
+        for (SeedKind kind : kinds) {
+            store(kind).lockAll();
+        }
+        try {
+            long version = clock.open();
+            long[] counters = new long[kinds.length];
+            for (SeedKind kind : kinds) {
+                counters[kind.ordinal()] = ids(kind).highWaterMark();
+            }
+            Journal current = journal;
+            long sequence = current == null ? journalSequence
+                    : rotateJournal ? current.rotate() : current.lastSequence();
+            return new StorageView(this, version, sequence, counters);
+        } finally {
+            for (int i = kinds.length - 1; i >= 0; i--) {
+                store(kinds[i]).unlockAll();
+            }
+            log.debug("Opened storage view, writes paused for {} us",
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
         }
     }
 
-    private void loadFile(Resource resource) {
-        if (!resource.exists()) {
-            throw new IllegalStateException("Resource not found: " + resource.getFilename());
+    void closeView(StorageView view) {
+        clock.close(view.version());
+        for (SeedKind kind : SeedKind.values()) {
+            store(kind).trimHistory();
+        }
+    }
+
+    private void saveScheduledSnapshot() {
+        try {
+            saveSnapshot(Path.of(snapshotPath));
+        } catch (RuntimeException e) {
+            log.error("Scheduled snapshot failed", e);
         }
+    }
 
-        try (BufferedReader reader =
-                     new BufferedReader(
-                             new InputStreamReader(
-                                     resource.getInputStream(),
-                                     StandardCharsets.UTF_8))) {
+    /**
+     * Loads a snapshot written by {@link #saveSnapshot(Path)} into this storage, which is expected to be empty.
+     */
+    public void restoreSnapshot(Path path) {
+        try {
+            journalSequence = new StorageSnapshot(this, parallelism()).read(path);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to restore snapshot: " + path, e);
+        }
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String trimmed = line.trim();
-                if (!trimmed.isEmpty()) {
-                    parseLine(trimmed);
+    /**
+     * Replays the journal at {@code path}, skipping what the restored snapshot already holds,
+     * and attaches it to every store so that writes return only once they are logged and synced.
+     */
+    void openJournal(Path path, long commitWindowMicros) {
+        Journal.Replay replay = new Journal.Replay() {
+            @Override
+            public void put(Object record) {
+                try {
+                    InMemoryStorage.this.put(record);
+                } catch (DuplicateKeyException e) {
+                    log.warn("Skipping journal record that conflicts with the snapshot: {}", record, e);
                 }
             }
 
+            @Override
+            public void remove(SeedKind kind, long id) {
+                store(kind).remove(id);
+            }
+        };
+        try {
+            journal = Journal.open(path, commitWindowMicros, journalSequence, replay);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open journal: " + path, e);
+        }
+        for (SeedKind kind : SeedKind.values()) {
+            this.<Object>store(kind).setJournal(journal.forKind(kind));
+        }
+    }
+
+    void closeJournal() {
+        Journal current = journal;
+        if (current == null) {
+            return;
+        }
+        for (SeedKind kind : SeedKind.values()) {
+            store(kind).setJournal(null);
+        }
+        journal = null;
+        journalSequence = current.lastSequence();
+        try {
+            current.close();
         } catch (IOException e) {
-            throw new IllegalStateException("Failed to load resource: " + resource.getFilename(), e);
+            throw new IllegalStateException("Failed to close journal", e);
         }
     }
 
+    /**
+     * Sequence number of the last journal record reflected in this storage.
+     */
+    long journalSequence() {
+        Journal current = journal;
+        return current == null ? journalSequence : current.lastSequence();
+    }
+
+    private static boolean isConfigured(String path) {
+        return path != null && !path.isBlank();
+    }
+
+    private int parallelism() {
+        return loadParallelism > 0 ? loadParallelism : Runtime.getRuntime().availableProcessors();
+    }
 
     private void parseLine(String line) {
-        if (line.isEmpty() || line.startsWith("#")) {
-            return;
+        Object record = parseRecord(line);
+        if (record != null) {
+            apply(record);
         }
+    }
 
-        String[] parts = line.split(",");
-        if (parts.length < 2) {
-            return;
+    Object parseRecord(String line) {
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        return parseRecord(new CsvTokenizer().reset(bytes, 0, bytes.limit()));
+    }
+
+    Object parseRecord(CsvTokenizer line) {
+        if (line.isBlankOrComment() || line.fieldCount() < 2) {
+            return null;
         }
 
         try {
-            switch (parts.length) {
-                case 2 -> parseTrainingType(parts);
-                case 3 -> parseTrainer(parts);
-                case 4 -> parseTrainee(parts);
-                case 6 -> parseUser(parts);
-                case 7 -> parseTraining(parts);
-                default -> log.warn("Unknown line format, skipping: {}", line);
-            }
+            return switch (line.fieldCount()) {
+                case 2 -> parseTrainingType(line);
+                case 3 -> parseTrainer(line);
+                case 4 -> parseTrainee(line);
+                case 6 -> parseUser(line);
+                case 7 -> parseTraining(line);
+                default -> {
+                    log.warn("Unknown line format, skipping: {}", line.line());
+                    yield null;
+                }
+            };
         } catch (Exception e) {
-            log.error("Failed to parse line: {}", line, e);
+            log.error("Failed to parse line: {}", line.line(), e);
+            return null;
         }
     }
 
-    private void parseTrainingType(String[] parts) {
-        if (parts.length < 2) return;
+    void apply(Object record) {
+        try {
+            switch (record) {
+                case TrainingType trainingType -> put(trainingType);
+                case User user -> put(user);
+                case Trainee trainee -> applyTrainee(trainee);
+                case Trainer trainer -> applyTrainer(trainer);
+                case Training training -> applyTraining(training);
+                default -> throw new IllegalArgumentException("Unsupported record: " + record);
+            }
+        } catch (IllegalStateException e) {
+            log.error("Failed to load record: {}", record, e);
+        }
+    }
+
+    private TrainingType parseTrainingType(CsvTokenizer line) {
+        long id = line.longField(0);
+        String typeName = line.textField(1);
+
+        return new TrainingType(id, typeName);
+    }
 
-        Long id = Long.parseLong(parts[0].trim());
-        String typeName = parts[1].trim();
+    private User parseUser(CsvTokenizer line) {
+        long userId = line.longField(0);
+        String firstName = line.textField(1);
+        String lastName = line.textField(2);
+        String username = line.textField(3);
+        String password = line.textField(4);
+        boolean isActive = line.booleanField(5);
 
-        TrainingType trainingType = new TrainingType(id, typeName);
-        trainingTypeStorage.put(id, trainingType);
-        trainingTypeIdCounter.set(Math.max(trainingTypeIdCounter.get(), id + 1));
+        return new User(userId, firstName, lastName, username, password, isActive);
     }
 
-    private void parseUser(String[] parts) {
-        if (parts.length < 6) return;
+    private Trainee parseTrainee(CsvTokenizer line) {
+        long traineeId = line.longField(0);
+        LocalDate dateOfBirth = line.dateField(1);
+        String address = line.textField(2);
+        long userId = line.longField(3);
 
-        Long userId = Long.parseLong(parts[0].trim());
-        String firstName = parts[1].trim();
-        String lastName = parts[2].trim();
-        String username = parts[3].trim();
-        String password = parts[4].trim();
-        boolean isActive = Boolean.parseBoolean(parts[5].trim());
+        return new Trainee(traineeId, dateOfBirth, address, userId);
+    }
+
+    private Trainer parseTrainer(CsvTokenizer line) {
+        long trainerId = line.longField(0);
+        String specialization = line.textField(1);
+        long userId = line.longField(2);
 
-        User user = new User(userId, firstName, lastName, username, password, isActive);
-        userStorage.put(userId, user);
-        userIdCounter.set(Math.max(userIdCounter.get(), userId + 1));
+        return new Trainer(trainerId, specialization, userId);
     }
 
-    private void parseTrainee(String[] parts) {
-        if (parts.length < 4) return;
+    private Training parseTraining(CsvTokenizer line) {
+        long trainingId = line.longField(0);
+        long traineeId = line.longField(1);
+        long trainerId = line.longField(2);
+        String name = line.textField(3);
+        String type = line.textField(4);
+        int duration = line.intField(5);
+        LocalDate date = line.dateField(6);
+
+        return new Training(trainingId, traineeId, trainerId, name, type, duration, date);
+    }
 
-        Long traineeId = Long.parseLong(parts[0].trim());
-        LocalDate dateOfBirth = LocalDate.parse(parts[1].trim());
-        String address = parts[2].trim();
-        Long userId = Long.parseLong(parts[3].trim());
+    private void applyTrainee(Trainee trainee) {
+        Long traineeId = trainee.getTraineeId();
+        Long userId = trainee.getUserId();
 
         if (!userStorage.containsKey(userId)) {
             log.error("User {} not found for Trainee {}, skipping", userId, traineeId);
             return;
         }
 
-        Trainee trainee = new Trainee(traineeId, dateOfBirth, address, userId);
-        traineeStorage.put(traineeId, trainee);
-        traineeIdCounter.set(Math.max(traineeIdCounter.get(), traineeId + 1));
+        put(trainee);
     }
 
-    private void parseTrainer(String[] parts) {
-        if (parts.length < 3) return;
-
-        Long trainerId = Long.parseLong(parts[0].trim());
-        String specialization = parts[1].trim();
-        Long userId = Long.parseLong(parts[2].trim());
+    private void applyTrainer(Trainer trainer) {
+        Long trainerId = trainer.getTrainerId();
+        Long userId = trainer.getUserId();
 
         if (!userStorage.containsKey(userId)) {
             log.error("User {} not found for Trainer {}, skipping", userId, trainerId);
             return;
         }
 
-        Trainer trainer = new Trainer(trainerId, specialization, userId);
-        trainerStorage.put(trainerId, trainer);
-        trainerIdCounter.set(Math.max(trainerIdCounter.get(), trainerId + 1));
+        put(trainer);
     }
 
-    private void parseTraining(String[] parts) {
-        if (parts.length < 7) return;
-
-        Long trainingId = Long.parseLong(parts[0].trim());
-        Long traineeId = Long.parseLong(parts[1].trim());
-        Long trainerId = Long.parseLong(parts[2].trim());
-        String name = parts[3].trim();
-        String type = parts[4].trim();
-        int duration = Integer.parseInt(parts[5].trim());
-        LocalDate date = LocalDate.parse(parts[6].trim());
+    private void applyTraining(Training training) {
+        Long trainingId = training.getTrainingId();
+        Long traineeId = training.getTraineeId();
+        Long trainerId = training.getTrainerId();
 
         if (!traineeStorage.containsKey(traineeId)) {
             log.error("Trainee {} not found for Training {}, skipping", traineeId, trainingId);
@@ -179,29 +432,155 @@ public class InMemoryStorage {
             log.error("Trainer {} not found for Training {}, skipping", trainerId, trainingId);
             return;
         }
+        if (training.getTrainingType() != null && !isTrainingType(training.getTrainingType())) {
+            log.error("Training type {} not found for Training {}, skipping", training.getTrainingType(), trainingId);
+            return;
+        }
+
+        put(training);
+    }
+
+    /**
+     * Stores a record under its own id without reference checks and moves the id counter past it.
+     */
+    void put(Object record) {
+        internTypeNames(record);
+        SeedKind kind = SeedKind.of(record);
+        long id = idOf(record);
+        store(kind).put(id, record);
+        ids(kind).advanceTo(id + 1);
+    }
+
+    /**
+     * Bulk counterpart of {@link #put(Object)} for records of one kind under ids not stored yet.
+     */
+    void putAll(SeedKind kind, Map<Long, Object> records) {
+        records.values().forEach(this::internTypeNames);
+        store(kind).putAll(records);
+        for (Long id : records.keySet()) {
+            ids(kind).advanceTo(id + 1);
+        }
+    }
+
+    private void internTypeNames(Object record) {
+        switch (record) {
+            case TrainingType trainingType ->
+                    trainingType.setTrainingTypeName(trainingTypes.intern(trainingType.getTrainingTypeName()));
+            case Trainer trainer -> trainer.setSpecialization(canonicalTrainingType(trainer.getSpecialization()));
+            default -> {
+            }
+        }
+    }
+
+    static long idOf(Object record) {
+        return switch (record) {
+            case TrainingType trainingType -> trainingType.getTrainingTypeId();
+            case User user -> user.getUserId();
+            case Trainee trainee -> trainee.getTraineeId();
+            case Trainer trainer -> trainer.getTrainerId();
+            case Training training -> training.getTrainingId();
+            default -> throw new IllegalArgumentException("Unsupported record: " + record);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> EntityStore<T> store(SeedKind kind) {
+        return (EntityStore<T>) switch (kind) {
+            case TRAINING_TYPE -> trainingTypeStorage;
+            case USER -> userStorage;
+            case TRAINEE -> traineeStorage;
+            case TRAINER -> trainerStorage;
+            case TRAINING -> trainingStorage;
+        };
+    }
+
+    IdAllocator ids(SeedKind kind) {
+        return switch (kind) {
+            case TRAINING_TYPE -> trainingTypeIds;
+            case USER -> userIds;
+            case TRAINEE -> traineeIds;
+            case TRAINER -> trainerIds;
+            case TRAINING -> trainingIds;
+        };
+    }
+
+    /**
+     * How many ids each thread takes from a counter at a time; 1, the default outside Spring, takes them one by one.
+     */
+    public void setIdBlockSize(int blockSize) {
+        for (SeedKind kind : SeedKind.values()) {
+            ids(kind).setBlockSize(blockSize);
+        }
+    }
 
-        Training training = new Training(trainingId, traineeId, trainerId, name, type, duration, date);
-        trainingStorage.put(trainingId, training);
-        trainingIdCounter.set(Math.max(trainingIdCounter.get(), trainingId + 1));
+    /**
+     * Total minutes of all trainings by training type, scanned straight from the training columns.
+     */
+    public Map<String, Long> getTrainingDurationByType() {
+        return trainingColumns.totalDurationByType();
+    }
+
+    /**
+     * The shared instance of a training type name, added to the type dictionary if new. The dictionary never
+     * shrinks, so only names of stored training types go in; other text goes through {@link #canonicalTrainingType}.
+     */
+    public String internTrainingType(String name) {
+        return trainingTypes.intern(name);
+    }
+
+    /**
+     * The shared instance of {@code name} when it is a training type name, otherwise {@code name} itself;
+     * never adds to the dictionary, so free text such as a specialization cannot grow it.
+     */
+    public String canonicalTrainingType(String name) {
+        int code = trainingTypes.find(name);
+        return code == StringDictionary.NULL ? name : trainingTypes.decode(code);
+    }
+
+    public boolean isTrainingType(String name) {
+        return name != null && trainingTypeNameIndex.find(name) != null;
+    }
+
+    /**
+     * Ids of the trainings of the given type, found by comparing the type's dictionary code down the type column.
+     */
+    public long[] findTrainingIdsByType(String type) {
+        int code = trainingTypes.find(type);
+        return code == StringDictionary.NULL ? new long[0] : trainingColumns.idsOfType(code);
     }
 
     public Long getNextUserId() {
-        return userIdCounter.getAndIncrement();
+        return userIds.next();
     }
 
     public Long getNextTraineeId() {
-        return traineeIdCounter.getAndIncrement();
+        return traineeIds.next();
     }
 
     public Long getNextTrainerId() {
-        return trainerIdCounter.getAndIncrement();
+        return trainerIds.next();
     }
 
     public Long getNextTrainingId() {
-        return trainingIdCounter.getAndIncrement();
+        return trainingIds.next();
     }
 
     public Long getNextTrainingTypeId() {
-        return trainingTypeIdCounter.getAndIncrement();
+        return trainingTypeIds.next();
+    }
+
+    /**
+     * Reserves {@code count} consecutive user ids in one step and returns the first.
+     */
+    public long reserveUserIds(int count) {
+        return userIds.reserve(count);
+    }
+
+    public long reserveTraineeIds(int count) {
+        return traineeIds.reserve(count);
+    }
+
+    public long reserveTrainerIds(int count) {
+        return trainerIds.reserve(count);
     }
 }
\ No newline at end of file
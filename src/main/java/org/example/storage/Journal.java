@@ -0,0 +1,473 @@
+package org.example.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of storage mutations with group commit.
+ * Each record is framed as {@code [int length][long sequence][op][payload][int crc32c]}: a put carries
+ * the entity as written by {@link EntityCodec}, a remove its type tag and id.
+ * Writers only copy their record into a shared buffer; a single flusher thread waits up to the
+ * commit window for more records, then writes and syncs the whole batch at once and wakes every
+ * writer it covers. On open, a torn or corrupt tail left by a crash is cut off before appending.
+ * {@link #rotate()} archives the file as a segment at a chosen point, so the part a snapshot covers can be dropped.
+ */
+@Slf4j
+class Journal implements AutoCloseable {
+
+    static final int MAGIC = 0x47594D4A;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int PUT = 1;
+    private static final int REMOVE = 2;
+
+    /**
+     * Receives the records of an existing journal, in order, when it is opened.
+     */
+    interface Replay {
+
+        void put(Object record);
+
+        void remove(SeedKind kind, long id);
+    }
+
+    private record Rotation(long sequence, BinaryOutput tail) {
+    }
+
+    private record Replayed(long lastSequence, long records, long validEnd) {
+    }
+
+    private final Path path;
+    private final long commitWindowNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final ThreadLocal<BinaryOutput> scratch = ThreadLocal.withInitial(() -> new BinaryOutput(256));
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+    private final List<Rotation> rotations = new ArrayList<>();
+    private FileChannel channel;
+    private BinaryOutput buffer = new BinaryOutput(1 << 16);
+    private BinaryOutput spare = new BinaryOutput(1 << 16);
+    private long appendedSequence;
+    private long durableSequence;
+    private long rotatedSequence;
+    private long archivedSequence;
+    private IOException failure;
+    private boolean closed;
+
+    private Journal(Path path, FileChannel channel, long commitWindowMicros, long lastSequence) {
+        this.path = path;
+        this.channel = channel;
+        this.commitWindowNanos = TimeUnit.MICROSECONDS.toNanos(commitWindowMicros);
+        this.appendedSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens or creates the journal at {@code path}, replaying the records after {@code afterSequence}
+     * from the segments archived by {@link #rotate()} and then from the file itself.
+     * New records are numbered after both {@code afterSequence} and the last record replayed.
+     */
+    static Journal open(Path path, long commitWindowMicros, long afterSequence, Replay replay) throws IOException {
+        long start = System.nanoTime();
+        long lastSequence = afterSequence;
+        long replayed = 0;
+        for (Path segment : segments(path).values()) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                Replayed result = replay(channel, segment, afterSequence, replay);
+                if (result.validEnd() < channel.size()) {
+                    log.warn("Journal segment {} ends in a torn or corrupt record after {} bytes",
+                            segment, result.validEnd());
+                }
+                lastSequence = Math.max(lastSequence, result.lastSequence());
+                replayed += result.records();
+            }
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel);
+            } else {
+                Replayed result = replay(channel, path, afterSequence, replay);
+                if (result.validEnd() < channel.size()) {
+                    log.warn("Truncating journal {} from {} to {} bytes after a torn or corrupt record",
+                            path, channel.size(), result.validEnd());
+                    channel.truncate(result.validEnd());
+                    channel.force(true);
+                }
+                lastSequence = Math.max(lastSequence, result.lastSequence());
+                replayed += result.records();
+            }
+            channel.position(channel.size());
+            log.info("Opened journal {}: replayed {} records in {} ms", path, replayed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return new Journal(path, channel, commitWindowMicros, lastSequence);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the journal at {@code path} together with its archived segments.
+     */
+    static void delete(Path path) throws IOException {
+        for (Path segment : segments(path).values()) {
+            Files.deleteIfExists(segment);
+        }
+        Files.deleteIfExists(path);
+    }
+
+    long appendPut(Object record) {
+        BinaryOutput body = body(PUT);
+        try {
+            EntityCodec.write(body, record);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode " + record, e);
+        }
+        return append(body);
+    }
+
+    long appendRemove(SeedKind kind, long id) {
+        BinaryOutput body = body(REMOVE);
+        try {
+            body.writeByte(EntityCodec.tag(kind));
+            body.writeLong(id);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode removal of " + kind + " " + id, e);
+        }
+        return append(body);
+    }
+
+    /**
+     * Blocks until the record with the given sequence number has been synced to disk.
+     */
+    void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IllegalStateException("Journal write failed: " + path, failure);
+                }
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new file after the records appended so far and returns the sequence number of the last of them.
+     * The flusher archives the current file as a segment named after that number; once a snapshot covering it
+     * is durable, {@link #deleteSegmentsThrough(long)} drops it. Appends must not race with this call.
+     */
+    long rotate() {
+        lock.lock();
+        try {
+            if (closed || failure != null) {
+                throw new IllegalStateException("Journal is not writable: " + path, failure);
+            }
+            rotations.add(new Rotation(appendedSequence, buffer));
+            rotatedSequence = appendedSequence;
+            buffer = new BinaryOutput(1 << 16);
+            pending.signal();
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the archived segments whose records all have sequence numbers up to {@code sequence}.
+     */
+    void deleteSegmentsThrough(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (archivedSequence < Math.min(sequence, rotatedSequence)) {
+                if (failure != null) {
+                    throw new IllegalStateException("Journal write failed: " + path, failure);
+                }
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Map.Entry<Long, Path> segment : segments(path).headMap(sequence, true).entrySet()) {
+            Files.deleteIfExists(segment.getValue());
+        }
+    }
+
+    /**
+     * Returns a hook that logs the writes of one store.
+     */
+    <T> StoreJournal<T> forKind(SeedKind kind) {
+        return new StoreJournal<>() {
+            @Override
+            public long put(long id, T entity) {
+                return appendPut(entity);
+            }
+
+            @Override
+            public long remove(long id) {
+                return appendRemove(kind, id);
+            }
+
+            @Override
+            public void awaitDurable(long ticket) {
+                Journal.this.awaitDurable(ticket);
+            }
+        };
+    }
+
+    /**
+     * Syncs what was appended so far, stops the flusher and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            pending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private BinaryOutput body(int op) {
+        BinaryOutput body = scratch.get();
+        body.reset();
+        try {
+            body.writeLong(0);
+            body.writeByte(op);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return body;
+    }
+
+    private long append(BinaryOutput body) {
+        ByteBuffer bytes = body.toByteBuffer();
+        lock.lock();
+        try {
+            if (closed || failure != null) {
+                throw new IllegalStateException("Journal is not writable: " + path, failure);
+            }
+            long sequence = ++appendedSequence;
+            bytes.putLong(0, sequence);
+            crc.reset();
+            crc.update(bytes.duplicate());
+            buffer.writeInt(bytes.remaining());
+            buffer.writeBytes(bytes);
+            buffer.writeInt((int) crc.getValue());
+            pending.signal();
+            return sequence;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to append to journal: " + path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            BinaryOutput batch;
+            long batchSequence;
+            List<Rotation> due;
+            lock.lock();
+            try {
+                while (buffer.size() == 0 && rotations.isEmpty() && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+                if (buffer.size() == 0 && rotations.isEmpty()) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (commitWindowNanos > 0) {
+                LockSupport.parkNanos(commitWindowNanos);
+            }
+            lock.lock();
+            try {
+                batch = buffer;
+                buffer = spare;
+                spare = batch;
+                batchSequence = appendedSequence;
+                due = new ArrayList<>(rotations);
+                rotations.clear();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                for (Rotation rotation : due) {
+                    write(rotation.tail());
+                    if (channel.size() > HEADER_BYTES) {
+                        channel.force(false);
+                        channel.close();
+                        Files.move(path, segmentPath(path, rotation.sequence()), StandardCopyOption.ATOMIC_MOVE);
+                        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                        writeHeader(channel);
+                    }
+                }
+                write(batch);
+                channel.force(false);
+                batch.reset();
+            } catch (IOException e) {
+                log.error("Failed to write journal {}", path, e);
+                lock.lock();
+                try {
+                    failure = e;
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                durableSequence = batchSequence;
+                if (!due.isEmpty()) {
+                    archivedSequence = due.get(due.size() - 1).sequence();
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(BinaryOutput batch) throws IOException {
+        ByteBuffer bytes = batch.toByteBuffer();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    private static Replayed replay(FileChannel channel, Path path, long afterSequence, Replay replay)
+            throws IOException {
+        BinaryInput in = new BinaryInput(channel.position(0), StorageSnapshot.SEGMENT_BYTES);
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a storage journal: " + path);
+        }
+        long lastSequence = 0;
+        long records = 0;
+        long validEnd = HEADER_BYTES;
+        byte[] body = new byte[256];
+        CRC32C check = new CRC32C();
+        while (in.hasMore()) {
+            int length;
+            try {
+                length = in.readInt();
+                if (length < Long.BYTES + 1 || length > channel.size()) {
+                    break;
+                }
+                if (body.length < length) {
+                    body = new byte[Math.max(length, body.length * 2)];
+                }
+                in.readBytes(body, length);
+                check.reset();
+                check.update(body, 0, length);
+                if (in.readInt() != (int) check.getValue()) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            BinaryInput record = new BinaryInput(ByteBuffer.wrap(body, 0, length));
+            long sequence = record.readLong();
+            if (sequence > afterSequence) {
+                apply(record, replay);
+                records++;
+            }
+            lastSequence = Math.max(lastSequence, sequence);
+            validEnd += Integer.BYTES + length + Integer.BYTES;
+        }
+        return new Replayed(lastSequence, records, validEnd);
+    }
+
+    /**
+     * Archived segments of the journal at {@code path} by the last sequence number they hold.
+     */
+    private static NavigableMap<Long, Path> segments(Path path) throws IOException {
+        NavigableMap<Long, Path> segments = new TreeMap<>();
+        Path directory = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName() + ".";
+        if (directory == null || !Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.length() > prefix.length()
+                        && name.substring(prefix.length()).chars().allMatch(Character::isDigit)) {
+                    segments.put(Long.parseLong(name.substring(prefix.length())), file);
+                }
+            });
+        }
+        return segments;
+    }
+
+    private static Path segmentPath(Path path, long lastSequence) {
+        return path.resolveSibling(path.getFileName() + "." + lastSequence);
+    }
+
+    private static void apply(BinaryInput record, Replay replay) throws IOException {
+        int op = record.readByte();
+        switch (op) {
+            case PUT -> replay.put(EntityCodec.read(record));
+            case REMOVE -> replay.remove(EntityCodec.kind(record.readByte()), record.readLong());
+            default -> throw new IOException("Unknown journal operation: " + op);
+        }
+    }
+}
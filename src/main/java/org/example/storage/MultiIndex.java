@@ -0,0 +1,97 @@
+package org.example.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Key to ids posting lists, e.g. all trainings of one trainee.
+ * Lookups cost the size of the posting list, not the size of the store.
+ * Like {@link UniqueIndex}, the key indexed for each id is remembered so an
+ * update that reassigns an entity moves it to the right list. Null keys are not indexed.
+ */
+public class MultiIndex<T, K> implements EntityIndex<T> {
+
+    private final Function<T, K> keyExtractor;
+    private final ConcurrentHashMap<K, Set<Long>> idsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, K> keysById = new ConcurrentHashMap<>();
+
+    public MultiIndex(Function<T, K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Returns a live, read-only view of the ids indexed under {@code key}.
+     */
+    public Set<Long> find(K key) {
+        Set<Long> ids = key == null ? null : idsByKey.get(key);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    @Override
+    public void onPut(long id, T previous, T current) {
+        K oldKey = keysById.get(id);
+        K newKey = keyExtractor.apply(current);
+        if (Objects.equals(oldKey, newKey)) {
+            return;
+        }
+        if (newKey != null) {
+            add(newKey, id);
+            keysById.put(id, newKey);
+        } else {
+            keysById.remove(id);
+        }
+        if (oldKey != null) {
+            remove(oldKey, id);
+        }
+    }
+
+    /**
+     * Groups the batch by key first, so each posting list is touched once.
+     */
+    @Override
+    public void onPutAll(Map<Long, T> added) {
+        Map<K, List<Long>> idsByNewKey = new HashMap<>();
+        added.forEach((id, entity) -> {
+            K key = keyExtractor.apply(entity);
+            if (key != null) {
+                idsByNewKey.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+                keysById.put(id, key);
+            }
+        });
+        idsByNewKey.forEach((key, ids) -> idsByKey.compute(key, (k, existing) -> {
+            Set<Long> result = existing == null ? ConcurrentHashMap.newKeySet(ids.size()) : existing;
+            result.addAll(ids);
+            return result;
+        }));
+    }
+
+    @Override
+    public void onRemove(long id, T previous) {
+        K key = keysById.remove(id);
+        if (key != null) {
+            remove(key, id);
+        }
+    }
+
+    private void add(K key, long id) {
+        idsByKey.compute(key, (k, ids) -> {
+            Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private void remove(K key, long id) {
+        idsByKey.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
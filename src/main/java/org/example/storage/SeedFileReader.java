@@ -0,0 +1,101 @@
+package org.example.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Splits a seed file into line-aligned byte chunks for parallel parsing.
+ * File-backed resources are memory-mapped in windows and sliced without copying;
+ * anything else (e.g. a resource inside a jar) is read through its input stream.
+ * Every chunk except possibly the last ends with a line feed.
+ */
+final class SeedFileReader {
+
+    static final int CHUNK_BYTES = 1 << 20;
+    private static final long WINDOW_BYTES = 1L << 28;
+
+    private SeedFileReader() {
+    }
+
+    static void readChunks(Resource resource, Consumer<ByteBuffer> consumer) throws IOException {
+        if (resource.isFile()) {
+            mapChunks(resource, consumer);
+        } else {
+            streamChunks(resource, consumer);
+        }
+    }
+
+    private static void mapChunks(Resource resource, Consumer<ByteBuffer> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int usable = position + length < size ? lastLineEnd(window, (int) length) : (int) length;
+                if (usable == 0) {
+                    throw new IOException("Line longer than " + WINDOW_BYTES + " bytes in " + resource.getFilename());
+                }
+                sliceChunks(window, usable, consumer);
+                position += usable;
+            }
+        }
+    }
+
+    private static void sliceChunks(ByteBuffer window, int length, Consumer<ByteBuffer> consumer) {
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(start + CHUNK_BYTES, length);
+            while (end < length && window.get(end - 1) != '\n') {
+                end++;
+            }
+            consumer.accept(window.slice(start, end - start));
+            start = end;
+        }
+    }
+
+    private static void streamChunks(Resource resource, Consumer<ByteBuffer> consumer) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            byte[] buffer = new byte[CHUNK_BYTES];
+            int filled = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, filled, buffer.length - filled)) > 0) {
+                filled += read;
+                if (filled < buffer.length) {
+                    continue;
+                }
+                int end = lastLineEnd(ByteBuffer.wrap(buffer), filled);
+                if (end == 0) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+                consumer.accept(ByteBuffer.wrap(Arrays.copyOf(buffer, end)));
+                System.arraycopy(buffer, end, buffer, 0, filled - end);
+                filled -= end;
+            }
+            if (filled > 0) {
+                consumer.accept(ByteBuffer.wrap(Arrays.copyOf(buffer, filled)));
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the prefix of {@code buffer} that ends with a line feed, or 0 if there is none.
+     */
+    private static int lastLineEnd(ByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
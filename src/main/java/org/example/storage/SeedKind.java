@@ -0,0 +1,49 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.example.entity.Trainer;
+import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.entity.User;
+
+import java.util.List;
+
+/**
+ * Seed record types and the types each one references, which fixes the order they are applied in.
+ */
+enum SeedKind {
+
+    TRAINING_TYPE(TrainingType.class),
+    USER(User.class),
+    TRAINEE(Trainee.class, USER),
+    TRAINER(Trainer.class, USER, TRAINING_TYPE),
+    TRAINING(Training.class, TRAINEE, TRAINER, TRAINING_TYPE);
+
+    private final Class<?> type;
+    private final List<SeedKind> dependencies;
+
+    SeedKind(Class<?> type, SeedKind... dependencies) {
+        this.type = type;
+        this.dependencies = List.of(dependencies);
+    }
+
+    /**
+     * Kinds on the same level do not depend on each other and can be applied concurrently.
+     */
+    int level() {
+        int level = 0;
+        for (SeedKind dependency : dependencies) {
+            level = Math.max(level, dependency.level() + 1);
+        }
+        return level;
+    }
+
+    static SeedKind of(Object record) {
+        for (SeedKind kind : values()) {
+            if (kind.type.isInstance(record)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported record: " + record);
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads seed files into {@link InMemoryStorage} in two phases.
+ * All files, and line-aligned chunks of each file read by {@link SeedFileReader},
+ * are parsed in parallel on a fork/join pool; a chunk is handed to a worker as soon as it is read.
+ * The parsed records are then applied level by level following {@link SeedKind}
+ * dependencies, so e.g. trainings are only checked against trainees and trainers
+ * once those are fully loaded, whatever order the files are listed in.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class SeedLoader {
+
+    private final InMemoryStorage storage;
+    private final int parallelism;
+
+    void load(List<Resource> resources) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<Object>>> parsing = new ArrayList<>();
+            for (Resource resource : resources) {
+                parsing.add(pool.submit(() -> parse(resource)));
+            }
+
+            Map<SeedKind, List<Object>> recordsByKind = new EnumMap<>(SeedKind.class);
+            for (ForkJoinTask<List<Object>> task : parsing) {
+                for (Object record : task.join()) {
+                    recordsByKind.computeIfAbsent(SeedKind.of(record), kind -> new ArrayList<>()).add(record);
+                }
+            }
+
+            applyByLevel(pool, recordsByKind);
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Loaded {} seed files in {} ms", resources.size(), elapsedMillis(start));
+    }
+
+    private List<Object> parse(Resource resource) {
+        if (!resource.exists()) {
+            throw new IllegalStateException("Resource not found: " + resource.getFilename());
+        }
+
+        long start = System.nanoTime();
+        List<ForkJoinTask<List<Object>>> chunks = new ArrayList<>();
+        try {
+            SeedFileReader.readChunks(resource,
+                    chunk -> chunks.add(ForkJoinTask.adapt(() -> parseChunk(chunk)).fork()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load resource: " + resource.getFilename(), e);
+        }
+
+        List<Object> records = new ArrayList<>();
+        for (ForkJoinTask<List<Object>> chunk : chunks) {
+            records.addAll(chunk.join());
+        }
+
+        long nanos = System.nanoTime() - start;
+        log.info("Parsed {}: {} records in {} chunks, {} ms ({} records/s)",
+                resource.getFilename(), records.size(), chunks.size(),
+                TimeUnit.NANOSECONDS.toMillis(nanos), perSecond(records.size(), nanos));
+        return records;
+    }
+
+    private List<Object> parseChunk(ByteBuffer chunk) {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        List<Object> records = new ArrayList<>();
+        int lineStart = 0;
+        int limit = chunk.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i == limit || chunk.get(i) == '\n') {
+                if (i > lineStart) {
+                    Object record = storage.parseRecord(tokenizer.reset(chunk, lineStart, i));
+                    if (record != null) {
+                        records.add(record);
+                    }
+                }
+                lineStart = i + 1;
+            }
+        }
+        return records;
+    }
+
+    private void applyByLevel(ForkJoinPool pool, Map<SeedKind, List<Object>> recordsByKind) {
+        Map<Integer, List<SeedKind>> levels = new TreeMap<>();
+        for (SeedKind kind : SeedKind.values()) {
+            levels.computeIfAbsent(kind.level(), level -> new ArrayList<>()).add(kind);
+        }
+
+        for (List<SeedKind> level : levels.values()) {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (SeedKind kind : level) {
+                List<Object> records = recordsByKind.getOrDefault(kind, List.of());
+                tasks.add(pool.submit(() -> apply(kind, records)));
+            }
+            tasks.forEach(ForkJoinTask::join);
+        }
+    }
+
+    private void apply(SeedKind kind, List<Object> records) {
+        long start = System.nanoTime();
+        for (Object record : records) {
+            storage.apply(record);
+        }
+        long nanos = System.nanoTime() - start;
+        log.info("Applied {} {} records in {} ms ({} records/s)",
+                records.size(), kind, TimeUnit.NANOSECONDS.toMillis(nanos), perSecond(records.size(), nanos));
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return count * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versioned binary image of {@link InMemoryStorage}.
+ * After a header with the journal sequence number it was taken at and the id counters, records encoded by {@link EntityCodec} are grouped into
+ * length-prefixed segments of about {@value #SEGMENT_BYTES} bytes, so restoring reads the file in
+ * large sequential reads and decodes the segments in parallel. A zero length and the record count close the file.
+ * Decoded records are inserted one kind at a time through {@link EntityStore#putAll}, which lets the
+ * indexes build themselves in bulk. References are not re-checked: a snapshot holds exactly what the storage held.
+ * Snapshots are written from a {@link StorageView} to a temporary file and moved into place, so they are
+ * point-in-time even under load and a crash never leaves a partial one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class StorageSnapshot {
+
+    static final int MAGIC = 0x47594D53;
+    static final int FORMAT_VERSION = 2;
+    static final int SEGMENT_BYTES = 1 << 20;
+
+    private final InMemoryStorage storage;
+    private final int parallelism;
+
+    /**
+     * Writes what the view sees; the storage it was opened on keeps taking writes meanwhile.
+     */
+    void write(StorageView view, Path path) throws IOException {
+        long start = System.nanoTime();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            BinaryOutput file = new BinaryOutput(channel, SEGMENT_BYTES);
+            file.writeInt(MAGIC);
+            file.writeInt(FORMAT_VERSION);
+            file.writeLong(view.journalSequence());
+            file.writeInt(SeedKind.values().length);
+            for (SeedKind kind : SeedKind.values()) {
+                file.writeLong(view.idCounter(kind));
+            }
+
+            BinaryOutput segment = new BinaryOutput(SEGMENT_BYTES);
+            for (SeedKind kind : SeedKind.values()) {
+                for (Iterator<Object> it = view.values(kind).iterator(); it.hasNext(); ) {
+                    Object record = it.next();
+                    EntityCodec.write(segment, record);
+                    records++;
+                    if (segment.size() >= SEGMENT_BYTES) {
+                        writeSegment(file, segment);
+                    }
+                }
+            }
+            writeSegment(file, segment);
+            file.writeInt(0);
+            file.writeLong(records);
+            file.flush();
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote snapshot {}: {} records in {} ms", path, records, elapsedMillis(start));
+    }
+
+    /**
+     * Restores the snapshot and returns the journal sequence number it was taken at.
+     */
+    long read(Path path) throws IOException {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            BinaryInput file = new BinaryInput(channel, SEGMENT_BYTES);
+            if (file.readInt() != MAGIC) {
+                throw new IOException("Not a storage snapshot: " + path);
+            }
+            int version = file.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + path);
+            }
+            long journalSequence = file.readLong();
+            int kinds = file.readInt();
+            for (int i = 0; i < kinds; i++) {
+                long next = file.readLong();
+                if (i < SeedKind.values().length) {
+                    storage.ids(SeedKind.values()[i]).advanceTo(next);
+                }
+            }
+
+            List<ForkJoinTask<List<Object>>> segments = new ArrayList<>();
+            int length;
+            while ((length = file.readInt()) > 0) {
+                byte[] bytes = new byte[length];
+                file.readBytes(bytes, length);
+                segments.add(pool.submit(() -> decodeSegment(ByteBuffer.wrap(bytes))));
+            }
+            long expected = file.readLong();
+
+            Map<SeedKind, Map<Long, Object>> recordsByKind = new EnumMap<>(SeedKind.class);
+            long records = 0;
+            for (ForkJoinTask<List<Object>> segment : segments) {
+                for (Object record : segment.join()) {
+                    recordsByKind.computeIfAbsent(SeedKind.of(record), kind -> new HashMap<>())
+                            .put(InMemoryStorage.idOf(record), record);
+                    records++;
+                }
+            }
+            if (records != expected) {
+                throw new IOException("Snapshot " + path + " has " + records + " records, expected " + expected);
+            }
+
+            List<ForkJoinTask<?>> inserts = new ArrayList<>();
+            recordsByKind.forEach((kind, batch) -> inserts.add(pool.submit(() -> storage.putAll(kind, batch))));
+            inserts.forEach(ForkJoinTask::join);
+            log.info("Restored snapshot {}: {} records in {} ms", path, records, elapsedMillis(start));
+            return journalSequence;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<Object> decodeSegment(ByteBuffer bytes) throws IOException {
+        BinaryInput in = new BinaryInput(bytes);
+        List<Object> records = new ArrayList<>();
+        while (in.hasMore()) {
+            Object record = EntityCodec.read(in);
+            if (record == null) {
+                throw new EOFException("Unexpected end marker inside a snapshot segment");
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static void writeSegment(BinaryOutput file, BinaryOutput segment) throws IOException {
+        if (segment.size() == 0) {
+            return;
+        }
+        file.writeInt(segment.size());
+        file.writeBytes(segment.toByteBuffer());
+        segment.reset();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.storage;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Point-in-time view of an {@link InMemoryStorage}: the entities and id counters as they were when it was opened,
+ * while writes carry on. Opening one holds every store's stripes for a moment; while it is open the stores keep
+ * the versions it can see, so close it as soon as it is no longer needed.
+ */
+public final class StorageView implements AutoCloseable {
+
+    private final InMemoryStorage storage;
+    private final long version;
+    private final long journalSequence;
+    private final long[] idCounters;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StorageView(InMemoryStorage storage, long version, long journalSequence, long[] idCounters) {
+        this.storage = storage;
+        this.version = version;
+        this.journalSequence = journalSequence;
+        this.idCounters = idCounters;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * The view's version, or an {@link IllegalStateException} once it is closed and its versions may be gone.
+     */
+    long checkOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Storage view " + version + " is closed");
+        }
+        return version;
+    }
+
+    /**
+     * Sequence number of the last journal record this view reflects.
+     */
+    long journalSequence() {
+        return journalSequence;
+    }
+
+    long idCounter(SeedKind kind) {
+        return idCounters[kind.ordinal()];
+    }
+
+    <T> T get(SeedKind kind, long id) {
+        return storage.<T>store(kind).getAt(id, version);
+    }
+
+    <T> Stream<T> values(SeedKind kind) {
+        return storage.<T>store(kind).valuesAt(version);
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            storage.closeView(this);
+        }
+    }
+}
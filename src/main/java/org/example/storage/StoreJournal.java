@@ -0,0 +1,16 @@
+package org.example.storage;
+
+/**
+ * Write-ahead hook of an {@link EntityStore}.
+ * A write is logged after the indexes accepted it and before it is applied, under the stripe lock,
+ * so the log holds the writes to each id in the order they were applied. The returned ticket is
+ * waited on once the lock is released, so slow syncs never hold a stripe.
+ */
+interface StoreJournal<T> {
+
+    long put(long id, T entity);
+
+    long remove(long id);
+
+    void awaitDurable(long ticket);
+}
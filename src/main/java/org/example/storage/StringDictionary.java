@@ -0,0 +1,63 @@
+package org.example.storage;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns each distinct string a dense int code, so columns can hold small ints instead of references.
+ * Codes are never reassigned; lookups in both directions are lock-free.
+ */
+final class StringDictionary {
+
+    static final int NULL = -1;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    /**
+     * Code of a string already in the dictionary, or {@link #NULL} when it is not.
+     */
+    int find(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NULL : code;
+    }
+
+    /**
+     * The dictionary's own instance of {@code value}, added if new, so equal strings held elsewhere can share it.
+     */
+    String intern(String value) {
+        return decode(encode(value));
+    }
+
+    String decode(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    private synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+}
@@ -0,0 +1,285 @@
+package org.example.storage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A fixed number of training rows for {@link TrainingColumns}, one fixed-width slot per field and row.
+ * The fields live either in primitive arrays on the heap or in one direct buffer outside it,
+ * where they cost the garbage collector nothing to keep however many rows there are. The training name
+ * is free text, so it is kept as a reference on the heap either way, and is dropped when its row is reused.
+ * Only the stamp is accessed with memory ordering; the other fields are plain and guarded by it.
+ */
+abstract class TrainingChunk {
+
+    final int rows;
+
+    TrainingChunk(int rows) {
+        this.rows = rows;
+    }
+
+    static TrainingChunk heap(int rows) {
+        return new Heap(rows);
+    }
+
+    static TrainingChunk direct(int rows) {
+        return new Direct(rows);
+    }
+
+    abstract long trainingId(int i);
+
+    abstract long traineeId(int i);
+
+    abstract long trainerId(int i);
+
+    abstract String name(int i);
+
+    abstract int type(int i);
+
+    abstract int duration(int i);
+
+    abstract int day(int i);
+
+    abstract boolean current(int i);
+
+    abstract void write(int i, long trainingId, long traineeId, long trainerId,
+                        String name, int type, int duration, int day);
+
+    abstract void setCurrent(int i, boolean current);
+
+    abstract int stamp(int i);
+
+    abstract int stampAcquire(int i);
+
+    abstract int stampOpaque(int i);
+
+    abstract void setStampOpaque(int i, int stamp);
+
+    abstract void setStampRelease(int i, int stamp);
+
+    private static final class Heap extends TrainingChunk {
+
+        private static final VarHandle STAMP = MethodHandles.arrayElementVarHandle(int[].class);
+
+        private final long[] trainingId;
+        private final long[] traineeId;
+        private final long[] trainerId;
+        private final String[] name;
+        private final int[] type;
+        private final int[] duration;
+        private final int[] day;
+        private final int[] stamp;
+        private final boolean[] current;
+
+        Heap(int rows) {
+            super(rows);
+            trainingId = new long[rows];
+            traineeId = new long[rows];
+            trainerId = new long[rows];
+            name = new String[rows];
+            type = new int[rows];
+            duration = new int[rows];
+            day = new int[rows];
+            stamp = new int[rows];
+            current = new boolean[rows];
+        }
+
+        @Override
+        long trainingId(int i) {
+            return trainingId[i];
+        }
+
+        @Override
+        long traineeId(int i) {
+            return traineeId[i];
+        }
+
+        @Override
+        long trainerId(int i) {
+            return trainerId[i];
+        }
+
+        @Override
+        String name(int i) {
+            return name[i];
+        }
+
+        @Override
+        int type(int i) {
+            return type[i];
+        }
+
+        @Override
+        int duration(int i) {
+            return duration[i];
+        }
+
+        @Override
+        int day(int i) {
+            return day[i];
+        }
+
+        @Override
+        boolean current(int i) {
+            return current[i];
+        }
+
+        @Override
+        void write(int i, long trainingId, long traineeId, long trainerId,
+                   String name, int type, int duration, int day) {
+            this.trainingId[i] = trainingId;
+            this.traineeId[i] = traineeId;
+            this.trainerId[i] = trainerId;
+            this.name[i] = name;
+            this.type[i] = type;
+            this.duration[i] = duration;
+            this.day[i] = day;
+        }
+
+        @Override
+        void setCurrent(int i, boolean current) {
+            this.current[i] = current;
+        }
+
+        @Override
+        int stamp(int i) {
+            return stamp[i];
+        }
+
+        @Override
+        int stampAcquire(int i) {
+            return (int) STAMP.getAcquire(stamp, i);
+        }
+
+        @Override
+        int stampOpaque(int i) {
+            return (int) STAMP.getOpaque(stamp, i);
+        }
+
+        @Override
+        void setStampOpaque(int i, int stamp) {
+            STAMP.setOpaque(this.stamp, i, stamp);
+        }
+
+        @Override
+        void setStampRelease(int i, int stamp) {
+            STAMP.setRelease(this.stamp, i, stamp);
+        }
+    }
+
+    /**
+     * All fields but the name in one direct buffer, laid out column by column: eight bytes per row for each id,
+     * four for each int field and the stamp, one for the current flag.
+     */
+    private static final class Direct extends TrainingChunk {
+
+        private static final VarHandle STAMP = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+        private final ByteBuffer buffer;
+        private final String[] name;
+        private final int traineeIdAt;
+        private final int trainerIdAt;
+        private final int typeAt;
+        private final int durationAt;
+        private final int dayAt;
+        private final int stampAt;
+        private final int currentAt;
+
+        Direct(int rows) {
+            super(rows);
+            traineeIdAt = rows * Long.BYTES;
+            trainerIdAt = traineeIdAt + rows * Long.BYTES;
+            typeAt = trainerIdAt + rows * Long.BYTES;
+            durationAt = typeAt + rows * Integer.BYTES;
+            dayAt = durationAt + rows * Integer.BYTES;
+            stampAt = dayAt + rows * Integer.BYTES;
+            currentAt = stampAt + rows * Integer.BYTES;
+            buffer = ByteBuffer.allocateDirect(currentAt + rows).order(ByteOrder.nativeOrder());
+            name = new String[rows];
+        }
+
+        @Override
+        long trainingId(int i) {
+            return buffer.getLong(i * Long.BYTES);
+        }
+
+        @Override
+        long traineeId(int i) {
+            return buffer.getLong(traineeIdAt + i * Long.BYTES);
+        }
+
+        @Override
+        long trainerId(int i) {
+            return buffer.getLong(trainerIdAt + i * Long.BYTES);
+        }
+
+        @Override
+        String name(int i) {
+            return name[i];
+        }
+
+        @Override
+        int type(int i) {
+            return buffer.getInt(typeAt + i * Integer.BYTES);
+        }
+
+        @Override
+        int duration(int i) {
+            return buffer.getInt(durationAt + i * Integer.BYTES);
+        }
+
+        @Override
+        int day(int i) {
+            return buffer.getInt(dayAt + i * Integer.BYTES);
+        }
+
+        @Override
+        boolean current(int i) {
+            return buffer.get(currentAt + i) != 0;
+        }
+
+        @Override
+        void write(int i, long trainingId, long traineeId, long trainerId,
+                   String name, int type, int duration, int day) {
+            buffer.putLong(i * Long.BYTES, trainingId);
+            buffer.putLong(traineeIdAt + i * Long.BYTES, traineeId);
+            buffer.putLong(trainerIdAt + i * Long.BYTES, trainerId);
+            this.name[i] = name;
+            buffer.putInt(typeAt + i * Integer.BYTES, type);
+            buffer.putInt(durationAt + i * Integer.BYTES, duration);
+            buffer.putInt(dayAt + i * Integer.BYTES, day);
+        }
+
+        @Override
+        void setCurrent(int i, boolean current) {
+            buffer.put(currentAt + i, (byte) (current ? 1 : 0));
+        }
+
+        @Override
+        int stamp(int i) {
+            return buffer.getInt(stampAt + i * Integer.BYTES);
+        }
+
+        @Override
+        int stampAcquire(int i) {
+            return (int) STAMP.getAcquire(buffer, stampAt + i * Integer.BYTES);
+        }
+
+        @Override
+        int stampOpaque(int i) {
+            return (int) STAMP.getOpaque(buffer, stampAt + i * Integer.BYTES);
+        }
+
+        @Override
+        void setStampOpaque(int i, int stamp) {
+            STAMP.setOpaque(buffer, stampAt + i * Integer.BYTES, stamp);
+        }
+
+        @Override
+        void setStampRelease(int i, int stamp) {
+            STAMP.setRelease(buffer, stampAt + i * Integer.BYTES, stamp);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Struct-of-arrays layout for trainings: every stored version is a row across primitive columns,
+ * with dates as epoch days, types coded through a {@link StringDictionary} and names, which are free text,
+ * kept as plain references, so a name lives only as long as the rows that hold it.
+ * Rows live in fixed-size {@link TrainingChunk}s, on the heap or, when set off-heap, in direct buffers,
+ * and are recycled once released; each read decodes a fresh {@link Training} from its row.
+ * A row's stamp is bumped to odd while the row is rewritten and to the next even value when done;
+ * a reader that finds a stamp other than the one its version was written with knows the version
+ * was replaced and released, and retries from the entry.
+ * Scans such as {@link #totalDurationByType()} and {@link #idsOfType(int)} read the columns directly
+ * without building objects; the type dictionary may be shared so callers can look codes up themselves.
+ */
+final class TrainingColumns implements EntityLayout<Training> {
+
+    static final long NULL_ID = Long.MIN_VALUE;
+    static final int NULL_DAY = Integer.MIN_VALUE;
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    private final StringDictionary types;
+    private final ReentrantLock allocation = new ReentrantLock();
+    private volatile TrainingChunk[] chunks = new TrainingChunk[16];
+    private volatile boolean offHeap;
+    private volatile int rowLimit;
+    private int[] free = new int[64];
+    private int freeCount;
+
+    TrainingColumns() {
+        this(new StringDictionary());
+    }
+
+    TrainingColumns(StringDictionary types) {
+        this.types = types;
+    }
+
+    @Override
+    public EntityVersion<Training> newVersion(Training value, long version, EntityVersion<Training> older) {
+        int row = allocate();
+        TrainingChunk chunk = chunks[row >>> CHUNK_BITS];
+        int i = row & CHUNK_MASK;
+        int stamp = chunk.stamp(i) + 1;
+        chunk.setStampOpaque(i, stamp);
+        VarHandle.storeStoreFence();
+        chunk.write(i, encode(value.getTrainingId()), encode(value.getTraineeId()), encode(value.getTrainerId()),
+                value.getTrainingName(), types.encode(value.getTrainingType()),
+                value.getTrainingDuration(),
+                value.getTrainingDate() == null ? NULL_DAY : (int) value.getTrainingDate().toEpochDay());
+        chunk.setCurrent(i, true);
+        chunk.setStampRelease(i, stamp + 1);
+        return new Row(row, stamp + 1, version, older);
+    }
+
+    /**
+     * Total minutes of the current trainings by type, from a single pass over the duration and type columns.
+     * Like iteration over a store, it is weakly consistent with concurrent writes.
+     */
+    Map<String, Long> totalDurationByType() {
+        long[] totals = new long[types.size() + 1];
+        TrainingChunk[] chunks = this.chunks;
+        int limit = rowLimit;
+        for (int c = 0; c * CHUNK_ROWS < limit; c++) {
+            TrainingChunk chunk = chunks[c];
+            int end = Math.min(CHUNK_ROWS, limit - c * CHUNK_ROWS);
+            for (int i = 0; i < end; i++) {
+                if (chunk.current(i)) {
+                    int type = chunk.type(i);
+                    if (type >= totals.length - 1) {
+                        totals = Arrays.copyOf(totals, types.size() + 1);
+                    }
+                    totals[type + 1] += chunk.duration(i);
+                }
+            }
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int code = StringDictionary.NULL; code < totals.length - 1; code++) {
+            if (totals[code + 1] != 0) {
+                result.put(types.decode(code), totals[code + 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the current trainings whose type has the given dictionary code, comparing codes rather than strings.
+     * Weakly consistent like {@link #totalDurationByType()}; a row caught mid-rewrite is skipped.
+     */
+    long[] idsOfType(int code) {
+        long[] ids = new long[16];
+        int count = 0;
+        TrainingChunk[] chunks = this.chunks;
+        int limit = rowLimit;
+        for (int c = 0; c * CHUNK_ROWS < limit; c++) {
+            TrainingChunk chunk = chunks[c];
+            int end = Math.min(CHUNK_ROWS, limit - c * CHUNK_ROWS);
+            for (int i = 0; i < end; i++) {
+                if (chunk.type(i) != code) {
+                    continue;
+                }
+                int stamp = chunk.stampAcquire(i);
+                boolean current = chunk.current(i) && chunk.type(i) == code;
+                long id = chunk.trainingId(i);
+                VarHandle.loadLoadFence();
+                if (current && (stamp & 1) == 0 && chunk.stampOpaque(i) == stamp) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = id;
+                }
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Keeps rows in direct buffers outside the heap instead of in heap arrays; only allowed before the first row.
+     */
+    void setOffHeap(boolean offHeap) {
+        allocation.lock();
+        try {
+            if (rowLimit > 0 && offHeap != this.offHeap) {
+                throw new IllegalStateException("Training rows already allocated " + (this.offHeap ? "off" : "on") + " heap");
+            }
+            this.offHeap = offHeap;
+        } finally {
+            allocation.unlock();
+        }
+    }
+
+    boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Rows taken, including released ones waiting to be reused.
+     */
+    int rowCount() {
+        return rowLimit;
+    }
+
+    private int allocate() {
+        allocation.lock();
+        try {
+            if (freeCount > 0) {
+                return free[--freeCount];
+            }
+            int row = rowLimit;
+            int chunk = row >>> CHUNK_BITS;
+            TrainingChunk[] current = chunks;
+            if (chunk == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            if (current[chunk] == null) {
+                current[chunk] = offHeap ? TrainingChunk.direct(CHUNK_ROWS) : TrainingChunk.heap(CHUNK_ROWS);
+                chunks = current;
+            }
+            rowLimit = row + 1;
+            return row;
+        } finally {
+            allocation.unlock();
+        }
+    }
+
+    private void free(int row) {
+        allocation.lock();
+        try {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = row;
+        } finally {
+            allocation.unlock();
+        }
+    }
+
+    private static long encode(Long id) {
+        return id == null ? NULL_ID : id;
+    }
+
+    private static Long decode(long id) {
+        return id == NULL_ID ? null : id;
+    }
+
+    private final class Row extends EntityVersion<Training> {
+
+        private final int row;
+        private final int stamp;
+
+        Row(int row, int stamp, long version, EntityVersion<Training> older) {
+            super(version, older);
+            this.row = row;
+            this.stamp = stamp;
+        }
+
+        @Override
+        Training value() {
+            TrainingChunk chunk = chunks[row >>> CHUNK_BITS];
+            int i = row & CHUNK_MASK;
+            if (chunk.stampAcquire(i) != stamp) {
+                return null;
+            }
+            long trainingId = chunk.trainingId(i);
+            long traineeId = chunk.traineeId(i);
+            long trainerId = chunk.trainerId(i);
+            String name = chunk.name(i);
+            int type = chunk.type(i);
+            int duration = chunk.duration(i);
+            int day = chunk.day(i);
+            VarHandle.loadLoadFence();
+            if (chunk.stampOpaque(i) != stamp) {
+                return null;
+            }
+            return new Training(decode(trainingId), decode(traineeId), decode(trainerId),
+                    name, types.decode(type), duration,
+                    day == NULL_DAY ? null : LocalDate.ofEpochDay(day));
+        }
+
+        @Override
+        boolean isRemoval() {
+            return false;
+        }
+
+        @Override
+        void retire() {
+            chunks[row >>> CHUNK_BITS].setCurrent(row & CHUNK_MASK, false);
+        }
+
+        @Override
+        void release() {
+            free(row);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.storage;
+
+import java.time.LocalDate;
+
+/**
+ * How many trainings, how many minutes in all, and the date of the latest; the date is null when there are none.
+ */
+public record TrainingTotals(long count, long minutes, LocalDate lastTrainingDate) {
+
+    public static final TrainingTotals NONE = new TrainingTotals(0, 0, null);
+}
@@ -0,0 +1,95 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running totals of trainings per trainee, per trainer and per training type, adjusted by every write so
+ * reading one costs the same however many trainings there are. Each key also keeps a count per date, so
+ * removing its latest training falls back to the one before. Updates to one key are serialized by the map
+ * and publish a new {@link TrainingTotals} at once, so a reader never sees a count without its minutes.
+ * The totals subtract {@code previous} as the store hands it over, the stored training rather than the
+ * instance passed to the write, which is what the training columns decode.
+ */
+public class TrainingTotalsIndex implements EntityIndex<Training> {
+
+    private final ConcurrentHashMap<Long, Tally> byTrainee = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Tally> byTrainer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Tally> byType = new ConcurrentHashMap<>();
+
+    public TrainingTotals forTrainee(Long traineeId) {
+        return totals(byTrainee, traineeId);
+    }
+
+    public TrainingTotals forTrainer(Long trainerId) {
+        return totals(byTrainer, trainerId);
+    }
+
+    public TrainingTotals forType(String trainingType) {
+        return totals(byType, trainingType);
+    }
+
+    @Override
+    public void onPut(long id, Training previous, Training current) {
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(current, 1);
+    }
+
+    @Override
+    public void onRemove(long id, Training previous) {
+        apply(previous, -1);
+    }
+
+    private void apply(Training training, int sign) {
+        long minutes = training.getTrainingDuration();
+        LocalDate date = training.getTrainingDate();
+        update(byTrainee, training.getTraineeId(), sign, minutes, date);
+        update(byTrainer, training.getTrainerId(), sign, minutes, date);
+        update(byType, training.getTrainingType(), sign, minutes, date);
+    }
+
+    private static <K> void update(Map<K, Tally> tallies, K key, int sign, long minutes, LocalDate date) {
+        if (key == null) {
+            return;
+        }
+        tallies.compute(key, (k, tally) -> {
+            if (tally == null) {
+                if (sign < 0) {
+                    return null;
+                }
+                tally = new Tally();
+            }
+            tally.add(sign, minutes, date);
+            return tally.totals.count() == 0 ? null : tally;
+        });
+    }
+
+    private static <K> TrainingTotals totals(Map<K, Tally> tallies, K key) {
+        Tally tally = key == null ? null : tallies.get(key);
+        return tally == null ? TrainingTotals.NONE : tally.totals;
+    }
+
+    /**
+     * Only changed inside the map's compute for its key.
+     */
+    private static final class Tally {
+
+        private final TreeMap<LocalDate, Integer> dates = new TreeMap<>();
+        private volatile TrainingTotals totals = TrainingTotals.NONE;
+
+        void add(int sign, long minutes, LocalDate date) {
+            if (date != null) {
+                dates.merge(date, sign, (a, b) -> a + b == 0 ? null : a + b);
+            }
+            TrainingTotals old = totals;
+            totals = new TrainingTotals(old.count() + sign, old.minutes() + sign * minutes,
+                    dates.isEmpty() ? null : dates.lastKey());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.storage;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Constant-time key to id lookup that rejects a second entity with the same key.
+ * The key indexed for each id is remembered, so entities mutated in place before
+ * being written back are re-indexed correctly. Null keys are not indexed.
+ */
+public class UniqueIndex<T, K> implements EntityIndex<T> {
+
+    private final String name;
+    private final Function<T, K> keyExtractor;
+    private final ConcurrentHashMap<K, Long> idsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, K> keysById = new ConcurrentHashMap<>();
+
+    public UniqueIndex(String name, Function<T, K> keyExtractor) {
+        this.name = name;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public Long find(K key) {
+        return key == null ? null : idsByKey.get(key);
+    }
+
+    public boolean contains(K key) {
+        return key != null && idsByKey.containsKey(key);
+    }
+
+    public int size() {
+        return idsByKey.size();
+    }
+
+    @Override
+    public void onPut(long id, T previous, T current) {
+        K oldKey = keysById.get(id);
+        K newKey = keyExtractor.apply(current);
+        if (Objects.equals(oldKey, newKey)) {
+            return;
+        }
+        if (newKey != null) {
+            Long owner = idsByKey.putIfAbsent(newKey, id);
+            if (owner != null && owner != id) {
+                throw new DuplicateKeyException("Duplicate " + name + ": " + newKey);
+            }
+            keysById.put(id, newKey);
+        } else {
+            keysById.remove(id);
+        }
+        if (oldKey != null) {
+            idsByKey.remove(oldKey, id);
+        }
+    }
+
+    @Override
+    public void onRemove(long id, T previous) {
+        K key = keysById.remove(id);
+        if (key != null) {
+            idsByKey.remove(key, id);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.storage;
+
+import org.example.entity.User;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Next free numeric suffix per username stem, the username without its trailing digits, so the n-th namesake
+ * is named with one claim rather than n probes. Every stored username counts, whatever names it was made from:
+ * "John.Smith1" holds suffix 1 of the stem "John.Smith" even when its owner's last name is "Smith1".
+ * A stem's counter only moves up, by claims and by stored names, and the stem is dropped with its last user.
+ * A claim for a stem no user holds yet is kept until its user is stored or the claim is released, so the index
+ * holds the stems in use plus those of creates in flight, and is rebuilt from the users on load.
+ */
+public class UsernameSuffixIndex implements EntityIndex<User> {
+
+    private static final int MAX_SUFFIX_DIGITS = 18;
+
+    private final ConcurrentHashMap<String, Stem> stems = new ConcurrentHashMap<>();
+
+    /**
+     * Only changed inside the map's compute for its stem.
+     */
+    private static final class Stem {
+
+        int users;
+        long next;
+    }
+
+    /**
+     * Claims a suffix for {@code stem} above every suffix stored or claimed under it; 0 stands for the stem alone.
+     * Concurrent claims never return the same suffix.
+     */
+    public long claim(String stem) {
+        long[] claimed = new long[1];
+        stems.compute(stem, (k, current) -> {
+            Stem s = current == null ? new Stem() : current;
+            claimed[0] = s.next++;
+            return s;
+        });
+        return claimed[0];
+    }
+
+    /**
+     * Gives up the claim made for {@code username}, whose user was not stored: its stem is dropped unless
+     * a stored user holds it. A create still in flight under the stem may then find its suffix claimed again,
+     * which the username index rejects as a duplicate.
+     */
+    public void release(String username) {
+        if (username != null) {
+            stems.computeIfPresent(username.substring(0, stemEnd(username)), (k, s) -> s.users == 0 ? null : s);
+        }
+    }
+
+    public int size() {
+        return stems.size();
+    }
+
+    @Override
+    public void onPut(long id, User previous, User current) {
+        String oldName = previous == null ? null : previous.getUsername();
+        String newName = current.getUsername();
+        if (newName != null && newName.equals(oldName)) {
+            return;
+        }
+        if (newName != null) {
+            add(newName);
+        }
+        if (oldName != null) {
+            drop(oldName);
+        }
+    }
+
+    @Override
+    public void onRemove(long id, User previous) {
+        if (previous.getUsername() != null) {
+            drop(previous.getUsername());
+        }
+    }
+
+    private void add(String username) {
+        int end = stemEnd(username);
+        long suffix = end == username.length() ? 0 : Long.parseLong(username, end, username.length(), 10);
+        stems.compute(username.substring(0, end), (k, current) -> {
+            Stem s = current == null ? new Stem() : current;
+            s.users++;
+            s.next = Math.max(s.next, suffix + 1);
+            return s;
+        });
+    }
+
+    private void drop(String username) {
+        stems.computeIfPresent(username.substring(0, stemEnd(username)), (k, s) -> --s.users <= 0 ? null : s);
+    }
+
+    /**
+     * Where the trailing digits start; a run too long for a long is taken as part of the stem.
+     */
+    private static int stemEnd(String username) {
+        int end = username.length();
+        while (end > 0 && username.charAt(end - 1) >= '0' && username.charAt(end - 1) <= '9') {
+            end--;
+        }
+        return username.length() - end > MAX_SUFFIX_DIGITS ? username.length() : end;
+    }
+}
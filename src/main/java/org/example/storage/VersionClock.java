@@ -0,0 +1,56 @@
+package org.example.storage;
+
+import java.util.TreeMap;
+
+/**
+ * Version numbers shared by the stores of one storage, and the versions of the snapshots open on them.
+ * Writes are stamped with the current version while holding their stripe lock; opening a snapshot
+ * advances the clock while every stripe of every store is locked, so each write is either wholly
+ * visible to the snapshot or wholly after it. Stores keep replaced versions only while a snapshot is open.
+ */
+public final class VersionClock {
+
+    private final TreeMap<Long, Integer> open = new TreeMap<>();
+    private volatile long current = 1;
+    private volatile long oldestOpen = Long.MAX_VALUE;
+
+    long current() {
+        return current;
+    }
+
+    boolean retainsHistory() {
+        return oldestOpen != Long.MAX_VALUE;
+    }
+
+    /**
+     * Version of the oldest open snapshot, or {@link Long#MAX_VALUE} when none is open.
+     */
+    long oldestOpen() {
+        return oldestOpen;
+    }
+
+    /**
+     * Registers a snapshot of everything written so far and returns its version.
+     * The caller must hold every stripe of every store sharing this clock.
+     */
+    synchronized long open() {
+        long version = current;
+        current = version + 1;
+        open.merge(version, 1, Integer::sum);
+        oldestOpen = open.firstKey();
+        return version;
+    }
+
+    synchronized void close(long version) {
+        Integer count = open.get(version);
+        if (count == null) {
+            throw new IllegalStateException("Snapshot is not open: " + version);
+        }
+        if (count == 1) {
+            open.remove(version);
+        } else {
+            open.put(version, count - 1);
+        }
+        oldestOpen = open.isEmpty() ? Long.MAX_VALUE : open.firstKey();
+    }
+}
@@ -1,21 +1,137 @@
 package org.example.utils;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * Random alphanumeric passwords drawn from a SecureRandom per thread, so parallel callers share no lock.
+ * With {@code password.pool.size} set, a background thread keeps that many passwords ready;
+ * callers take from the pool and only generate their own when it has run dry.
+ */
 @Component
 public class PasswordGenerator {
 
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     private static final int PASSWORD_LENGTH = 10;
+    private static final int RANDOM_BUFFER_BYTES = 1024;
+    private static final ThreadLocal<RandomBytes> RANDOM = ThreadLocal.withInitial(RandomBytes::new);
+
+    private int poolSize;
+    private volatile BlockingQueue<String> pool;
+    private Thread filler;
+
+    @Value("${password.pool.size:0}")
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (poolSize > 0) {
+            pool = new ArrayBlockingQueue<>(poolSize);
+            filler = Thread.ofPlatform().daemon().name("password-pool").start(this::fill);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (filler != null) {
+            filler.interrupt();
+        }
+    }
 
     public String generatePassword(){
-        Random random = new Random();
-        StringBuilder password = new StringBuilder();
-        for (int i = 0; i < PASSWORD_LENGTH; i++) {
-            password.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+        BlockingQueue<String> ready = pool;
+        String password = ready == null ? null : ready.poll();
+        if (password != null) {
+            return password;
+        }
+        List<String> generated = new ArrayList<>(1);
+        generate(generated, 1);
+        return generated.get(0);
+    }
+
+    /**
+     * {@code count} passwords at once, taken from the pool as far as it goes and generated for the rest.
+     */
+    public List<String> generate(int count) {
+        List<String> passwords = new ArrayList<>(count);
+        BlockingQueue<String> ready = pool;
+        if (ready != null) {
+            ready.drainTo(passwords, count);
+        }
+        generate(passwords, count - passwords.size());
+        return passwords;
+    }
+
+    private void fill() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.clear();
+                generate(batch, Math.max(1, pool.remainingCapacity()));
+                for (String password : batch) {
+                    pool.put(password);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Maps random bytes onto the alphabet by their low six bits, dropping the two values past its 62
+     * characters so that every character stays equally likely.
+     */
+    private static void generate(List<String> passwords, int count) {
+        RandomBytes random = RANDOM.get();
+        byte[] password = new byte[PASSWORD_LENGTH];
+        for (int p = 0; p < count; p++) {
+            int length = 0;
+            while (length < PASSWORD_LENGTH) {
+                int index = random.next() & 0x3F;
+                if (index < CHARACTERS.length()) {
+                    password[length++] = (byte) CHARACTERS.charAt(index);
+                }
+            }
+            passwords.add(new String(password, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    /**
+     * A thread's SecureRandom and the bytes last drawn from it, drawn a buffer at a time to spread the
+     * fixed cost of each call over many passwords.
+     */
+    private static final class RandomBytes {
+
+        private final SecureRandom random = newRandom();
+        private final byte[] bytes = new byte[RANDOM_BUFFER_BYTES];
+        private int next = bytes.length;
+
+        byte next() {
+            if (next == bytes.length) {
+                random.nextBytes(bytes);
+                next = 0;
+            }
+            return bytes[next++];
+        }
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No DRBG SecureRandom available", e);
         }
-        return password.toString();
     }
 }
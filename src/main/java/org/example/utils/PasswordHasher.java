@@ -0,0 +1,159 @@
+package org.example.utils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hashes, encoded as {@code pbkdf2-sha256$iterations$salt$hash}.
+ * The cost is set by {@code password.hash.iterations}; each hash keeps the cost it was made with,
+ * so raising it only affects new hashes. Bulk hashing runs on a pool of {@code password.hash.threads}
+ * workers, all processors when 0; outside Spring it runs on the calling thread.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final int CHUNK_SIZE = 64;
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(PasswordHasher::newRandom);
+    private static final ThreadLocal<SecretKeyFactory> PBKDF2 = ThreadLocal.withInitial(PasswordHasher::newFactory);
+
+    private int iterations = 10_000;
+    private int threads;
+    private volatile ExecutorService workers;
+
+    @Value("${password.hash.iterations:10000}")
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Hash iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    @Value("${password.hash.threads:0}")
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    @PostConstruct
+    public void start() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(size, task -> {
+            Thread thread = new Thread(task, "password-hasher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.get().nextBytes(salt);
+        int cost = iterations;
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + cost + "$" + base64.encodeToString(salt) + "$"
+                + base64.encodeToString(derive(password, salt, cost, HASH_BYTES));
+    }
+
+    /**
+     * Hashes of the given passwords, in order, computed in chunks on the worker pool.
+     */
+    public CompletableFuture<List<String>> hashAll(List<String> passwords) {
+        ExecutorService pool = workers;
+        if (pool == null) {
+            return CompletableFuture.completedFuture(passwords.stream().map(this::hash).toList());
+        }
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < passwords.size(); from += CHUNK_SIZE) {
+            List<String> chunk = passwords.subList(from, Math.min(from + CHUNK_SIZE, passwords.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> chunk.stream().map(this::hash).toList(), pool));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<String> hashes = new ArrayList<>(passwords.size());
+            for (CompletableFuture<List<String>> chunk : chunks) {
+                hashes.addAll(chunk.join());
+            }
+            return hashes;
+        });
+    }
+
+    public boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * Whether {@code password} is the one {@code stored} was made from. A stored value that is not a hash matches
+     * no password.
+     */
+    public boolean matches(String password, String stored) {
+        if (password == null || !isHashed(stored)) {
+            return false;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        int cost;
+        byte[] salt;
+        byte[] expected;
+        try {
+            cost = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return cost > 0 && expected.length > 0 && MessageDigest.isEqual(expected, derive(password, salt, cost, expected.length));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int bytes) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, bytes * 8);
+        try {
+            return PBKDF2.get().generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to hash password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static SecretKeyFactory newFactory() {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No PBKDF2WithHmacSHA256 available", e);
+        }
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No DRBG SecureRandom available", e);
+        }
+    }
+}
@@ -2,25 +2,74 @@ package org.example.utils;
 
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
+/**
+ * Usernames of the form First.Last, with a numeric suffix for namesakes. The suffix is claimed from
+ * {@code suffixClaimer}, which for users is the store's count of the suffixes taken under each name, so the
+ * n-th namesake costs one claim rather than n lookups, and concurrent callers never get the same suffix.
+ * A candidate is still checked with {@code existsChecker} and skipped if taken. A name ending in a digit
+ * cannot take a suffix without changing its stem, so its namesakes, which are rare, are found by probing.
+ */
 @Component
 public class UsernameGenerator {
 
-    public String generateUsername(String firstName, String lastName, Predicate<String> existsChecker){
+    public String generateUsername(String firstName, String lastName, Predicate<String> existsChecker,
+                                   ToLongFunction<String> suffixClaimer) {
         String baseUsername = firstName.trim() + "." + lastName.trim();
-
-        if (!existsChecker.test(baseUsername)) {
-            return baseUsername;
+        if (endsWithDigit(baseUsername)) {
+            return probe(baseUsername, existsChecker);
+        }
+        while (true) {
+            long suffix = suffixClaimer.applyAsLong(baseUsername);
+            String username = suffix == 0 ? baseUsername : baseUsername + suffix;
+            if (!existsChecker.test(username)) {
+                return username;
+            }
         }
+    }
 
-        int counter = 1;
-        String username = baseUsername + counter;
+    /**
+     * Starts a batch that hands out usernames unique among themselves as well as against {@code existsChecker}.
+     */
+    public Batch newBatch(Predicate<String> existsChecker, ToLongFunction<String> suffixClaimer) {
+        return new Batch(existsChecker, suffixClaimer);
+    }
 
-        while(existsChecker.test(username)){
-            counter++;
-            username = baseUsername + counter;
+    private static String probe(String baseUsername, Predicate<String> existsChecker) {
+        String username = baseUsername;
+        for (int suffix = 1; existsChecker.test(username); suffix++) {
+            username = baseUsername + suffix;
         }
         return username;
     }
+
+    private static boolean endsWithDigit(String username) {
+        char last = username.charAt(username.length() - 1);
+        return last >= '0' && last <= '9';
+    }
+
+    /**
+     * Usernames for many people at once, drawn from the same suffix claims as single ones.
+     */
+    public final class Batch {
+
+        private final Set<String> issued = new HashSet<>();
+        private final Predicate<String> existsChecker;
+        private final ToLongFunction<String> suffixClaimer;
+
+        private Batch(Predicate<String> existsChecker, ToLongFunction<String> suffixClaimer) {
+            this.existsChecker = existsChecker.or(issued::contains);
+            this.suffixClaimer = suffixClaimer;
+        }
+
+        public String next(String firstName, String lastName) {
+            String username = generateUsername(firstName, lastName, existsChecker, suffixClaimer);
+            issued.add(username);
+            return username;
+        }
+    }
 }
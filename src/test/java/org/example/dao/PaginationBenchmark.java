@@ -0,0 +1,59 @@
+package org.example.dao;
+
+import org.example.entity.Training;
+import org.example.storage.InMemoryStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing trainings: TrainingDao.findAll copying the whole table, against one page of 50 from a random cursor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PaginationBenchmark {
+
+    @Param({"1000000"})
+    private int trainings;
+
+    private TrainingDao trainingDao;
+
+    @Setup
+    public void setUp() {
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        trainingDao = new TrainingDao();
+        trainingDao.setStorage(storage);
+        for (long id = 1; id <= trainings; id++) {
+            storage.getTrainingStorage().put(id, new Training(id, id % 10_000 + 1, id % 97 + 1, "Session",
+                    "Cardio", 60, LocalDate.of(2024, 1, 1).plusDays(id % 700)));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Training> findAll() {
+        return trainingDao.findAll();
+    }
+
+    @Benchmark
+    public List<Training> findPage() {
+        return trainingDao.findPage(ThreadLocalRandom.current().nextLong(trainings), 50);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.dao;
+
+import org.example.entity.Trainee;
+import org.example.storage.InMemoryStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TraineeDao.findByUserId through the userId index against the linear scan it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ProfileLookupBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int profiles;
+
+    private InMemoryStorage storage;
+    private TraineeDao traineeDao;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryStorage(List.of());
+        traineeDao = new TraineeDao();
+        traineeDao.setStorage(storage);
+        LocalDate dateOfBirth = LocalDate.of(1990, 1, 1);
+        for (long id = 1; id <= profiles; id++) {
+            storage.getTraineeStorage().put(id, new Trainee(id, dateOfBirth, "address", id + 7));
+        }
+    }
+
+    @Benchmark
+    public Optional<Trainee> indexedLookup() {
+        return traineeDao.findByUserId(randomUserId());
+    }
+
+    @Benchmark
+    public Optional<Trainee> linearScan() {
+        Long userId = randomUserId();
+        return storage.getTraineeStorage().values().stream()
+                .filter(t -> t.getUserId().equals(userId))
+                .findFirst();
+    }
+
+    private Long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, profiles + 1) + 7;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.dao;
+
+import org.example.entity.Training;
+import org.example.storage.InMemoryStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Total minutes per trainer over all trainings: from the list findAll copies, from TrainingDao.stream,
+ * and from the same stream run in parallel, which scales with the common pool's threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StreamReportBenchmark {
+
+    @Param({"1000000"})
+    private int trainings;
+
+    private TrainingDao trainingDao;
+
+    @Setup
+    public void setUp() {
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        trainingDao = new TrainingDao();
+        trainingDao.setStorage(storage);
+        for (long id = 1; id <= trainings; id++) {
+            storage.getTrainingStorage().put(id, new Training(id, id % 10_000 + 1, id % 97 + 1, "Session",
+                    "Cardio", (int) (id % 120) + 15, LocalDate.of(2024, 1, 1).plusDays(id % 700)));
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Long> findAll() {
+        return report(trainingDao.findAll().stream());
+    }
+
+    @Benchmark
+    public Map<Long, Long> stream() {
+        return report(trainingDao.stream());
+    }
+
+    @Benchmark
+    public Map<Long, Long> parallelStream() {
+        return report(trainingDao.stream().parallel());
+    }
+
+    private static Map<Long, Long> report(Stream<Training> trainings) {
+        return trainings.collect(Collectors.groupingByConcurrent(Training::getTrainerId,
+                Collectors.summingLong(Training::getTrainingDuration)));
+    }
+}
@@ -1,7 +1,10 @@
 package org.example.dao;
 
 import org.example.entity.Trainee;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.example.storage.UniqueIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,12 +28,14 @@ class TraineeDaoTest {
     @InjectMocks
     private TraineeDao traineeDao;
 
-    private Map<Long, Trainee> traineeMap;
+    private UniqueIndex<Trainee, Long> userIndex;
+    private EntityStore<Trainee> traineeMap;
     private Trainee testTrainee;
 
     @BeforeEach
     void setUp() {
-        traineeMap = new HashMap<>();
+        userIndex = new UniqueIndex<>("trainee userId", Trainee::getUserId);
+        traineeMap = new EntityStore<>(userIndex);
 
         testTrainee = new Trainee();
         testTrainee.setTraineeId(1L);
@@ -40,7 +43,8 @@ class TraineeDaoTest {
         testTrainee.setDateOfBirth(LocalDate.of(1990, 1, 1));
         testTrainee.setAddress("123 Test St");
 
-        when(storage.getTraineeStorage()).thenReturn(traineeMap);
+        lenient().when(storage.getTraineeStorage()).thenReturn(traineeMap);
+        lenient().when(storage.getTraineeUserIndex()).thenReturn(userIndex);
     }
 
     @Test
@@ -65,6 +69,16 @@ class TraineeDaoTest {
         assertEquals("New Address", traineeMap.get(1L).getAddress());
     }
 
+    @Test
+    void update_ShouldRejectStaleVersion() {
+        traineeMap.put(1L, new Trainee(1L, null, "123 Test St", 1L, 2));
+
+        assertThrows(StaleEntityException.class,
+                () -> traineeDao.update(new Trainee(1L, null, "456 New St", 1L, 1)));
+        assertEquals("123 Test St", traineeMap.get(1L).getAddress());
+        assertEquals(3, traineeDao.update(new Trainee(1L, null, "456 New St", 1L, 2)).getVersion());
+    }
+
     @Test
     void delete_ShouldRemoveTraineeFromStorage() {
         traineeMap.put(1L, testTrainee);
@@ -108,6 +122,15 @@ class TraineeDaoTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void findByUserId_ShouldReturnEmptyAfterDelete() {
+        traineeMap.put(1L, testTrainee);
+
+        traineeDao.delete(1L);
+
+        assertFalse(traineeDao.findByUserId(1L).isPresent());
+    }
+
     @Test
     void findAll_ShouldReturnAllTrainees() {
         Trainee trainee2 = new Trainee();
@@ -127,4 +150,60 @@ class TraineeDaoTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void writesAndReads_ShouldNeverHandOutTheStoredVersion() {
+        traineeDao.setStorage(new InMemoryStorage(List.of()));
+        Trainee created = traineeDao.create(testTrainee);
+        created.setUserId(7L);
+
+        traineeDao.findById(created.getTraineeId()).orElseThrow().setAddress("456 New St");
+        traineeDao.findAll().forEach(t -> t.setUserId(8L));
+        traineeDao.findPage(null, 10).forEach(t -> t.setVersion(5L));
+
+        Trainee stored = traineeDao.findByUserId(1L).orElseThrow();
+        assertEquals("123 Test St", stored.getAddress());
+        assertEquals(0L, stored.getVersion());
+        assertFalse(traineeDao.findByUserId(7L).isPresent());
+        assertFalse(traineeDao.findByUserId(8L).isPresent());
+    }
+
+    @Test
+    void findByView_ShouldReturnTraineesAsOfTheView() {
+        InMemoryStorage real = new InMemoryStorage(List.of());
+        real.getTraineeStorage().put(1L, testTrainee);
+        when(storage.getTraineeStorage()).thenReturn(real.getTraineeStorage());
+
+        try (StorageView view = real.openView()) {
+            traineeDao.update(new Trainee(1L, LocalDate.of(1991, 2, 2), "456 New St", 1L));
+            real.getTraineeStorage().put(2L, new Trainee(2L, null, "789 Other St", 2L));
+
+            assertEquals(testTrainee, traineeDao.findById(view, 1L).orElseThrow());
+            assertFalse(traineeDao.findById(view, 2L).isPresent());
+            assertEquals(List.of(testTrainee), traineeDao.findAll(view));
+            assertEquals("456 New St", traineeDao.findById(1L).orElseThrow().getAddress());
+        }
+    }
+
+    @Test
+    void createAll_ShouldStoreBatchUnderReservedIdRange() {
+        when(storage.reserveTraineeIds(2)).thenReturn(5L);
+
+        List<Trainee> result = traineeDao.createAll(List.of(
+                new Trainee(null, null, "1 First St", 1L), new Trainee(null, null, "2 Second St", 2L)));
+
+        assertEquals(List.of(5L, 6L), result.stream().map(Trainee::getTraineeId).toList());
+        assertEquals("2 Second St", traineeMap.get(6L).getAddress());
+        assertEquals(5L, userIndex.find(1L));
+    }
+
+    @Test
+    void findPage_ShouldStartAfterCursor() {
+        for (long id = 1; id <= 4; id++) {
+            traineeMap.put(id, new Trainee(id, null, "address " + id, id));
+        }
+
+        assertEquals(List.of(3L, 4L), traineeDao.findPage(2L, 5).stream().map(Trainee::getTraineeId).toList());
+        assertEquals(List.of(1L), traineeDao.findPage(null, 1).stream().map(Trainee::getTraineeId).toList());
+    }
+}
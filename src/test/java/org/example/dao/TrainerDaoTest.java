@@ -1,7 +1,9 @@
 package org.example.dao;
 
 import org.example.entity.Trainer;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.UniqueIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,9 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,19 +26,22 @@ class TrainerDaoTest {
     @InjectMocks
     private TrainerDao trainerDao;
 
-    private Map<Long, Trainer> trainerMap;
+    private UniqueIndex<Trainer, Long> userIndex;
+    private EntityStore<Trainer> trainerMap;
     private Trainer testTrainer;
 
     @BeforeEach
     void setUp() {
-        trainerMap = new HashMap<>();
+        userIndex = new UniqueIndex<>("trainer userId", Trainer::getUserId);
+        trainerMap = new EntityStore<>(userIndex);
 
         testTrainer = new Trainer();
         testTrainer.setTrainerId(1L);
         testTrainer.setUserId(1L);
         testTrainer.setSpecialization("Fitness");
 
-        when(storage.getTrainerStorage()).thenReturn(trainerMap);
+        lenient().when(storage.getTrainerStorage()).thenReturn(trainerMap);
+        lenient().when(storage.getTrainerUserIndex()).thenReturn(userIndex);
     }
 
     @Test
@@ -63,6 +66,41 @@ class TrainerDaoTest {
         assertEquals("Yoga", trainerMap.get(1L).getSpecialization());
     }
 
+    @Test
+    void writesAndReads_ShouldNeverHandOutTheStoredVersion() {
+        trainerDao.setStorage(new InMemoryStorage(List.of()));
+        Trainer created = trainerDao.create(testTrainer);
+        created.setUserId(7L);
+
+        trainerDao.findById(created.getTrainerId()).orElseThrow().setSpecialization("Yoga");
+        trainerDao.findAll().forEach(t -> t.setUserId(8L));
+
+        Trainer stored = trainerDao.findByUserId(1L).orElseThrow();
+        assertEquals("Fitness", stored.getSpecialization());
+        assertFalse(trainerDao.findByUserId(7L).isPresent());
+        assertFalse(trainerDao.findByUserId(8L).isPresent());
+    }
+
+    @Test
+    void update_ShouldStoreNextVersionAsNewObject() {
+        trainerMap.put(1L, testTrainer);
+
+        Trainer result = trainerDao.update(new Trainer(1L, "Yoga", testTrainer.getUserId(), 0));
+
+        assertEquals(1, result.getVersion());
+        assertSame(result, trainerMap.get(1L));
+        assertEquals(0, testTrainer.getVersion());
+    }
+
+    @Test
+    void update_ShouldRejectStaleVersion() {
+        trainerMap.put(1L, new Trainer(1L, "Fitness", 1L, 4));
+
+        assertThrows(StaleEntityException.class, () -> trainerDao.update(new Trainer(1L, "Yoga", 1L, 3)));
+        assertEquals("Fitness", trainerMap.get(1L).getSpecialization());
+        assertThrows(StaleEntityException.class, () -> trainerDao.update(new Trainer(2L, "Yoga", 1L, 0)));
+    }
+
     @Test
     void delete_ShouldRemoveTrainerFromStorage() {
         trainerMap.put(1L, testTrainer);
@@ -106,6 +144,15 @@ class TrainerDaoTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void findByUserId_ShouldReturnEmptyAfterDelete() {
+        trainerMap.put(1L, testTrainer);
+
+        trainerDao.delete(1L);
+
+        assertFalse(trainerDao.findByUserId(1L).isPresent());
+    }
+
     @Test
     void findAll_ShouldReturnAllTrainers() {
         Trainer trainer2 = new Trainer();
@@ -1,7 +1,12 @@
 package org.example.dao;
 
 import org.example.entity.Training;
+import org.example.storage.DateRangeIndex;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.MultiIndex;
+import org.example.storage.TrainingTotals;
+import org.example.storage.TrainingTotalsIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,10 +15,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,12 +33,24 @@ class TrainingDaoTest {
     @InjectMocks
     private TrainingDao trainingDao;
 
-    private Map<Long, Training> trainingMap;
+    private MultiIndex<Training, Long> traineeIndex;
+    private MultiIndex<Training, Long> trainerIndex;
+    private DateRangeIndex<Training> dateIndex;
+    private DateRangeIndex<Training> traineeDateIndex;
+    private DateRangeIndex<Training> trainerDateIndex;
+    private TrainingTotalsIndex totals;
+    private EntityStore<Training> trainingMap;
     private Training testTraining;
 
     @BeforeEach
     void setUp() {
-        trainingMap = new HashMap<>();
+        traineeIndex = new MultiIndex<>(Training::getTraineeId);
+        trainerIndex = new MultiIndex<>(Training::getTrainerId);
+        dateIndex = new DateRangeIndex<>(Training::getTrainingDate);
+        traineeDateIndex = new DateRangeIndex<>(Training::getTraineeId, Training::getTrainingDate);
+        trainerDateIndex = new DateRangeIndex<>(Training::getTrainerId, Training::getTrainingDate);
+        totals = new TrainingTotalsIndex();
+        trainingMap = new EntityStore<>(traineeIndex, trainerIndex, dateIndex, traineeDateIndex, trainerDateIndex, totals);
 
         testTraining = new Training();
         testTraining.setTrainingId(1L);
@@ -43,7 +61,14 @@ class TrainingDaoTest {
         testTraining.setTrainingDuration(60);
         testTraining.setTrainingDate(LocalDate.of(2024, 1, 15));
 
-        when(storage.getTrainingStorage()).thenReturn(trainingMap);
+        lenient().when(storage.getTrainingStorage()).thenReturn(trainingMap);
+        lenient().when(storage.getTrainingTotals()).thenReturn(totals);
+        lenient().when(storage.isTrainingType(anyString())).thenReturn(true);
+        lenient().when(storage.getTraineeTrainingIndex()).thenReturn(traineeIndex);
+        lenient().when(storage.getTrainerTrainingIndex()).thenReturn(trainerIndex);
+        lenient().when(storage.getTrainingDateIndex()).thenReturn(dateIndex);
+        lenient().when(storage.getTraineeTrainingDateIndex()).thenReturn(traineeDateIndex);
+        lenient().when(storage.getTrainerTrainingDateIndex()).thenReturn(trainerDateIndex);
     }
 
     @Test
@@ -142,6 +167,29 @@ class TrainingDaoTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void update_ShouldMoveTrainingToNewTrainee() {
+        trainingMap.put(1L, testTraining);
+        Training reassigned = new Training(1L, 2L, 1L, "Morning Workout", "Fitness", 60,
+                LocalDate.of(2024, 1, 15));
+
+        trainingDao.update(reassigned);
+
+        assertTrue(trainingDao.findByTraineeId(1L).isEmpty());
+        assertEquals(List.of(reassigned), trainingDao.findByTraineeId(2L));
+        assertEquals(List.of(reassigned), trainingDao.findByTrainerId(1L));
+    }
+
+    @Test
+    void delete_ShouldRemoveTrainingFromIndexes() {
+        trainingMap.put(1L, testTraining);
+
+        trainingDao.delete(1L);
+
+        assertTrue(trainingDao.findByTraineeId(1L).isEmpty());
+        assertTrue(trainingDao.findByTrainerId(1L).isEmpty());
+    }
+
     @Test
     void findAll_ShouldReturnAllTrainings() {
         Training training2 = new Training();
@@ -154,6 +202,25 @@ class TrainingDaoTest {
         assertEquals(2, result.size());
     }
 
+    @Test
+    void totalDurationByType_ShouldReturnStorageTotals() {
+        when(storage.getTrainingDurationByType()).thenReturn(Map.of("Fitness", 120L));
+
+        assertEquals(Map.of("Fitness", 120L), trainingDao.totalDurationByType());
+    }
+
+    @Test
+    void findByType_ShouldResolveIdsFromStorageAndDropChangedTypes() {
+        Training retyped = new Training(2L, 1L, 1L, "Yoga", "Yoga", 90, LocalDate.of(2024, 2, 1));
+        trainingMap.put(1L, testTraining);
+        trainingMap.put(2L, retyped);
+        when(storage.findTrainingIdsByType("Fitness")).thenReturn(new long[]{1L, 2L, 3L});
+
+        List<Training> result = trainingDao.findByType("Fitness");
+
+        assertEquals(List.of(testTraining), result);
+    }
+
     @Test
     void findAll_ShouldReturnEmptyListWhenNoTrainings() {
         List<Training> result = trainingDao.findAll();
@@ -161,4 +228,115 @@ class TrainingDaoTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByDateRange_ShouldReturnTrainingsInDateOrder() {
+        Training later = new Training(2L, 2L, 2L, "Yoga", "Yoga", 90, LocalDate.of(2024, 2, 1));
+        Training outside = new Training(3L, 1L, 1L, "Zumba", "Zumba", 45, LocalDate.of(2024, 3, 1));
+        trainingMap.put(2L, later);
+        trainingMap.put(1L, testTraining);
+        trainingMap.put(3L, outside);
+
+        List<Training> result = trainingDao.findByDateRange(
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 1)).toList();
+
+        assertEquals(List.of(testTraining, later), result);
+    }
+
+    @Test
+    void findByTraineeAndDateRange_ShouldOnlyReturnThatTrainee() {
+        Training otherTrainee = new Training(2L, 2L, 1L, "Yoga", "Yoga", 90, LocalDate.of(2024, 1, 16));
+        trainingMap.put(1L, testTraining);
+        trainingMap.put(2L, otherTrainee);
+
+        List<Training> result = trainingDao.findByTraineeAndDateRange(
+                1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).toList();
+
+        assertEquals(List.of(testTraining), result);
+        assertEquals(2, trainingDao.findByTrainerAndDateRange(
+                1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).count());
+    }
+
+    @Test
+    void create_ShouldRejectUnknownTrainingType() {
+        when(storage.isTrainingType("Parkour")).thenReturn(false);
+        testTraining.setTrainingType("Parkour");
+
+        assertThrows(IllegalArgumentException.class, () -> trainingDao.create(testTraining));
+        assertThrows(IllegalArgumentException.class, () -> trainingDao.update(testTraining));
+        assertTrue(trainingMap.isEmpty());
+    }
+
+    @Test
+    void findByTraineeAndDateRange_ShouldReturnNothingForNullId() {
+        trainingMap.put(1L, testTraining);
+
+        assertEquals(0, trainingDao.findByTraineeAndDateRange(
+                null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).count());
+        assertEquals(0, trainingDao.findByTrainerAndDateRange(
+                null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).count());
+    }
+
+    @Test
+    void findByDateRange_ShouldFollowDateChange() {
+        trainingMap.put(1L, testTraining);
+        Training moved = new Training(1L, 1L, 1L, "Morning Workout", "Fitness", 60, LocalDate.of(2025, 1, 15));
+
+        trainingDao.update(moved);
+
+        assertEquals(0, trainingDao.findByDateRange(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)).count());
+        assertEquals(List.of(moved), trainingDao.findByDateRange(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)).toList());
+    }
+
+    @Test
+    void findByDateRange_ShouldRejectInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> trainingDao.findByDateRange(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void findPage_ShouldPageThroughTrainingsInIdOrder() {
+        for (long id = 5; id >= 1; id--) {
+            trainingMap.put(id, new Training(id, 1L, 1L, "Session " + id, "Fitness", 60, LocalDate.of(2024, 1, 15)));
+        }
+
+        List<Training> first = trainingDao.findPage(null, 2);
+        List<Training> second = trainingDao.findPage(first.get(1).getTrainingId(), 10);
+
+        assertEquals(List.of(1L, 2L), first.stream().map(Training::getTrainingId).toList());
+        assertEquals(List.of(3L, 4L, 5L), second.stream().map(Training::getTrainingId).toList());
+    }
+
+    @Test
+    void stream_ShouldReportOverAllTrainingsInParallel() {
+        for (long id = 1; id <= 1_000; id++) {
+            trainingMap.put(id, new Training(id, 1L, 1L, "Session " + id, id % 2 == 0 ? "Fitness" : "Yoga",
+                    30, LocalDate.of(2024, 1, 15)));
+        }
+
+        Map<String, Integer> minutes = trainingDao.stream().parallel().collect(
+                Collectors.groupingBy(Training::getTrainingType, Collectors.summingInt(Training::getTrainingDuration)));
+
+        assertEquals(Map.of("Fitness", 15_000, "Yoga", 15_000), minutes);
+        assertEquals(1_000, StreamSupport.stream(trainingDao.spliterator(), true).count());
+    }
+
+    @Test
+    void totalsByTrainee_ShouldFollowCreateUpdateAndDelete() {
+        when(storage.getNextTrainingId()).thenReturn(1L, 2L);
+        trainingDao.create(testTraining);
+        Training second = new Training(null, 1L, 2L, "Evening", "Yoga", 30, LocalDate.of(2024, 2, 1));
+        trainingDao.create(second);
+
+        assertEquals(new TrainingTotals(2, 90, LocalDate.of(2024, 2, 1)), trainingDao.totalsByTrainee(1L));
+
+        trainingDao.update(new Training(2L, 1L, 2L, "Evening", "Yoga", 45, LocalDate.of(2024, 2, 1)));
+        trainingDao.delete(1L);
+
+        assertEquals(new TrainingTotals(1, 45, LocalDate.of(2024, 2, 1)), trainingDao.totalsByTrainee(1L));
+        assertEquals(TrainingTotals.NONE, trainingDao.totalsByTrainer(1L));
+        assertEquals(new TrainingTotals(1, 45, LocalDate.of(2024, 2, 1)), trainingDao.totalsByType("Yoga"));
+    }
+}
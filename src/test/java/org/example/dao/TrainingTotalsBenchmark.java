@@ -0,0 +1,85 @@
+package org.example.dao;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.example.entity.Training;
+import org.example.storage.InMemoryStorage;
+import org.example.storage.TrainingTotals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A trainee's training minutes, summed from TrainingDao.findByTraineeId each time, against reading the
+ * running totals; and the cost of a training write, which now also adjusts the totals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TrainingTotalsBenchmark {
+
+    @Param({"100", "10000"})
+    private int trainingsPerTrainee;
+
+    private static final int TRAINEES = 100;
+
+    private TrainingDao trainingDao;
+    private int trainings;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        trainingDao = new TrainingDao();
+        trainingDao.setStorage(storage);
+        trainings = TRAINEES * trainingsPerTrainee;
+        for (long id = 1; id <= trainings; id++) {
+            storage.getTrainingStorage().put(id, training(id));
+        }
+    }
+
+    @Benchmark
+    public long summed() {
+        long minutes = 0;
+        for (Training training : trainingDao.findByTraineeId(randomTrainee())) {
+            minutes += training.getTrainingDuration();
+        }
+        return minutes;
+    }
+
+    @Benchmark
+    public TrainingTotals totals() {
+        return trainingDao.totalsByTrainee(randomTrainee());
+    }
+
+    @Benchmark
+    public Training update() {
+        return trainingDao.update(training(ThreadLocalRandom.current().nextLong(1, trainings + 1)));
+    }
+
+    private static long randomTrainee() {
+        return ThreadLocalRandom.current().nextLong(1, TRAINEES + 1);
+    }
+
+    private static Training training(long id) {
+        return new Training(id, id % TRAINEES + 1, id % 97 + 1, "Session", "Cardio",
+                (int) (id % 120) + 15, LocalDate.of(2024, 1, 1).plusDays(id % 700));
+    }
+}
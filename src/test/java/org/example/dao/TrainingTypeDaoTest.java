@@ -1,7 +1,10 @@
 package org.example.dao;
 
 import org.example.entity.TrainingType;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.example.storage.UniqueIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,12 +12,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,18 +28,22 @@ class TrainingTypeDaoTest {
     @InjectMocks
     private TrainingTypeDao trainingTypeDao;
 
-    private Map<Long, TrainingType> trainingTypeMap;
+    private UniqueIndex<TrainingType, String> nameIndex;
+    private EntityStore<TrainingType> trainingTypeMap;
     private TrainingType testTrainingType;
 
     @BeforeEach
     void setUp() {
-        trainingTypeMap = new HashMap<>();
+        nameIndex = new UniqueIndex<>("training type name", TrainingType::getTrainingTypeName);
+        trainingTypeMap = new EntityStore<>(nameIndex);
 
         testTrainingType = new TrainingType();
         testTrainingType.setTrainingTypeId(1L);
         testTrainingType.setTrainingTypeName("Cardio");
 
-        when(storage.getTrainingTypeStorage()).thenReturn(trainingTypeMap);
+        lenient().when(storage.getTrainingTypeStorage()).thenReturn(trainingTypeMap);
+        lenient().when(storage.getTrainingTypeNameIndex()).thenReturn(nameIndex);
+        lenient().when(storage.internTrainingType(any())).thenAnswer(i -> i.getArgument(0));
     }
 
     @Test
@@ -105,6 +111,26 @@ class TrainingTypeDaoTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void findByName_ShouldFollowRename() {
+        trainingTypeMap.put(1L, testTrainingType);
+        trainingTypeDao.update(new TrainingType(1L, "Strength"));
+
+        assertFalse(trainingTypeDao.findByName("Cardio").isPresent());
+        assertEquals(1L, trainingTypeDao.findByName("Strength").orElseThrow().getTrainingTypeId());
+    }
+
+    @Test
+    void create_ShouldStoreTheSharedNameInstance() {
+        String shared = "Cardio";
+        when(storage.getNextTrainingTypeId()).thenReturn(1L);
+        when(storage.internTrainingType("Cardio")).thenReturn(shared);
+
+        TrainingType result = trainingTypeDao.create(new TrainingType(null, new String("Cardio")));
+
+        assertSame(shared, result.getTrainingTypeName());
+    }
+
     @Test
     void findAll_ShouldReturnAllTrainingTypes() {
         TrainingType type2 = new TrainingType();
@@ -125,4 +151,32 @@ class TrainingTypeDaoTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void create_ShouldLeaveTheGivenTrainingTypeAsItIs() {
+        when(storage.getNextTrainingTypeId()).thenReturn(1L);
+        TrainingType given = new TrainingType(null, "Cardio");
+
+        TrainingType result = trainingTypeDao.create(given);
+        given.setTrainingTypeName("Changed");
+
+        assertNull(given.getTrainingTypeId());
+        assertEquals(1L, result.getTrainingTypeId());
+        assertEquals("Cardio", trainingTypeMap.get(1L).getTrainingTypeName());
+    }
+
+    @Test
+    void findByView_ShouldReturnTrainingTypesAsOfTheView() {
+        InMemoryStorage real = new InMemoryStorage(List.of());
+        real.getTrainingTypeStorage().put(1L, testTrainingType);
+        when(storage.getTrainingTypeStorage()).thenReturn(real.getTrainingTypeStorage());
+
+        try (StorageView view = real.openView()) {
+            trainingTypeDao.update(new TrainingType(1L, "Strength"));
+
+            assertEquals("Cardio", trainingTypeDao.findById(view, 1L).orElseThrow().getTrainingTypeName());
+            assertEquals(List.of(testTrainingType), trainingTypeDao.findAll(view));
+            assertEquals("Strength", trainingTypeDao.findById(1L).orElseThrow().getTrainingTypeName());
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package org.example.dao;
 
 import org.example.entity.User;
+import org.example.storage.DuplicateKeyException;
+import org.example.storage.EntityStore;
 import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.example.storage.UniqueIndex;
+import org.example.storage.UsernameSuffixIndex;
+import org.example.utils.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,28 +25,40 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class UserDaoTest {
 
+    private static final String HASH = "pbkdf2-sha256$1000$c2FsdA$aGFzaA";
+    private static final String NEW_HASH = "pbkdf2-sha256$1000$c2FsdA$bmV3";
+
     @Mock
     private InMemoryStorage storage;
 
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher();
+
     @InjectMocks
     private UserDao userDao;
 
-    private Map<Long, User> userMap;
+    private UniqueIndex<User, String> usernameIndex;
+    private EntityStore<User> userMap;
+    private UsernameSuffixIndex suffixes;
     private User testUser;
 
     @BeforeEach
     void setUp() {
-        userMap = new HashMap<>();
+        usernameIndex = new UniqueIndex<>("username", User::getUsername);
+        suffixes = new UsernameSuffixIndex();
+        userMap = new EntityStore<>(usernameIndex, suffixes);
 
         testUser = new User();
         testUser.setUserId(1L);
         testUser.setFirstName("John");
         testUser.setLastName("Doe");
         testUser.setUsername("John.Doe");
-        testUser.setPassword("Pass123456");
+        testUser.setPassword(HASH);
         testUser.setActive(true);
 
-        when(storage.getUserStorage()).thenReturn(userMap);
+        lenient().when(storage.getUserStorage()).thenReturn(userMap);
+        lenient().when(storage.getUsernameIndex()).thenReturn(usernameIndex);
+        lenient().when(storage.getUsernameSuffixIndex()).thenReturn(suffixes);
     }
 
     @Test
@@ -109,6 +126,36 @@ class UserDaoTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void findByUsername_ShouldFollowUsernameChange() {
+        userMap.put(1L, testUser);
+        User renamed = new User(1L, "John", "Doe", "John.Doe2", HASH, true);
+
+        userDao.update(renamed);
+
+        assertFalse(userDao.findByUsername("John.Doe").isPresent());
+        assertEquals(renamed, userDao.findByUsername("John.Doe2").orElseThrow());
+    }
+
+    @Test
+    void create_ShouldRejectDuplicateUsername() {
+        userMap.put(1L, testUser);
+        when(storage.getNextUserId()).thenReturn(2L);
+        User duplicate = new User(null, "John", "Doe", "John.Doe", HASH, true);
+
+        assertThrows(DuplicateKeyException.class, () -> userDao.create(duplicate));
+        assertFalse(userMap.containsKey(2L));
+    }
+
+    @Test
+    void delete_ShouldReleaseUsername() {
+        userMap.put(1L, testUser);
+
+        userDao.delete(1L);
+
+        assertFalse(userDao.existsByUsername("John.Doe"));
+    }
+
     @Test
     void findAll_ShouldReturnAllUsers() {
         User user2 = new User();
@@ -145,4 +192,130 @@ class UserDaoTest {
 
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void createAll_ShouldStoreBatchUnderReservedIdRange() {
+        when(storage.reserveUserIds(2)).thenReturn(10L);
+        User first = new User(null, "John", "Doe", "John.Doe", HASH, true);
+        User second = new User(null, "Jane", "Doe", "Jane.Doe", HASH, true);
+
+        List<User> result = userDao.createAll(List.of(first, second));
+
+        assertEquals(List.of(10L, 11L), result.stream().map(User::getUserId).toList());
+        assertEquals(second, userMap.get(11L));
+        assertEquals(11L, usernameIndex.find("Jane.Doe"));
+    }
+
+    @Test
+    void createAll_ShouldStoreNothingWhenAUsernameIsTaken() {
+        userMap.put(1L, new User(1L, "John", "Doe", "John.Doe", HASH, true));
+        when(storage.reserveUserIds(2)).thenReturn(10L);
+
+        assertThrows(DuplicateKeyException.class, () -> userDao.createAll(List.of(
+                new User(null, "Jane", "Doe", "Jane.Doe", HASH, true),
+                new User(null, "John", "Doe", "John.Doe", HASH, true))));
+        assertEquals(1, userMap.size());
+        assertNull(usernameIndex.find("Jane.Doe"));
+    }
+
+    @Test
+    void createAll_ShouldReleaseTheSuffixesClaimedForARejectedBatch() {
+        userMap.put(1L, new User(1L, "John", "Doe", "John.Doe", HASH, true));
+        when(storage.reserveUserIds(2)).thenReturn(10L);
+        assertEquals(0L, userDao.claimUsernameSuffix("Ann.Lee"));
+
+        assertThrows(DuplicateKeyException.class, () -> userDao.createAll(List.of(
+                new User(null, "Ann", "Lee", "Ann.Lee", HASH, true),
+                new User(null, "John", "Doe", "John.Doe", HASH, true))));
+
+        assertEquals(1, suffixes.size());
+        assertEquals(0L, userDao.claimUsernameSuffix("Ann.Lee"));
+    }
+
+    @Test
+    void create_ShouldReleaseTheSuffixClaimedForAUserNotStored() {
+        userDao.claimUsernameSuffix("Ann.Lee");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userDao.create(new User(null, "Ann", "Lee", "Ann.Lee", "Pass123456", true)));
+
+        assertEquals(0, suffixes.size());
+    }
+
+    @Test
+    void replacePassword_ShouldStoreCopyWithNewPassword() {
+        User user = new User(1L, "John", "Doe", "John.Doe", HASH, true);
+        userMap.put(1L, user);
+
+        assertTrue(userDao.replacePassword(user, NEW_HASH));
+
+        assertEquals(NEW_HASH, userMap.get(1L).getPassword());
+        assertEquals(HASH, user.getPassword());
+    }
+
+    @Test
+    void replacePassword_ShouldAcceptAnEqualCopyOfTheStoredUser() {
+        userMap.put(1L, new User(1L, "John", "Doe", "John.Doe", HASH, true));
+
+        assertTrue(userDao.replacePassword(new User(1L, "John", "Doe", "John.Doe", HASH, true), NEW_HASH));
+        assertEquals(NEW_HASH, userMap.get(1L).getPassword());
+    }
+
+    @Test
+    void writes_ShouldRejectPasswordsThatAreNotHashed() {
+        userMap.put(1L, testUser);
+        User clear = new User(1L, "John", "Doe", "John.Doe", "Pass123456", true);
+
+        assertThrows(IllegalArgumentException.class, () -> userDao.update(clear));
+        assertThrows(IllegalArgumentException.class, () -> userDao.create(clear));
+        assertThrows(IllegalArgumentException.class, () -> userDao.createAll(List.of(clear)));
+        assertThrows(IllegalArgumentException.class, () -> userDao.replacePassword(testUser, "Pass123456"));
+        assertEquals(HASH, userMap.get(1L).getPassword());
+        verify(storage, never()).getNextUserId();
+    }
+
+    @Test
+    void replacePassword_ShouldNotOverwriteAReplacedUser() {
+        User user = new User(1L, "John", "Doe", "John.Doe", HASH, true);
+        userMap.put(1L, user);
+        userMap.put(1L, new User(1L, "John", "Doe", "John.Doe", HASH, false));
+
+        assertFalse(userDao.replacePassword(user, NEW_HASH));
+        assertEquals(HASH, userMap.get(1L).getPassword());
+        assertFalse(userDao.replacePassword(new User(9L, "A", "B", "A.B", HASH, true), NEW_HASH));
+    }
+
+    @Test
+    void writesAndReads_ShouldNeverHandOutTheStoredVersion() {
+        userDao.setStorage(new InMemoryStorage(List.of()));
+        userDao.create(testUser);
+        testUser.setUsername("Changed");
+        User updated = userDao.update(new User(testUser.getUserId(), "Johnny", "Doe", "John.Doe", HASH, true));
+        updated.setActive(false);
+
+        userDao.findById(testUser.getUserId()).orElseThrow().setUsername("Other");
+        userDao.findAll().forEach(u -> u.setFirstName("Other"));
+        userDao.stream().forEach(u -> u.setActive(false));
+
+        User stored = userDao.findByUsername("John.Doe").orElseThrow();
+        assertEquals("Johnny", stored.getFirstName());
+        assertTrue(stored.isActive());
+        assertFalse(userDao.existsByUsername("Changed"));
+        assertFalse(userDao.existsByUsername("Other"));
+    }
+
+    @Test
+    void findByView_ShouldReturnUsersAsOfTheView() {
+        InMemoryStorage real = new InMemoryStorage(List.of());
+        real.getUserStorage().put(1L, testUser);
+        when(storage.getUserStorage()).thenReturn(real.getUserStorage());
+
+        try (StorageView view = real.openView()) {
+            userDao.update(new User(1L, "John", "Doe", "John.Doe", HASH, false));
+
+            assertTrue(userDao.findById(view, 1L).orElseThrow().isActive());
+            assertEquals(List.of(testUser), userDao.findAll(view));
+            assertFalse(userDao.findById(1L).orElseThrow().isActive());
+        }
+    }
+}
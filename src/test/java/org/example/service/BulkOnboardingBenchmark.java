@@ -0,0 +1,94 @@
+package org.example.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.example.dao.TraineeDao;
+import org.example.dao.UserDao;
+import org.example.entity.Trainee;
+import org.example.storage.InMemoryStorage;
+import org.example.utils.PasswordGenerator;
+import org.example.utils.PasswordHasher;
+import org.example.utils.UsernameGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a partner gym's members into an empty storage, one TraineeService.create per member versus
+ * one TraineeService.createAll for all of them. Members share a few hundred first and last names, so
+ * usernames collide the way real rosters do. Passwords are hashed with a single iteration, so the hash cost
+ * does not hide the difference, and logging is raised to WARN so neither side pays for output.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BulkOnboardingBenchmark {
+
+    @Param({"100000"})
+    private int members;
+
+    private List<TraineeRegistration> registrations;
+    private TraineeService traineeService;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        registrations = new ArrayList<>(members);
+        LocalDate dateOfBirth = LocalDate.of(1990, 1, 1);
+        for (int i = 0; i < members; i++) {
+            registrations.add(new TraineeRegistration("First" + i % 100, "Last" + i % 300,
+                    dateOfBirth.plusDays(i % 5000), i + " Partner St"));
+        }
+    }
+
+    @Setup(org.openjdk.jmh.annotations.Level.Invocation)
+    public void freshStorage() {
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        PasswordHasher passwordHasher = new PasswordHasher();
+        passwordHasher.setIterations(1);
+        UserDao userDao = new UserDao();
+        userDao.setStorage(storage);
+        userDao.setPasswordHasher(passwordHasher);
+        TraineeDao traineeDao = new TraineeDao();
+        traineeDao.setStorage(storage);
+        UserService userService = new UserService();
+        userService.setUserDao(userDao);
+        userService.setUsernameGenerator(new UsernameGenerator());
+        userService.setPasswordGenerator(new PasswordGenerator());
+        userService.setPasswordHasher(passwordHasher);
+        traineeService = new TraineeService();
+        traineeService.setTraineeDao(traineeDao);
+        traineeService.setUserService(userService);
+    }
+
+    @Benchmark
+    public List<Trainee> oneByOne() {
+        List<Trainee> result = new ArrayList<>(members);
+        for (TraineeRegistration r : registrations) {
+            result.add(traineeService.create(r.firstName(), r.lastName(), r.dateOfBirth(), r.address()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Trainee> createAll() {
+        return traineeService.createAll(registrations);
+    }
+}
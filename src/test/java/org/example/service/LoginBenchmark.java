@@ -0,0 +1,95 @@
+package org.example.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.example.dao.UserDao;
+import org.example.entity.User;
+import org.example.storage.InMemoryStorage;
+import org.example.utils.PasswordGenerator;
+import org.example.utils.PasswordHasher;
+import org.example.utils.UsernameGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins from four threads against users with PBKDF2 hashes at the default cost, sampled for percentiles,
+ * with every login hashed (cache size 0) or repeat logins answered from the verified-login cache.
+ * Setup prints how long the hashing pool takes to hash the users' passwords in bulk.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    @Param({"0", "10000"})
+    private int cacheSize;
+
+    @Param({"1000"})
+    private int users;
+
+    private UserService userService;
+    private PasswordHasher passwordHasher;
+    private List<User> created;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        passwordHasher = new PasswordHasher();
+        passwordHasher.start();
+        UserDao userDao = new UserDao();
+        userDao.setStorage(storage);
+        userDao.setPasswordHasher(passwordHasher);
+        userService = new UserService();
+        userService.setUserDao(userDao);
+        userService.setUsernameGenerator(new UsernameGenerator());
+        userService.setPasswordGenerator(new PasswordGenerator());
+        userService.setPasswordHasher(passwordHasher);
+        userService.setLoginCacheSize(cacheSize);
+        userService.setLoginCacheTtlSeconds(300);
+
+        created = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setFirstName("First" + i);
+            user.setLastName("Last");
+            created.add(user);
+        }
+        long start = System.nanoTime();
+        userService.createAll(created);
+        System.out.printf("%nHashed %d passwords in bulk in %d ms%n",
+                users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.stop();
+    }
+
+    @Benchmark
+    public boolean login() {
+        User user = created.get(ThreadLocalRandom.current().nextInt(users));
+        return userService.authenticate(user.getUsername(), user.getPassword());
+    }
+}
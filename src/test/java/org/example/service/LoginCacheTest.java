@@ -0,0 +1,43 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginCacheTest {
+
+    private final LoginCache loginCache = new LoginCache();
+
+    @Test
+    void contains_ShouldMatchOnlySamePasswordAndStoredHash() {
+        loginCache.put("John.Doe", "hash1", "Pass123456");
+
+        assertTrue(loginCache.contains("John.Doe", "hash1", "Pass123456"));
+        assertFalse(loginCache.contains("John.Doe", "hash1", "Pass123457"));
+        assertFalse(loginCache.contains("Jane.Roe", "hash1", "Pass123456"));
+        assertFalse(loginCache.contains("John.Doe", "hash2", "Pass123456"));
+        assertFalse(loginCache.contains("John.Doe", "hash1", "Pass123456"));
+    }
+
+    @Test
+    void contains_ShouldForgetExpiredLogins() {
+        loginCache.setTtl(0, TimeUnit.SECONDS);
+        loginCache.put("John.Doe", "hash1", "Pass123456");
+
+        assertFalse(loginCache.contains("John.Doe", "hash1", "Pass123456"));
+        assertEquals(0, loginCache.size());
+    }
+
+    @Test
+    void put_ShouldStayWithinMaxSize() {
+        loginCache.setMaxSize(100);
+        for (int i = 0; i < 1_000; i++) {
+            loginCache.put("user" + i, "hash", "pass");
+        }
+
+        assertTrue(loginCache.size() <= 100);
+        assertTrue(loginCache.contains("user999", "hash", "pass"));
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.service;
+
+import org.example.entity.TrainingType;
+import org.example.storage.InMemoryStorage;
+import org.example.storage.StorageView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotServiceTest {
+
+    private InMemoryStorage storage;
+    private SnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage(List.of());
+        snapshotService = new SnapshotService();
+        snapshotService.setStorage(storage);
+    }
+
+    @Test
+    void open_ShouldReturnViewsAtIncreasingVersions() {
+        try (StorageView first = snapshotService.open()) {
+            storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Cardio"));
+            try (StorageView second = snapshotService.open()) {
+                assertTrue(second.version() > first.version());
+                assertNull(storage.getTrainingTypeStorage().get(1L, first));
+                assertEquals("Cardio", storage.getTrainingTypeStorage().get(1L, second).getTrainingTypeName());
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.service;
 
+import org.example.dao.StaleEntityException;
 import org.example.dao.TraineeDao;
 import org.example.entity.Trainee;
 import org.example.entity.User;
@@ -81,6 +82,58 @@ class TraineeServiceTest {
         verify(traineeDao, times(1)).update(any(Trainee.class));
     }
 
+    @Test
+    void update_ShouldLeaveTheStoredTraineeUntouched() {
+        LocalDate dateOfBirth = testTrainee.getDateOfBirth();
+        String address = testTrainee.getAddress();
+        when(traineeDao.findById(1L)).thenReturn(Optional.of(testTrainee));
+        when(traineeDao.update(any(Trainee.class))).thenAnswer(i -> i.getArgument(0));
+
+        Trainee result = traineeService.update(1L, LocalDate.of(1991, 2, 2), "456 New St");
+
+        assertNotSame(testTrainee, result);
+        assertEquals(testTrainee.getUserId(), result.getUserId());
+        assertEquals(dateOfBirth, testTrainee.getDateOfBirth());
+        assertEquals(address, testTrainee.getAddress());
+    }
+
+    @Test
+    void update_ShouldRetryOnTheNewVersionWhenAnotherUpdateWins() {
+        Trainee newer = new Trainee(1L, testTrainee.getDateOfBirth(), "Elsewhere", testTrainee.getUserId(), 1);
+        traineeService.setUpdateRetries(1);
+        when(traineeDao.findById(1L)).thenReturn(Optional.of(testTrainee), Optional.of(newer));
+        when(traineeDao.update(any(Trainee.class)))
+                .thenThrow(new StaleEntityException("stale"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        Trainee result = traineeService.update(1L, LocalDate.of(1991, 2, 2), "456 New St");
+
+        assertEquals(1, result.getVersion());
+        assertEquals("456 New St", result.getAddress());
+        verify(traineeDao, times(2)).update(any(Trainee.class));
+    }
+
+    @Test
+    void update_ShouldGiveUpAfterConfiguredRetries() {
+        when(traineeDao.findById(1L)).thenReturn(Optional.of(testTrainee));
+        when(traineeDao.update(any(Trainee.class))).thenThrow(new StaleEntityException("stale"));
+
+        assertThrows(StaleEntityException.class,
+                () -> traineeService.update(1L, LocalDate.of(1991, 2, 2), "456 New St"));
+        verify(traineeDao, times(1)).update(any(Trainee.class));
+    }
+
+    @Test
+    void update_ShouldPassCallersVersionWithoutRetrying() {
+        when(traineeDao.findById(1L)).thenReturn(Optional.of(testTrainee));
+        when(traineeDao.update(any(Trainee.class))).thenThrow(new StaleEntityException("stale"));
+        traineeService.setUpdateRetries(3);
+
+        assertThrows(StaleEntityException.class,
+                () -> traineeService.update(1L, 7L, LocalDate.of(1991, 2, 2), "456 New St"));
+        verify(traineeDao, times(1)).update(argThat(t -> t.getVersion() == 7));
+    }
+
     @Test
     void update_ShouldThrowExceptionWhenTraineeNotFound() {
         when(traineeDao.findById(999L)).thenReturn(Optional.empty());
@@ -126,4 +179,38 @@ class TraineeServiceTest {
         assertEquals(2, result.size());
         verify(traineeDao, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    void createAll_ShouldLinkEachTraineeToItsUser() {
+        when(userService.createAll(anyList())).thenAnswer(i -> {
+            @SuppressWarnings("unchecked")
+            List<User> users = i.getArgument(0);
+            for (int k = 0; k < users.size(); k++) {
+                users.get(k).setUserId(100L + k);
+            }
+            return users;
+        });
+        when(traineeDao.createAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<Trainee> result = traineeService.createAll(List.of(
+                new TraineeRegistration("John", "Doe", LocalDate.of(1990, 1, 1), "1 First St"),
+                new TraineeRegistration("Jane", "Roe", null, "2 Second St")));
+
+        assertEquals(List.of(100L, 101L), result.stream().map(Trainee::getUserId).toList());
+        assertEquals("2 Second St", result.get(1).getAddress());
+        verify(userService, never()).createUser(anyString(), anyString());
+    }
+
+    @Test
+    void createAll_ShouldDoNothingForEmptyBatch() {
+        assertTrue(traineeService.createAll(List.of()).isEmpty());
+        verifyNoInteractions(userService, traineeDao);
+    }
+
+    @Test
+    void selectPage_ShouldDelegateCursorAndLimit() {
+        when(traineeDao.findPage(7L, 20)).thenReturn(List.of(testTrainee));
+
+        assertEquals(List.of(testTrainee), traineeService.selectPage(7L, 20));
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.service;
 
+import org.example.dao.StaleEntityException;
 import org.example.dao.TrainerDao;
+import org.example.dao.TrainingTypeDao;
 import org.example.entity.Trainer;
 import org.example.entity.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +29,9 @@ class TrainerServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TrainingTypeDao trainingTypeDao;
+
     @InjectMocks
     private TrainerService trainerService;
 
@@ -52,6 +57,7 @@ class TrainerServiceTest {
     @Test
     void create_ShouldCreateTrainerSuccessfully() {
         when(userService.createUser("Sarah", "Williams")).thenReturn(testUser);
+        when(trainingTypeDao.intern("Fitness")).thenReturn("Fitness");
         when(trainerDao.create(any(Trainer.class))).thenReturn(testTrainer);
 
         Trainer result = trainerService.create("Sarah", "Williams", "Fitness");
@@ -68,6 +74,7 @@ class TrainerServiceTest {
     @Test
     void update_ShouldUpdateTrainerSuccessfully() {
         when(trainerDao.findById(1L)).thenReturn(Optional.of(testTrainer));
+        when(trainingTypeDao.intern("Pilates")).thenReturn("Pilates");
         when(trainerDao.update(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
 
         Trainer result = trainerService.update(1L, "Pilates");
@@ -79,6 +86,47 @@ class TrainerServiceTest {
         verify(trainerDao, times(1)).update(any(Trainer.class));
     }
 
+    @Test
+    void update_ShouldStoreTheSharedSpecializationInstance() {
+        String shared = "Yoga";
+        when(trainerDao.findById(1L)).thenReturn(Optional.of(testTrainer));
+        when(trainingTypeDao.intern(any())).thenReturn(shared);
+        when(trainerDao.update(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
+
+        Trainer result = trainerService.update(1L, new String("Yoga"));
+
+        assertSame(shared, result.getSpecialization());
+    }
+
+    @Test
+    void update_ShouldLeaveTheStoredTrainerUntouched() {
+        when(trainerDao.findById(1L)).thenReturn(Optional.of(testTrainer));
+        when(trainingTypeDao.intern("Pilates")).thenReturn("Pilates");
+        when(trainerDao.update(any(Trainer.class))).thenAnswer(i -> i.getArgument(0));
+
+        Trainer result = trainerService.update(1L, "Pilates");
+
+        assertNotSame(testTrainer, result);
+        assertEquals(testTrainer.getUserId(), result.getUserId());
+        assertEquals("Fitness", testTrainer.getSpecialization());
+    }
+
+    @Test
+    void update_ShouldRetryOnTheNewVersionWhenAnotherUpdateWins() {
+        Trainer newer = new Trainer(1L, "Zumba", testTrainer.getUserId(), 1);
+        trainerService.setUpdateRetries(1);
+        when(trainerDao.findById(1L)).thenReturn(Optional.of(testTrainer), Optional.of(newer));
+        when(trainingTypeDao.intern("Pilates")).thenReturn("Pilates");
+        when(trainerDao.update(any(Trainer.class)))
+                .thenThrow(new StaleEntityException("stale"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        Trainer result = trainerService.update(1L, "Pilates");
+
+        assertEquals(1, result.getVersion());
+        assertEquals("Pilates", result.getSpecialization());
+    }
+
     @Test
     void update_ShouldThrowExceptionWhenTrainerNotFound() {
         when(trainerDao.findById(999L)).thenReturn(Optional.empty());
@@ -127,4 +175,25 @@ class TrainerServiceTest {
 
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createAll_ShouldLinkEachTrainerToItsUserWithSharedSpecialization() {
+        when(userService.createAll(anyList())).thenAnswer(i -> {
+            @SuppressWarnings("unchecked")
+            List<User> users = i.getArgument(0);
+            for (int k = 0; k < users.size(); k++) {
+                users.get(k).setUserId(100L + k);
+            }
+            return users;
+        });
+        when(trainingTypeDao.intern("Yoga")).thenReturn("Yoga");
+        when(trainerDao.createAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<Trainer> result = trainerService.createAll(List.of(
+                new TrainerRegistration("Sarah", "Williams", "Yoga"),
+                new TrainerRegistration("Tom", "Hardy", "Yoga")));
+
+        assertEquals(List.of(100L, 101L), result.stream().map(Trainer::getUserId).toList());
+        assertEquals("Yoga", result.get(1).getSpecialization());
+    }
+}
@@ -1,7 +1,10 @@
 package org.example.service;
 
 import org.example.dao.TrainingDao;
+import org.example.dao.TrainingTypeDao;
 import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.storage.TrainingTotals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +16,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +28,9 @@ class TrainingServiceTest {
     @Mock
     private TrainingDao trainingDao;
 
+    @Mock
+    private TrainingTypeDao trainingTypeDao;
+
     @InjectMocks
     private TrainingService trainingService;
 
@@ -51,6 +58,7 @@ class TrainingServiceTest {
         int duration = 60;
         LocalDate date = LocalDate.of(2024, 1, 15);
 
+        when(trainingTypeDao.findByName("Fitness")).thenReturn(Optional.of(new TrainingType(1L, "Fitness")));
         when(trainingDao.create(any(Training.class))).thenReturn(testTraining);
 
         // Act
@@ -79,6 +87,7 @@ class TrainingServiceTest {
         int duration = 90;
         LocalDate date = LocalDate.of(2024, 2, 20);
 
+        when(trainingTypeDao.findByName("Yoga")).thenReturn(Optional.of(new TrainingType(2L, "Yoga")));
         when(trainingDao.create(any(Training.class))).thenAnswer(invocation -> {
             Training training = invocation.getArgument(0);
             assertEquals(traineeId, training.getTraineeId());
@@ -106,6 +115,28 @@ class TrainingServiceTest {
         ));
     }
 
+    @Test
+    void create_ShouldStoreTheCanonicalTypeName() {
+        TrainingType yoga = new TrainingType(2L, "Yoga");
+        when(trainingTypeDao.findByName("Yoga")).thenReturn(Optional.of(yoga));
+        when(trainingDao.create(any(Training.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Training result = trainingService.create(1L, 1L, "Evening Yoga", new String("Yoga"), 60,
+                LocalDate.of(2024, 1, 15));
+
+        assertSame(yoga.getTrainingTypeName(), result.getTrainingType());
+    }
+
+    @Test
+    void create_ShouldRejectUnknownTrainingType() {
+        when(trainingTypeDao.findByName("Juggling")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> trainingService.create(1L, 1L, "Morning Workout",
+                "Juggling", 60, LocalDate.of(2024, 1, 15)));
+
+        verify(trainingDao, never()).create(any(Training.class));
+    }
+
     @Test
     void select_ShouldReturnTrainingWhenExists() {
         // Arrange
@@ -265,4 +296,61 @@ class TrainingServiceTest {
         assertTrue(result.isEmpty());
         verify(trainingDao, times(1)).findByTrainerId(trainerId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void selectByTraineeAndDateRange_ShouldDelegateToDao() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+
+        when(trainingDao.findByTraineeAndDateRange(1L, from, to)).thenReturn(Stream.of(testTraining));
+
+        // Act
+        List<Training> result = trainingService.selectByTraineeAndDateRange(1L, from, to).toList();
+
+        // Assert
+        assertEquals(List.of(testTraining), result);
+        verify(trainingDao, times(1)).findByTraineeAndDateRange(1L, from, to);
+    }
+
+    @Test
+    void selectByType_ShouldDelegateToDao() {
+        when(trainingDao.findByType("Fitness")).thenReturn(List.of(testTraining));
+
+        List<Training> result = trainingService.selectByType("Fitness");
+
+        assertEquals(List.of(testTraining), result);
+        verify(trainingDao, times(1)).findByType("Fitness");
+    }
+
+    @Test
+    void selectTypePage_ShouldDelegateCursorAndLimit() {
+        TrainingType yoga = new TrainingType(8L, "Yoga");
+        when(trainingTypeDao.findPage(7L, 20)).thenReturn(List.of(yoga));
+
+        assertEquals(List.of(yoga), trainingService.selectTypePage(7L, 20));
+    }
+
+    @Test
+    void stream_ShouldDelegateToDao() {
+        when(trainingDao.stream()).thenReturn(Stream.of(testTraining));
+
+        assertEquals(List.of(testTraining), trainingService.stream().toList());
+    }
+
+    @Test
+    void streamTypes_ShouldDelegateToDao() {
+        TrainingType yoga = new TrainingType(8L, "Yoga");
+        when(trainingTypeDao.stream()).thenReturn(Stream.of(yoga));
+
+        assertEquals(List.of(yoga), trainingService.streamTypes().toList());
+    }
+
+    @Test
+    void selectTotalsByTrainee_ShouldDelegateToDao() {
+        TrainingTotals totals = new TrainingTotals(3, 180, LocalDate.of(2024, 1, 15));
+        when(trainingDao.totalsByTrainee(1L)).thenReturn(totals);
+
+        assertEquals(totals, trainingService.selectTotalsByTrainee(1L));
+    }
+}
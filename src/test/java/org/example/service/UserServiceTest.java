@@ -1,8 +1,15 @@
 package org.example.service;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.example.storage.DuplicateKeyException;
 import org.example.dao.UserDao;
 import org.example.entity.User;
+import org.example.storage.UsernameSuffixIndex;
 import org.example.utils.PasswordGenerator;
+import org.example.utils.PasswordHasher;
 import org.example.utils.UsernameGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,11 +34,16 @@ class UserServiceTest {
     @Mock
     private PasswordGenerator passwordGenerator;
 
+    @Mock
+    private PasswordHasher passwordHasher;
+
     @InjectMocks
     private UserService userService;
 
     private User testUser;
 
+    private final UsernameSuffixIndex suffixes = new UsernameSuffixIndex();
+
     @BeforeEach
     void setUp() {
         testUser = new User();
@@ -45,7 +57,7 @@ class UserServiceTest {
 
     @Test
     void createUser_ShouldCreateUserSuccessfully() {
-        when(usernameGenerator.generateUsername(eq("John"), eq("Doe"), any()))
+        when(usernameGenerator.generateUsername(eq("John"), eq("Doe"), any(), any()))
                 .thenReturn("John.Doe");
         when(passwordGenerator.generatePassword()).thenReturn("Pass123456");
         when(userDao.create(any(User.class))).thenReturn(testUser);
@@ -57,14 +69,14 @@ class UserServiceTest {
         assertEquals("Pass123456", result.getPassword());
         assertTrue(result.isActive());
 
-        verify(usernameGenerator, times(1)).generateUsername(eq("John"), eq("Doe"), any());
+        verify(usernameGenerator, times(1)).generateUsername(eq("John"), eq("Doe"), any(), any());
         verify(passwordGenerator, times(1)).generatePassword();
         verify(userDao, times(1)).create(any(User.class));
     }
 
     @Test
     void createUser_ShouldSetAllFieldsCorrectly() {
-        when(usernameGenerator.generateUsername(anyString(), anyString(), any()))
+        when(usernameGenerator.generateUsername(anyString(), anyString(), any(), any()))
                 .thenReturn("John.Doe");
         when(passwordGenerator.generatePassword()).thenReturn("Pass123456");
         when(userDao.create(any(User.class))).thenAnswer(i -> i.getArgument(0));
@@ -80,7 +92,7 @@ class UserServiceTest {
 
     @Test
     void createUser_ShouldPassExistsByUsernameToGenerator() {
-        when(usernameGenerator.generateUsername(eq("John"), eq("Doe"), any()))
+        when(usernameGenerator.generateUsername(eq("John"), eq("Doe"), any(), any()))
                 .thenReturn("John.Doe1");
         when(passwordGenerator.generatePassword()).thenReturn("Pass123456");
         when(userDao.create(any(User.class))).thenReturn(testUser);
@@ -88,6 +100,215 @@ class UserServiceTest {
         userService.createUser("John", "Doe");
 
         verify(usernameGenerator, times(1))
-                .generateUsername(eq("John"), eq("Doe"), any());
+                .generateUsername(eq("John"), eq("Doe"), any(), any());
+    }
+
+    @Test
+    void createAll_ShouldNameWholeBatchAndInsertOnce() {
+        when(usernameGenerator.newBatch(any(), any()))
+                .thenAnswer(i -> new UsernameGenerator().newBatch(i.getArgument(0), i.getArgument(1)));
+        stubSuffixClaims();
+        when(passwordGenerator.generate(3)).thenReturn(List.of("Pass000001", "Pass000002", "Pass000003"));
+        stubHashAll();
+        User namesake = user("John", "Doe");
+        namesake.setUsername("John.Doe");
+        suffixes.onPut(1L, null, namesake);
+        when(userDao.createAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<User> result = userService.createAll(List.of(user("John", "Doe"), user("John", "Doe"), user("Ann", "Lee")));
+
+        assertEquals(List.of("John.Doe1", "John.Doe2", "Ann.Lee"), result.stream().map(User::getUsername).toList());
+        assertEquals(List.of("Pass000001", "Pass000002", "Pass000003"), result.stream().map(User::getPassword).toList());
+        assertTrue(result.stream().allMatch(User::isActive));
+        verify(passwordGenerator, never()).generatePassword();
+        verify(userDao, times(1)).createAll(argThat(stored -> stored.stream()
+                .map(User::getPassword).toList().equals(List.of("hash:Pass000001", "hash:Pass000002", "hash:Pass000003"))));
+    }
+
+    @Test
+    void createAll_ShouldRenameAndRetryWhenAUsernameIsTakenMeanwhile() {
+        when(usernameGenerator.newBatch(any(), any()))
+                .thenAnswer(i -> new UsernameGenerator().newBatch(i.getArgument(0), i.getArgument(1)));
+        stubSuffixClaims();
+        when(passwordGenerator.generate(1)).thenReturn(List.of("Pass123456"));
+        stubHashAll();
+        when(userDao.createAll(anyList()))
+                .thenThrow(new DuplicateKeyException("Duplicate username: John.Doe"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        List<User> result = userService.createAll(List.of(user("John", "Doe")));
+
+        assertEquals("John.Doe1", result.get(0).getUsername());
+        verify(userDao, times(2)).createAll(anyList());
+    }
+
+    @Test
+    void createUser_ShouldRenameAndRetryWhenTheUsernameIsTakenMeanwhile() {
+        when(usernameGenerator.generateUsername(eq("John"), eq("Doe"), any(), any()))
+                .thenReturn("John.Doe", "John.Doe1");
+        when(passwordGenerator.generatePassword()).thenReturn("Pass123456");
+        when(userDao.create(any(User.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate username: John.Doe"))
+                .thenAnswer(i -> i.getArgument(0));
+
+        User result = userService.createUser("John", "Doe");
+
+        assertEquals("John.Doe1", result.getUsername());
+        verify(passwordGenerator, times(1)).generatePassword();
+        verify(userDao, times(2)).create(any(User.class));
+    }
+
+    @Test
+    void createUser_ShouldGiveUpWhenTheUsernameKeepsBeingTaken() {
+        when(usernameGenerator.generateUsername(eq("John"), eq("Doe"), any(), any())).thenReturn("John.Doe");
+        when(passwordGenerator.generatePassword()).thenReturn("Pass123456");
+        when(userDao.create(any(User.class))).thenThrow(new DuplicateKeyException("Duplicate username: John.Doe"));
+
+        assertThrows(DuplicateKeyException.class, () -> userService.createUser("John", "Doe"));
+        verify(userDao, times(3)).create(any(User.class));
+    }
+
+    @Test
+    void createUser_ShouldStoreOnlyThePasswordHash() {
+        when(usernameGenerator.generateUsername(anyString(), anyString(), any(), any())).thenReturn("John.Doe");
+        when(passwordGenerator.generatePassword()).thenReturn("Pass123456");
+        when(passwordHasher.hash("Pass123456")).thenReturn("hash:Pass123456");
+        when(userDao.create(any(User.class))).thenAnswer(i -> i.getArgument(0));
+
+        User result = userService.createUser("John", "Doe");
+
+        assertEquals("Pass123456", result.getPassword());
+        verify(userDao).create(argThat(stored -> stored.getPassword().equals("hash:Pass123456")));
+    }
+
+    @Test
+    void authenticate_ShouldAcceptMatchingPasswordAndCacheTheVerification() {
+        testUser.setPassword("hash:Pass123456");
+        when(userDao.findByUsername("John.Doe")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches("Pass123456", "hash:Pass123456")).thenReturn(true);
+
+        assertTrue(userService.authenticate("John.Doe", "Pass123456"));
+        assertTrue(userService.authenticate("John.Doe", "Pass123456"));
+
+        verify(passwordHasher, times(1)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldRejectWrongPasswordEvenAfterACachedLogin() {
+        testUser.setPassword("hash:Pass123456");
+        when(userDao.findByUsername("John.Doe")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches("Pass123456", "hash:Pass123456")).thenReturn(true);
+        userService.authenticate("John.Doe", "Pass123456");
+
+        assertFalse(userService.authenticate("John.Doe", "wrong"));
+        assertFalse(userService.authenticate("Nobody", "Pass123456"));
+    }
+
+    @Test
+    void authenticate_ShouldVerifyAgainWhenPasswordChanged() {
+        testUser.setPassword("hash:Pass123456");
+        when(userDao.findByUsername("John.Doe")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches("Pass123456", "hash:Pass123456")).thenReturn(true);
+        userService.authenticate("John.Doe", "Pass123456");
+
+        testUser.setPassword("hash:NewPass0001");
+
+        assertFalse(userService.authenticate("John.Doe", "Pass123456"));
+    }
+
+    @Test
+    void authenticate_ShouldRejectInactiveUserEvenAfterACachedLogin() {
+        testUser.setPassword("hash:Pass123456");
+        when(userDao.findByUsername("John.Doe")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches("Pass123456", "hash:Pass123456")).thenReturn(true);
+        userService.authenticate("John.Doe", "Pass123456");
+
+        testUser.setActive(false);
+
+        assertFalse(userService.authenticate("John.Doe", "Pass123456"));
+        verify(passwordHasher, times(1)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_ShouldVerifyEveryTimeWithCacheDisabled() {
+        userService.setLoginCacheSize(0);
+        testUser.setPassword("hash:Pass123456");
+        when(userDao.findByUsername("John.Doe")).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches("Pass123456", "hash:Pass123456")).thenReturn(true);
+
+        userService.authenticate("John.Doe", "Pass123456");
+        userService.authenticate("John.Doe", "Pass123456");
+
+        verify(passwordHasher, times(2)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void hashStoredPasswords_ShouldReplaceClearPasswordsWithHashes() {
+        User hashed = new User(2L, "Jane", "Roe", "Jane.Roe", "hash:x", true);
+        when(userDao.findAll()).thenReturn(List.of(testUser, hashed), List.of(hashed));
+        when(passwordHasher.isHashed("Pass123456")).thenReturn(false);
+        when(passwordHasher.isHashed("hash:x")).thenReturn(true);
+        when(userDao.replacePassword(testUser, "hash:Pass123456")).thenReturn(true);
+        stubHashAll();
+
+        userService.hashStoredPasswords();
+
+        verify(userDao).replacePassword(testUser, "hash:Pass123456");
+        verify(userDao, never()).replacePassword(eq(hashed), anyString());
+    }
+
+    @Test
+    void hashStoredPasswords_ShouldHashAgainAUserChangedMeanwhile() {
+        User renamed = new User(1L, "John", "Doe", "John.Doe2", "Pass123456", true);
+        when(userDao.findAll()).thenReturn(List.of(testUser), List.of(renamed), List.of());
+        when(passwordHasher.isHashed("Pass123456")).thenReturn(false);
+        when(userDao.replacePassword(testUser, "hash:Pass123456")).thenReturn(false);
+        when(userDao.replacePassword(renamed, "hash:Pass123456")).thenReturn(true);
+        stubHashAll();
+
+        userService.hashStoredPasswords();
+
+        verify(userDao).replacePassword(renamed, "hash:Pass123456");
+    }
+
+    @Test
+    void hashStoredPasswords_ShouldFailWhenPasswordsStayInClear() {
+        when(userDao.findAll()).thenReturn(List.of(testUser));
+        when(passwordHasher.isHashed("Pass123456")).thenReturn(false);
+        stubHashAll();
+
+        assertThrows(IllegalStateException.class, () -> userService.hashStoredPasswords());
+        verify(userDao, times(3)).replacePassword(testUser, "hash:Pass123456");
+    }
+
+    @Test
+    void selectPage_ShouldDelegateCursorAndLimit() {
+        when(userDao.findPage(7L, 20)).thenReturn(List.of(testUser));
+
+        assertEquals(List.of(testUser), userService.selectPage(7L, 20));
+    }
+
+    @Test
+    void stream_ShouldDelegateToDao() {
+        when(userDao.stream()).thenReturn(Stream.of(testUser));
+
+        assertEquals(List.of(testUser), userService.stream().toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubHashAll() {
+        when(passwordHasher.hashAll(anyList())).thenAnswer(i -> CompletableFuture.completedFuture(
+                ((List<String>) i.getArgument(0)).stream().map(p -> "hash:" + p).toList()));
+    }
+
+    private void stubSuffixClaims() {
+        when(userDao.claimUsernameSuffix(anyString())).thenAnswer(i -> suffixes.claim(i.getArgument(0)));
+    }
+
+    private static User user(String firstName, String lastName) {
+        User user = new User();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return user;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package org.example.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random gets, overwriting puts and full iteration on {@link ConcurrentLongMap} against
+ * {@link HashMap} and {@link ConcurrentHashMap} with boxed keys, at entity-table sizes.
+ * Get and put run over a fixed batch of random existing keys and report time per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConcurrentLongMapBenchmark {
+
+    private static final int BATCH = 1 << 12;
+
+    @Param({"1000000"})
+    private int size;
+
+    private final Object value = new Object();
+    private HashMap<Long, Object> hashMap;
+    private ConcurrentHashMap<Long, Object> concurrentHashMap;
+    private ConcurrentLongMap<Object> longMap;
+    private long[] keys;
+
+    @Setup
+    public void setUp() {
+        hashMap = new HashMap<>();
+        concurrentHashMap = new ConcurrentHashMap<>();
+        longMap = new ConcurrentLongMap<>();
+        for (long key = 1; key <= size; key++) {
+            hashMap.put(key, value);
+            concurrentHashMap.put(key, value);
+            longMap.put(key, value);
+        }
+        Random random = new Random(7);
+        keys = new long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            keys[i] = random.nextInt(size) + 1;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getHashMap(Blackhole blackhole) {
+        for (long key : keys) {
+            blackhole.consume(hashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getConcurrentHashMap(Blackhole blackhole) {
+        for (long key : keys) {
+            blackhole.consume(concurrentHashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void getConcurrentLongMap(Blackhole blackhole) {
+        for (long key : keys) {
+            blackhole.consume(longMap.get(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void putHashMap(Blackhole blackhole) {
+        for (long key : keys) {
+            blackhole.consume(hashMap.put(key, value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void putConcurrentHashMap(Blackhole blackhole) {
+        for (long key : keys) {
+            blackhole.consume(concurrentHashMap.put(key, value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void putConcurrentLongMap(Blackhole blackhole) {
+        for (long key : keys) {
+            blackhole.consume(longMap.put(key, value));
+        }
+    }
+
+    @Benchmark
+    public void iterateHashMap(Blackhole blackhole) {
+        for (Object v : hashMap.values()) {
+            blackhole.consume(v);
+        }
+    }
+
+    @Benchmark
+    public void iterateConcurrentHashMap(Blackhole blackhole) {
+        for (Object v : concurrentHashMap.values()) {
+            blackhole.consume(v);
+        }
+    }
+
+    @Benchmark
+    public void iterateConcurrentLongMap(Blackhole blackhole) {
+        longMap.values().forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentLongMapTest {
+
+    private ConcurrentLongMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new ConcurrentLongMap<>();
+    }
+
+    @Test
+    void put_ShouldReturnPreviousValue() {
+        assertNull(map.put(1L, "a"));
+        assertEquals("a", map.put(1L, "b"));
+
+        assertEquals("b", map.get(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void remove_ShouldLeaveOtherKeysReachable() {
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, "v" + key);
+        }
+        for (long key = 1; key <= 1_000; key += 2) {
+            assertEquals("v" + key, map.remove(key));
+        }
+
+        assertEquals(500, map.size());
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(key % 2 == 0 ? "v" + key : null, map.get(key));
+        }
+        assertNull(map.remove(1L));
+    }
+
+    @Test
+    void put_ShouldHandleZeroAndNegativeKeys() {
+        map.put(0L, "zero");
+        map.put(-5L, "minus");
+        map.put(Long.MIN_VALUE, "min");
+
+        assertEquals("zero", map.get(0L));
+        assertEquals("minus", map.get(-5L));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals(Set.of("zero", "minus", "min"), map.values().collect(Collectors.toSet()));
+        assertEquals("zero", map.remove(0L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void put_ShouldRejectNullValues() {
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void operations_ShouldMatchHashMapUnderRandomChurn() {
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertEquals(Set.copyOf(expected.values()), map.values().collect(Collectors.toSet()));
+    }
+
+    @Test
+    void map_ShouldPairKeysWithValuesAndSplitInParallel() {
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, "v" + key);
+        }
+
+        assertTrue(map.<Boolean>map((key, value) -> value.equals("v" + key)).allMatch(Boolean::booleanValue));
+        assertEquals(10_000, map.values().parallel().count());
+        assertEquals(5_000, map.map((key, value) -> key % 2 == 0 ? value : null).count());
+    }
+
+    @Test
+    void spliterator_ShouldSplitWithinSegmentsIntoEvenDisjointParts() {
+        int keys = 200_000;
+        for (long key = 0; key < keys; key++) {
+            map.put(key, "v" + key);
+        }
+        List<Spliterator<String>> parts = new ArrayList<>(List.of(map.values().spliterator()));
+        for (int round = 0; round < 9; round++) {
+            List<Spliterator<String>> next = new ArrayList<>();
+            for (Spliterator<String> part : parts) {
+                Spliterator<String> prefix = part.trySplit();
+                if (prefix != null) {
+                    next.add(prefix);
+                }
+                next.add(part);
+            }
+            parts = next;
+        }
+
+        Set<String> seen = new HashSet<>();
+        int largest = 0;
+        for (Spliterator<String> part : parts) {
+            List<String> values = new ArrayList<>();
+            part.forEachRemaining(values::add);
+            largest = Math.max(largest, values.size());
+            values.forEach(value -> assertTrue(seen.add(value), value));
+        }
+        assertTrue(parts.size() > 64, "parts: " + parts.size());
+        assertTrue(largest < 3 * keys / parts.size(), "largest part: " + largest);
+        assertEquals(keys, seen.size());
+        assertTrue(seen.contains("v0"));
+    }
+
+    @Test
+    void get_ShouldSeePresentKeysWhileOthersAreWrittenConcurrently() throws Exception {
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, "stable");
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> writers = List.of(
+                    executor.submit(() -> churn(running, 1_000_000L)),
+                    executor.submit(() -> churn(running, 2_000_000L)));
+            Future<Long> reader = executor.submit(() -> {
+                long misses = 0;
+                for (int round = 0; round < 200; round++) {
+                    for (long key = 1; key <= 1_000; key++) {
+                        if (!"stable".equals(map.get(key))) {
+                            misses++;
+                        }
+                    }
+                }
+                return misses;
+            });
+            assertEquals(0L, reader.get());
+            running.set(false);
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void churn(AtomicBoolean running, long base) {
+        for (long i = 0; running.get(); i++) {
+            long key = base + i % 50_000;
+            if (i % 3 == 2) {
+                map.remove(key);
+            } else {
+                map.put(key, "churn");
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvTokenizerTest {
+
+    private final CsvTokenizer tokenizer = new CsvTokenizer();
+
+    @Test
+    void reset_ShouldSplitAndTrimFields() {
+        tokenize(" 7 , 1 ,2, Morning Workout ,Fitness, 60 ,2024-01-15 ");
+
+        assertEquals(7, tokenizer.fieldCount());
+        assertEquals(7L, tokenizer.longField(0));
+        assertEquals("Morning Workout", tokenizer.textField(3));
+        assertEquals(60, tokenizer.intField(5));
+        assertEquals(LocalDate.of(2024, 1, 15), tokenizer.dateField(6));
+    }
+
+    @Test
+    void reset_ShouldDropTrailingEmptyFields() {
+        tokenize("1,Cardio,,");
+
+        assertEquals(2, tokenizer.fieldCount());
+    }
+
+    @Test
+    void isBlankOrComment_ShouldDetectCommentsAndBlankLines() {
+        assertTrue(tokenize("  # comment").isBlankOrComment());
+        assertTrue(tokenize("   ").isBlankOrComment());
+        assertFalse(tokenize("1,Cardio").isBlankOrComment());
+    }
+
+    @Test
+    void booleanField_ShouldMatchBooleanParseBoolean() {
+        assertTrue(tokenize("TRUE").booleanField(0));
+        assertFalse(tokenize("yes").booleanField(0));
+        assertFalse(tokenize("false").booleanField(0));
+    }
+
+    @Test
+    void longField_ShouldRejectNonDigits() {
+        tokenize("notANumber,-12");
+
+        assertThrows(NumberFormatException.class, () -> tokenizer.longField(0));
+        assertEquals(-12L, tokenizer.longField(1));
+    }
+
+    @Test
+    void dateField_ShouldRejectInvalidDates() {
+        assertThrows(DateTimeException.class, () -> tokenize("2024-02-30").dateField(0));
+        assertThrows(DateTimeException.class, () -> tokenize("2024/02/01").dateField(0));
+    }
+
+    @Test
+    void textField_ShouldDecodeUtf8FromDirectBuffers() {
+        byte[] bytes = "1,Café Zürich".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        tokenizer.reset(direct, 0, bytes.length);
+
+        assertEquals("Café Zürich", tokenizer.textField(1));
+    }
+
+    private CsvTokenizer tokenize(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return tokenizer.reset(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+}
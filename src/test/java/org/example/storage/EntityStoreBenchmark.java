@@ -0,0 +1,107 @@
+package org.example.storage;
+
+import org.example.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write throughput of {@link EntityStore} against a synchronized HashMap,
+ * which is the cheapest way to make the old storage thread-safe.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityStoreBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"90"})
+    private int readPercent;
+
+    private EntityStore<User> store;
+    private Map<Long, User> synchronizedMap;
+
+    @Setup
+    public void setUp() {
+        store = new EntityStore<>();
+        synchronizedMap = Collections.synchronizedMap(new HashMap<>());
+        for (long id = 1; id <= SIZE; id++) {
+            User user = new User(id, "First" + id, "Last" + id, "First.Last" + id, "password", true);
+            store.put(id, user);
+            synchronizedMap.put(id, user);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object store_1thread() {
+        return storeOp();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object store_8threads() {
+        return storeOp();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object store_32threads() {
+        return storeOp();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object synchronizedMap_1thread() {
+        return mapOp();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object synchronizedMap_8threads() {
+        return mapOp();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object synchronizedMap_32threads() {
+        return mapOp();
+    }
+
+    private Object storeOp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, SIZE + 1);
+        if (random.nextInt(100) < readPercent) {
+            return store.get(id);
+        }
+        return store.put(id, store.get(id));
+    }
+
+    private Object mapOp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, SIZE + 1);
+        if (random.nextInt(100) < readPercent) {
+            return synchronizedMap.get(id);
+        }
+        return synchronizedMap.put(id, synchronizedMap.get(id));
+    }
+}
@@ -0,0 +1,313 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityStoreTest {
+
+    private EntityStore<TrainingType> store;
+
+    @BeforeEach
+    void setUp() {
+        store = new EntityStore<>();
+    }
+
+    @Test
+    void put_ShouldReturnPreviousValue() {
+        TrainingType first = new TrainingType(1L, "Cardio");
+        TrainingType second = new TrainingType(1L, "Yoga");
+
+        assertNull(store.put(1L, first));
+        assertEquals(first, store.put(1L, second));
+        assertEquals(second, store.get(1L));
+    }
+
+    @Test
+    void replaceIf_ShouldWriteOnlyWhenCurrentValuePasses() {
+        TrainingType cardio = new TrainingType(1L, "Cardio");
+        store.put(1L, cardio);
+
+        assertFalse(store.replaceIf(1L, t -> t.getTrainingTypeName().equals("Yoga"), new TrainingType(1L, "Pilates")));
+        assertSame(cardio, store.get(1L));
+        assertTrue(store.replaceIf(1L, t -> t.getTrainingTypeName().equals("Cardio"), new TrainingType(1L, "Yoga")));
+        assertEquals("Yoga", store.get(1L).getTrainingTypeName());
+        assertFalse(store.replaceIf(2L, t -> true, new TrainingType(2L, "Zumba")));
+        assertFalse(store.containsKey(2L));
+    }
+
+    @Test
+    void replaceIf_ShouldLoseNoIncrementsUnderContention() throws Exception {
+        EntityStore<Training> counters = new EntityStore<>();
+        counters.put(1L, new Training(1L, null, null, null, null, 0, null));
+        int threads = 4;
+        int increments = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < increments; i++) {
+                        while (true) {
+                            Training current = counters.get(1L);
+                            int seen = current.getTrainingDuration();
+                            Training next = new Training(1L, null, null, null, null, seen + 1, null);
+                            if (counters.replaceIf(1L, c -> c.getTrainingDuration() == seen, next)) {
+                                break;
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(threads * increments, counters.get(1L).getTrainingDuration());
+    }
+
+    @Test
+    void remove_ShouldDeleteEntry() {
+        store.put(1L, new TrainingType(1L, "Cardio"));
+
+        assertNotNull(store.remove(1L));
+        assertFalse(store.containsKey(1L));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void putAll_ShouldInsertBatchAndIndexIt() {
+        MultiIndex<Training, Long> byTrainee = new MultiIndex<>(Training::getTraineeId);
+        DateRangeIndex<Training> byDate = new DateRangeIndex<>(Training::getTrainingDate);
+        EntityStore<Training> trainings = new EntityStore<>(byTrainee, byDate);
+        trainings.put(1L, training(1L, 5L, 3));
+
+        trainings.putAll(Map.of(2L, training(2L, 5L, 1), 3L, training(3L, 6L, 2)));
+
+        assertEquals(3, trainings.size());
+        assertEquals(Set.of(1L, 2L), byTrainee.find(5L));
+        assertEquals(List.of(2L, 3L, 1L),
+                byDate.find(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)).toList());
+    }
+
+    @Test
+    void putAll_ShouldRejectIdsAlreadyPresent() {
+        store.put(1L, new TrainingType(1L, "Cardio"));
+
+        assertThrows(IllegalStateException.class,
+                () -> store.putAll(Map.of(1L, new TrainingType(1L, "Yoga"), 2L, new TrainingType(2L, "Pilates"))));
+        assertEquals("Cardio", store.get(1L).getTrainingTypeName());
+        assertFalse(store.containsKey(2L));
+    }
+
+    @Test
+    void putAll_ShouldInsertNothingWhenAnIndexRejectsTheBatch() {
+        UniqueIndex<TrainingType, String> byName = new UniqueIndex<>("name", TrainingType::getTrainingTypeName);
+        EntityStore<TrainingType> types = new EntityStore<>(byName);
+        types.put(1L, new TrainingType(1L, "Cardio"));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> types.putAll(Map.of(2L, new TrainingType(2L, "Yoga"), 3L, new TrainingType(3L, "Cardio"))));
+        assertEquals(1, types.size());
+        assertEquals(1L, byName.find("Cardio"));
+        assertFalse(byName.contains("Yoga"));
+    }
+
+    @Test
+    void putAll_ShouldOnlyRollBackIndexesThatTookTheBatch() {
+        TrainingTotalsIndex totals = new TrainingTotalsIndex();
+        List<Long> indexed = new ArrayList<>();
+        List<Long> strayRemovals = new ArrayList<>();
+        EntityIndex<Training> failing = new EntityIndex<>() {
+            @Override
+            public void onPut(long id, Training previous, Training current) {
+                if (id == 3L) {
+                    throw new IllegalStateException("Rejected: " + id);
+                }
+                indexed.add(id);
+            }
+
+            @Override
+            public void onRemove(long id, Training previous) {
+                if (!indexed.remove(id)) {
+                    strayRemovals.add(id);
+                }
+            }
+        };
+        EntityStore<Training> trainings = new EntityStore<>(totals, failing);
+        trainings.put(1L, training(1L, 5L, 1));
+        Map<Long, Training> batch = new LinkedHashMap<>();
+        batch.put(2L, training(2L, 5L, 2));
+        batch.put(3L, training(3L, 5L, 3));
+        batch.put(4L, training(4L, 5L, 4));
+
+        assertThrows(IllegalStateException.class, () -> trainings.putAll(batch));
+
+        assertEquals(List.of(1L), indexed);
+        assertEquals(List.of(), strayRemovals);
+        assertEquals(1, totals.forTrainee(5L).count());
+        assertEquals(1, trainings.size());
+    }
+
+    @Test
+    void copies_ShouldKeepStoredVersionsAndIndexesApartFromCallers() {
+        UniqueIndex<TrainingType, String> byName = new UniqueIndex<>("name", TrainingType::getTrainingTypeName);
+        EntityStore<TrainingType> types = new EntityStore<>(new VersionClock(),
+                EntityLayout.copies(EntityCopies::trainingType), byName);
+        TrainingType written = new TrainingType(1L, "Yoga");
+        types.put(1L, written);
+
+        written.setTrainingTypeName("Written");
+        types.get(1L).setTrainingTypeName("Read");
+        types.stream().forEach(t -> t.setTrainingTypeName("Streamed"));
+        types.page(-1, 10).forEach(t -> t.setTrainingTypeName("Paged"));
+
+        assertEquals("Yoga", types.get(1L).getTrainingTypeName());
+        assertNotSame(types.get(1L), types.get(1L));
+        assertEquals(1L, byName.find("Yoga"));
+    }
+
+    @Test
+    void values_ShouldBeReadOnly() {
+        store.put(1L, new TrainingType(1L, "Cardio"));
+
+        assertThrows(UnsupportedOperationException.class, () -> store.values().clear());
+    }
+
+    @Test
+    void concurrentWriters_ShouldNotLoseEntries() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * perThread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long id = base; id < base + perThread; id++) {
+                        store.put(id, new TrainingType(id, "Type" + id));
+                        store.get(id);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, store.size());
+        assertEquals(threads * perThread, store.values().size());
+    }
+
+    private static Training training(long id, long traineeId, int day) {
+        return new Training(id, traineeId, 1L, "Session", "Cardio", 60, LocalDate.of(2024, 1, day));
+    }
+
+    @Test
+    void stream_ShouldReadCurrentEntitiesLazily() {
+        store.put(1L, new TrainingType(1L, "Cardio"));
+        store.put(2L, new TrainingType(2L, "Yoga"));
+        Stream<TrainingType> stream = store.stream();
+
+        store.put(2L, new TrainingType(2L, "Pilates"));
+        store.remove(1L);
+        store.put(3L, new TrainingType(3L, "Boxing"));
+
+        assertEquals(Set.of("Pilates", "Boxing"),
+                stream.map(TrainingType::getTrainingTypeName).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void stream_ShouldSeeEachSteadyEntityOnceWhileOthersAreWritten() throws Exception {
+        for (long id = 1; id <= 50_000; id++) {
+            store.put(id, new TrainingType(id, "Type" + id));
+        }
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> churn = writer.submit(() -> {
+                for (long id = 100_000; id < 150_000; id++) {
+                    store.put(id, new TrainingType(id, "New" + id));
+                    store.remove(id - 10);
+                }
+            });
+            for (int round = 0; round < 3; round++) {
+                Map<Long, Long> steady = store.stream().parallel()
+                        .filter(type -> type.getTrainingTypeId() <= 50_000)
+                        .collect(Collectors.groupingBy(TrainingType::getTrainingTypeId, Collectors.counting()));
+                assertEquals(50_000, steady.size());
+                assertTrue(steady.values().stream().allMatch(count -> count == 1));
+            }
+            churn.get();
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    void page_ShouldReturnEntitiesInIdOrderFromCursor() {
+        for (long id = 10; id >= 1; id--) {
+            store.put(id, new TrainingType(id, "Type" + id));
+        }
+        store.remove(4L);
+
+        List<TrainingType> first = store.page(-1, 3);
+        List<TrainingType> second = store.page(first.get(2).getTrainingTypeId(), 3);
+
+        assertEquals(List.of(1L, 2L, 3L), first.stream().map(TrainingType::getTrainingTypeId).toList());
+        assertEquals(List.of(5L, 6L, 7L), second.stream().map(TrainingType::getTrainingTypeId).toList());
+        assertTrue(store.page(10L, 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> store.page(-1, 0));
+    }
+
+    @Test
+    void page_ShouldNotShiftWhenEntitiesAreInsertedBeforeTheCursor() {
+        for (long id = 10; id <= 20; id++) {
+            store.put(id, new TrainingType(id, "Type" + id));
+        }
+        List<TrainingType> first = store.page(-1, 5);
+
+        store.put(1L, new TrainingType(1L, "Early"));
+        store.put(21L, new TrainingType(21L, "Late"));
+        List<TrainingType> rest = store.page(first.get(4).getTrainingTypeId(), 100);
+
+        assertEquals(List.of(15L, 16L, 17L, 18L, 19L, 20L, 21L),
+                rest.stream().map(TrainingType::getTrainingTypeId).toList());
+    }
+
+    @Test
+    void page_ShouldLeaveOutInsertsRejectedByAnIndex() {
+        store = new EntityStore<>(new UniqueIndex<>("name", TrainingType::getTrainingTypeName));
+        store.put(1L, new TrainingType(1L, "Yoga"));
+
+        assertThrows(DuplicateKeyException.class, () -> store.put(2L, new TrainingType(2L, "Yoga")));
+        assertThrows(DuplicateKeyException.class,
+                () -> store.putAll(Map.of(3L, new TrainingType(3L, "Yoga"))));
+
+        assertEquals(1, store.page(-1, 10).size());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Four threads creating ids: from one shared AtomicLong, as every create did before, versus from
+ * an {@link IdAllocator} handing out per-thread blocks of the given size (1 means the shared padded counter).
+ * The adjacent benchmark has each thread bump a different one of five unpadded counters declared side by side.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class IdAllocationBenchmark {
+
+    @Param({"1", "64"})
+    private int blockSize;
+
+    private final AtomicLong shared = new AtomicLong(1);
+    private final AtomicLong[] adjacent = new AtomicLong[5];
+    private IdAllocator allocator;
+
+    @Setup
+    public void setUp() {
+        allocator = new IdAllocator();
+        allocator.setBlockSize(blockSize);
+        for (int i = 0; i < adjacent.length; i++) {
+            adjacent[i] = new AtomicLong(1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Slot {
+
+        private static final AtomicLong NEXT = new AtomicLong();
+
+        final int index = (int) (NEXT.getAndIncrement() % 5);
+    }
+
+    @Benchmark
+    public long sharedAtomicLong() {
+        return shared.getAndIncrement();
+    }
+
+    @Benchmark
+    public long adjacentAtomicLongs(Slot slot) {
+        return adjacent[slot.index].getAndIncrement();
+    }
+
+    @Benchmark
+    public long allocator() {
+        return allocator.next();
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    private final IdAllocator ids = new IdAllocator();
+
+    @Test
+    void next_ShouldCountUpOneByOneByDefault() {
+        assertEquals(1L, ids.next());
+        assertEquals(2L, ids.next());
+        assertEquals(3L, ids.highWaterMark());
+    }
+
+    @Test
+    void next_ShouldTakeABlockPerThreadAndRaiseHighWaterMarkByBlocks() {
+        ids.setBlockSize(16);
+
+        assertEquals(1L, ids.next());
+        assertEquals(2L, ids.next());
+        assertEquals(17L, ids.highWaterMark());
+        assertEquals(17L, ids.reserve(4));
+        for (long expected = 3; expected <= 16; expected++) {
+            assertEquals(expected, ids.next());
+        }
+        assertEquals(21L, ids.next());
+        assertEquals(37L, ids.highWaterMark());
+    }
+
+    @Test
+    void next_ShouldNeverHandOutAnIdTwiceAcrossThreads() throws InterruptedException, ExecutionException {
+        ids.setBlockSize(8);
+        Set<Long> seen = new HashSet<>();
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> own = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        own.add(ids.next());
+                    }
+                    return own;
+                }));
+            }
+            for (Future<List<Long>> future : futures) {
+                seen.addAll(future.get());
+            }
+        }
+
+        assertEquals(40_000, seen.size());
+        assertTrue(seen.stream().allMatch(id -> id > 0 && id < ids.highWaterMark()));
+    }
+
+    @Test
+    void advanceTo_ShouldOnlyMoveCounterForward() {
+        ids.advanceTo(10);
+        ids.advanceTo(5);
+
+        assertEquals(10L, ids.next());
+    }
+}
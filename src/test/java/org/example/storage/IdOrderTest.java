@@ -0,0 +1,49 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdOrderTest {
+
+    private final IdOrder<Object> ids = new IdOrder<>();
+
+    @Test
+    void next_ShouldWalkIdsInOrderAcrossBlocks() {
+        ids.add(5_000_000_000L);
+        ids.add(4096);
+        ids.add(63);
+        ids.add(64);
+        ids.add(0);
+
+        assertEquals(0L, ids.next(-1));
+        assertEquals(63L, ids.next(0));
+        assertEquals(64L, ids.next(63));
+        assertEquals(4096L, ids.next(64));
+        assertEquals(5_000_000_000L, ids.next(4096));
+        assertEquals(-1L, ids.next(5_000_000_000L));
+        assertEquals(-1L, ids.next(Long.MAX_VALUE));
+    }
+
+    @Test
+    void next_ShouldSkipRemovedIdsAndEmptiedBlocks() {
+        for (long id = 1; id <= 10_000; id++) {
+            ids.add(id);
+        }
+        for (long id = 2; id < 9_999; id++) {
+            ids.remove(id);
+        }
+
+        assertEquals(1L, ids.next(-1));
+        assertEquals(9_999L, ids.next(1));
+        assertEquals(10_000L, ids.next(9_999));
+    }
+
+    @Test
+    void add_ShouldIgnoreNegativeIds() {
+        ids.add(-3);
+        ids.remove(-3);
+
+        assertEquals(-1L, ids.next(-10));
+    }
+}
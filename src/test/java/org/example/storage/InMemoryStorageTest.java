@@ -22,6 +22,49 @@ class InMemoryStorageTest {
         storage = new InMemoryStorage(List.of());
     }
 
+    @Test
+    void put_ShouldShareOneInstancePerTypeNameAcrossTypesAndTrainers() {
+        storage.put(new TrainingType(1L, new String("Yoga")));
+        storage.put(new Trainer(1L, new String("Yoga"), 1L));
+
+        String typeName = storage.getTrainingTypeStorage().get(1L).getTrainingTypeName();
+        assertSame(typeName, storage.getTrainerStorage().get(1L).getSpecialization());
+        assertSame(typeName, storage.internTrainingType(new String("Yoga")));
+    }
+
+    @Test
+    void put_ShouldKeepSpecializationsThatNameNoTypeOutOfTheDictionary() {
+        storage.put(new Trainer(1L, new String("Underwater weaving"), 1L));
+
+        String text = new String("Underwater weaving");
+        assertSame(text, storage.canonicalTrainingType(text));
+        assertFalse(storage.isTrainingType("Underwater weaving"));
+    }
+
+    @Test
+    void findTrainingIdsByType_ShouldMatchOnTypeCode() {
+        storage.put(new Training(1L, 1L, 1L, "Morning", "Yoga", 60, LocalDate.of(2024, 1, 1)));
+        storage.put(new Training(2L, 1L, 1L, "Evening", "Zumba", 45, LocalDate.of(2024, 1, 2)));
+
+        assertArrayEquals(new long[]{1L}, storage.findTrainingIdsByType("Yoga"));
+        assertEquals(0, storage.findTrainingIdsByType("Pilates").length);
+    }
+
+    @Test
+    void getTrainingTotals_ShouldFollowTrainingsRewrittenInPlace() {
+        Training training = new Training(1L, 1L, 2L, "Morning", "Yoga", 60, LocalDate.of(2024, 1, 1));
+        storage.put(training);
+
+        training.setTraineeId(3L);
+        training.setTrainingDuration(45);
+        storage.put(training);
+
+        assertEquals(TrainingTotals.NONE, storage.getTrainingTotals().forTrainee(1L));
+        assertEquals(new TrainingTotals(1, 45, LocalDate.of(2024, 1, 1)), storage.getTrainingTotals().forTrainee(3L));
+        storage.getTrainingStorage().remove(1L);
+        assertEquals(TrainingTotals.NONE, storage.getTrainingTotals().forTrainer(2L));
+    }
+
     @Test
     void getNextUserId_ShouldIncrementEachCall() {
         assertEquals(1L, storage.getNextUserId());
@@ -155,6 +198,8 @@ class InMemoryStorageTest {
 
     @Test
     void parseLine_ShouldParseTraining_WhenTraineeAndTrainerExist() {
+        // training type
+        invokeParseLine(storage, "1,Fitness");
         // user
         invokeParseLine(storage, "1,John,Doe,John.Doe,pass123,true");
         invokeParseLine(storage, "2,Jane,Doe,Jane.Doe,pass456,true");
@@ -167,6 +212,16 @@ class InMemoryStorageTest {
         assertEquals(1, storage.getTrainingStorage().size());
     }
 
+    @Test
+    void parseLine_ShouldSkipTraining_WhenTypeNotExists() {
+        invokeParseLine(storage, "1,John,Doe,John.Doe,pass123,true");
+        invokeParseLine(storage, "2,Jane,Doe,Jane.Doe,pass456,true");
+        invokeParseLine(storage, "1,1990-01-01,Address1,1");
+        invokeParseLine(storage, "1,Fitness,2");
+        invokeParseLine(storage, "1,1,1,Morning Workout,Fitness,60,2024-01-15");
+        assertTrue(storage.getTrainingStorage().isEmpty());
+    }
+
     @Test
     void parseLine_ShouldSkipTraining_WhenTraineeNotExists() {
         invokeParseLine(storage, "1,999,1,Morning Workout,Fitness,60,2024-01-15");
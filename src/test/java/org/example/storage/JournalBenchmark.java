@@ -0,0 +1,84 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable training writes per second through a journaled store, by writer count and group-commit window.
+ * Every operation returns only after its record is synced, so single-writer throughput is bound
+ * by the disk's sync latency and concurrent writers show what batching them into one sync buys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    @Param({"0", "200", "1000"})
+    private long commitWindowMicros;
+
+    private final AtomicLong ids = new AtomicLong();
+    private Path directory;
+    private InMemoryStorage storage;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        storage = new InMemoryStorage(List.of());
+        storage.openJournal(directory.resolve("storage.journal"), commitWindowMicros);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        storage.closeJournal();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object put_1thread() {
+        return put();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object put_16threads() {
+        return put();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object put_64threads() {
+        return put();
+    }
+
+    private Object put() {
+        long id = ids.incrementAndGet();
+        return storage.getTrainingStorage().put(id, new Training(id, id % 1000, id % 97,
+                "Morning Fitness Session", "Fitness", 60, LocalDate.of(2024, 1, 10)));
+    }
+}
@@ -0,0 +1,231 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path journalPath;
+    private InMemoryStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        journalPath = tempDir.resolve("storage.journal");
+        storage = new InMemoryStorage(List.of());
+        storage.openJournal(journalPath, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.closeJournal();
+    }
+
+    @Test
+    void openJournal_ShouldReplayPutsUpdatesAndRemoves() {
+        storage.getUserStorage().put(1L, new User(1L, "John", "Doe", "John.Doe", "pass", true));
+        storage.getUserStorage().put(2L, new User(2L, "Jane", "Smith", "Jane.Smith", "pass", true));
+        storage.getUserStorage().put(1L, new User(1L, "John", "Doe", "John.Doe1", "secret", false));
+        storage.getUserStorage().remove(2L);
+        storage.getTraineeStorage().put(5L, new Trainee(5L, LocalDate.of(1990, 1, 1), "address", 1L));
+
+        InMemoryStorage restarted = restart();
+
+        assertEquals(new User(1L, "John", "Doe", "John.Doe1", "secret", false), restarted.getUserStorage().get(1L));
+        assertFalse(restarted.getUserStorage().containsKey(2L));
+        assertEquals(1L, restarted.getUsernameIndex().find("John.Doe1"));
+        assertFalse(restarted.getUsernameIndex().contains("Jane.Smith"));
+        assertEquals(LocalDate.of(1990, 1, 1), restarted.getTraineeStorage().get(5L).getDateOfBirth());
+        assertEquals(6L, restarted.getNextTraineeId());
+    }
+
+    @Test
+    void openJournal_ShouldReplayOnlyRecordsAfterSnapshot() {
+        storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Cardio"));
+        Path snapshot = tempDir.resolve("storage.snapshot");
+        storage.saveSnapshot(snapshot);
+        storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Yoga"));
+        storage.closeJournal();
+
+        InMemoryStorage restarted = new InMemoryStorage(List.of());
+        restarted.restoreSnapshot(snapshot);
+        assertEquals("Cardio", restarted.getTrainingTypeStorage().get(1L).getTrainingTypeName());
+        restarted.openJournal(journalPath, 0);
+        restarted.closeJournal();
+
+        assertEquals("Yoga", restarted.getTrainingTypeStorage().get(1L).getTrainingTypeName());
+        assertEquals(restarted.journalSequence(), storage.journalSequence());
+    }
+
+    @Test
+    void saveSnapshot_ShouldArchiveAndDropCoveredJournalRecords() throws IOException {
+        storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Cardio"));
+        Path snapshot = tempDir.resolve("storage.snapshot");
+        storage.saveSnapshot(snapshot);
+        long emptySize = Files.size(journalPath);
+        storage.getTrainingTypeStorage().put(2L, new TrainingType(2L, "Yoga"));
+        storage.closeJournal();
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of("storage.journal", "storage.snapshot"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        assertTrue(Files.size(journalPath) > emptySize);
+        InMemoryStorage restarted = new InMemoryStorage(List.of());
+        restarted.restoreSnapshot(snapshot);
+        restarted.openJournal(journalPath, 0);
+        restarted.closeJournal();
+        assertEquals("Cardio", restarted.getTrainingTypeStorage().get(1L).getTrainingTypeName());
+        assertEquals("Yoga", restarted.getTrainingTypeStorage().get(2L).getTrainingTypeName());
+    }
+
+    @Test
+    void openJournal_ShouldReplayArchivedSegmentsFirst() throws IOException {
+        storage.closeJournal();
+        Path path = tempDir.resolve("rotated.journal");
+        try (Journal journal = Journal.open(path, 0, 0, new RecordingReplay())) {
+            journal.awaitDurable(journal.appendPut(new TrainingType(1L, "Cardio")));
+            assertEquals(1L, journal.rotate());
+            journal.awaitDurable(journal.appendPut(new TrainingType(1L, "Yoga")));
+        }
+
+        RecordingReplay replay = new RecordingReplay();
+        try (Journal journal = Journal.open(path, 0, 0, replay)) {
+            assertEquals(2L, journal.lastSequence());
+        }
+
+        assertTrue(Files.exists(tempDir.resolve("rotated.journal.1")));
+        assertEquals(List.of(new TrainingType(1L, "Cardio"), new TrainingType(1L, "Yoga")), replay.records);
+    }
+
+    @Test
+    void openJournal_ShouldCutOffTornTailAndKeepAppending() throws IOException {
+        storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Cardio"));
+        storage.closeJournal();
+        long validSize = Files.size(journalPath);
+        Files.write(journalPath, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        InMemoryStorage restarted = new InMemoryStorage(List.of());
+        restarted.openJournal(journalPath, 0);
+        assertEquals(validSize, Files.size(journalPath));
+        restarted.getTrainingTypeStorage().put(2L, new TrainingType(2L, "Yoga"));
+        restarted.closeJournal();
+
+        InMemoryStorage again = restart();
+        assertEquals("Cardio", again.getTrainingTypeStorage().get(1L).getTrainingTypeName());
+        assertEquals("Yoga", again.getTrainingTypeStorage().get(2L).getTrainingTypeName());
+    }
+
+    @Test
+    void openJournal_ShouldStopReplayAtCorruptRecord() throws IOException {
+        storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Cardio"));
+        long firstRecordEnd = Files.size(journalPath);
+        storage.getTrainingTypeStorage().put(2L, new TrainingType(2L, "Yoga"));
+        storage.closeJournal();
+        byte[] bytes = Files.readAllBytes(journalPath);
+        bytes[bytes.length - 6] ^= 0x7F;
+        Files.write(journalPath, bytes);
+
+        InMemoryStorage restarted = restart();
+
+        assertTrue(restarted.getTrainingTypeStorage().containsKey(1L));
+        assertFalse(restarted.getTrainingTypeStorage().containsKey(2L));
+        assertEquals(firstRecordEnd, Files.size(journalPath));
+    }
+
+    @Test
+    void openJournal_ShouldRejectOtherFiles() throws IOException {
+        storage.closeJournal();
+        Path other = tempDir.resolve("Training.txt");
+        Files.writeString(other, "1,1,1,Morning,Fitness,60,2024-01-10\n");
+
+        InMemoryStorage restarted = new InMemoryStorage(List.of());
+        assertThrows(IllegalStateException.class, () -> restarted.openJournal(other, 0));
+    }
+
+    @Test
+    void concurrentWriters_ShouldAllBeDurable() throws Exception {
+        storage.closeJournal();
+        storage.openJournal(journalPath, 1_000);
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = (long) t * perThread + 1;
+                futures.add(executor.submit(() -> {
+                    for (long id = base; id < base + perThread; id++) {
+                        storage.getTrainingStorage().put(id,
+                                new Training(id, 1L, 1L, "Session", "Cardio", 30, LocalDate.of(2024, 1, 1)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        InMemoryStorage restarted = restart();
+
+        assertEquals(threads * perThread, restarted.getTrainingStorage().size());
+        assertEquals(threads * perThread, restarted.journalSequence());
+    }
+
+    @Test
+    void closeJournal_ShouldDetachJournalFromStores() throws IOException {
+        storage.closeJournal();
+        long size = Files.size(journalPath);
+
+        storage.getTrainingTypeStorage().put(1L, new TrainingType(1L, "Cardio"));
+
+        assertEquals(size, Files.size(journalPath));
+    }
+
+    private static class RecordingReplay implements Journal.Replay {
+
+        private final List<Object> records = new ArrayList<>();
+
+        @Override
+        public void put(Object record) {
+            records.add(record);
+        }
+
+        @Override
+        public void remove(SeedKind kind, long id) {
+            records.add(kind + " " + id);
+        }
+    }
+
+    private InMemoryStorage restart() {
+        storage.closeJournal();
+        InMemoryStorage restarted = new InMemoryStorage(List.of());
+        restarted.openJournal(journalPath, 0);
+        restarted.closeJournal();
+        return restarted;
+    }
+}
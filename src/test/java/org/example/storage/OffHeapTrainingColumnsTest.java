@@ -0,0 +1,38 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the {@link TrainingColumnsTest} cases with rows kept in direct buffers.
+ */
+class OffHeapTrainingColumnsTest extends TrainingColumnsTest {
+
+    @Override
+    TrainingColumns newColumns(StringDictionary types) {
+        TrainingColumns columns = new TrainingColumns(types);
+        columns.setOffHeap(true);
+        return columns;
+    }
+
+    @Test
+    void get_ShouldDecodeRowsAcrossChunks() {
+        TrainingColumns columns = newColumns(new StringDictionary());
+        EntityStore<Training> store = new EntityStore<>(new VersionClock(), columns);
+        int trainings = 40_000;
+        for (long id = 1; id <= trainings; id++) {
+            store.put(id, new Training(id, id * 2, id * 3, "Session " + id % 7, "Type" + id % 5,
+                    (int) id % 120, LocalDate.of(2024, 1, 1).plusDays(id % 365)));
+        }
+
+        for (long id = 1; id <= trainings; id += 997) {
+            assertEquals(new Training(id, id * 2, id * 3, "Session " + id % 7, "Type" + id % 5,
+                    (int) id % 120, LocalDate.of(2024, 1, 1).plusDays(id % 365)), store.get(id));
+        }
+        assertEquals(trainings, columns.rowCount());
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training rows kept in heap arrays versus in direct buffers, under G1. Setup prints the heap retained per
+ * training and the G1 time spent on a full collection and on young collections while garbage is churned,
+ * with the trainings live; the benchmarks measure a by-id read, which decodes a row, and a full-table scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=4g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class OffHeapTrainingsBenchmark {
+
+    @Param({"false", "true"})
+    private boolean offHeap;
+
+    @Param({"2000000"})
+    private int trainings;
+
+    private TrainingColumns columns;
+    private EntityStore<Training> store;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        columns = new TrainingColumns();
+        columns.setOffHeap(offHeap);
+        store = new EntityStore<>(new VersionClock(), columns);
+        for (long id = 1; id <= trainings; id++) {
+            store.put(id, new Training(id, id % 10_000 + 1, id % 97 + 1, "Session " + id % 50,
+                    "Type" + id % 12, (int) (id % 120) + 15, LocalDate.of(2024, 1, 1).plusDays(id % 700)));
+        }
+        long retained = usedHeap() - before;
+
+        long fullStart = System.nanoTime();
+        System.gc();
+        long fullMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - fullStart);
+        long[] young = youngCollections();
+        Object[] churn = new Object[4096];
+        for (int i = 0; i < 20_000_000; i++) {
+            churn[i & (churn.length - 1)] = new byte[256];
+        }
+        long[] after = youngCollections();
+        long count = after[0] - young[0];
+        System.out.printf("%nRetained heap per training %d bytes; full GC %d ms; %d young GCs, %.2f ms each%n",
+                retained / trainings, fullMillis, count, count == 0 ? 0.0 : (double) (after[1] - young[1]) / count);
+    }
+
+    @Benchmark
+    public Training findById() {
+        return store.get(ThreadLocalRandom.current().nextLong(1, trainings + 1));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Long> scan() {
+        return columns.totalDurationByType();
+    }
+
+    private static long[] youngCollections() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc.getName().contains("Young")) {
+                return new long[]{gc.getCollectionCount(), gc.getCollectionTime()};
+            }
+        }
+        return new long[2];
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
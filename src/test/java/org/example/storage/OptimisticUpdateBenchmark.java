@@ -0,0 +1,96 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-modify-write updates of trainees from four threads, either optimistic, re-reading and retrying when
+ * {@link EntityStore#replaceIf} finds the version moved, or pessimistic, holding a per-trainee lock from
+ * the read to the write. With one hot trainee every update contends; with many they rarely do.
+ * The conflicts counter reports how many optimistic attempts had to be retried.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class OptimisticUpdateBenchmark {
+
+    @Param({"1", "1024"})
+    private int trainees;
+
+    private EntityStore<Trainee> store;
+    private ReentrantLock[] locks;
+
+    @Setup
+    public void setUp() {
+        store = new EntityStore<>();
+        locks = new ReentrantLock[trainees];
+        for (int id = 0; id < trainees; id++) {
+            store.put(id, new Trainee((long) id, null, "address", (long) id));
+            locks[id] = new ReentrantLock();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public Trainee optimistic(Conflicts counter) {
+        long id = ThreadLocalRandom.current().nextInt(trainees);
+        while (true) {
+            Trainee current = store.get(id);
+            long version = current.getVersion();
+            Trainee next = new Trainee(current.getTraineeId(), current.getDateOfBirth(), "moved",
+                    current.getUserId(), version + 1);
+            if (store.replaceIf(id, t -> t.getVersion() == version, next)) {
+                return next;
+            }
+            counter.conflicts++;
+        }
+    }
+
+    @Benchmark
+    public Trainee pessimistic() {
+        int id = ThreadLocalRandom.current().nextInt(trainees);
+        ReentrantLock lock = locks[id];
+        lock.lock();
+        try {
+            Trainee current = store.get(id);
+            Trainee next = new Trainee(current.getTraineeId(), current.getDateOfBirth(), "moved",
+                    current.getUserId(), current.getVersion() + 1);
+            store.put(id, next);
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedFileReaderTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void readChunks_ShouldSplitMappedFileOnLineBoundaries() throws IOException {
+        String content = lines(100_000);
+        Path file = tempDir.resolve("Training.txt");
+        Files.writeString(file, content);
+
+        List<ByteBuffer> chunks = read(new FileSystemResource(file));
+
+        assertTrue(chunks.size() > 1);
+        assertChunksAreLineAligned(chunks);
+        assertEquals(content, join(chunks));
+    }
+
+    @Test
+    void readChunks_ShouldStreamNonFileResources() throws IOException {
+        String content = lines(100_000);
+
+        List<ByteBuffer> chunks = read(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(chunks.size() > 1);
+        assertChunksAreLineAligned(chunks);
+        assertEquals(content, join(chunks));
+    }
+
+    @Test
+    void readChunks_ShouldKeepLinesLongerThanOneChunk() throws IOException {
+        String longLine = "x".repeat(SeedFileReader.CHUNK_BYTES + 10);
+        String content = "1,Fitness\n" + longLine + "\n2,Yoga";
+
+        List<ByteBuffer> chunks = read(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(content, join(chunks));
+    }
+
+    @Test
+    void readChunks_ShouldProduceNothingForEmptyFile() throws IOException {
+        Path file = tempDir.resolve("Empty.txt");
+        Files.createFile(file);
+
+        assertTrue(read(new FileSystemResource(file)).isEmpty());
+    }
+
+    private List<ByteBuffer> read(Resource resource) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        SeedFileReader.readChunks(resource, chunks::add);
+        return chunks;
+    }
+
+    private void assertChunksAreLineAligned(List<ByteBuffer> chunks) {
+        for (ByteBuffer chunk : chunks.subList(0, chunks.size() - 1)) {
+            assertEquals('\n', chunk.get(chunk.limit() - 1));
+        }
+    }
+
+    private String join(List<ByteBuffer> chunks) {
+        return chunks.stream()
+                .map(chunk -> StandardCharsets.UTF_8.decode(chunk).toString())
+                .collect(Collectors.joining());
+    }
+
+    private String lines(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> i + ",1,1,Morning Workout,Fitness,60,2024-01-15\n")
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Full InMemoryStorage start-up on generated seed files, memory-mapped versus the stream fallback.
+ * Run with e.g. {@code -p trainings=10000000} for the 10M-row case; it needs a few GB of heap.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+@State(Scope.Benchmark)
+public class SeedLoadBenchmark {
+
+    private static final int USERS = 20_000;
+
+    @Param({"1000000"})
+    private int trainings;
+
+    private Path directory;
+    private List<Path> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("seed-benchmark");
+        files = List.of(
+                write("TrainingType.txt", 5, i -> i + ",Type" + i),
+                write("User.txt", USERS, i -> i + ",First" + i + ",Last" + i + ",First.Last" + i + ",pass" + i + ",true"),
+                write("Trainee.txt", USERS / 2, i -> i + ",1990-05-15,123 Main St New York NY 10001," + i),
+                write("Trainer.txt", USERS / 2, i -> i + ",Fitness," + (USERS / 2 + i)),
+                write("Training.txt", trainings, i -> i + "," + (i % (USERS / 2) + 1) + "," + (i % 97 + 1)
+                        + ",Morning Fitness Session,Fitness,60,2024-01-" + (i % 18 + 10)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public InMemoryStorage mapped() {
+        List<Resource> resources = new ArrayList<>();
+        for (Path file : files) {
+            resources.add(new FileSystemResource(file));
+        }
+        return load(resources);
+    }
+
+    @Benchmark
+    public InMemoryStorage streamed() throws IOException {
+        List<Resource> resources = new ArrayList<>();
+        for (Path file : files) {
+            resources.add(new InputStreamResource(Files.newInputStream(file)));
+        }
+        return load(resources);
+    }
+
+    private InMemoryStorage load(List<Resource> resources) {
+        InMemoryStorage storage = new InMemoryStorage(resources);
+        storage.init();
+        return storage;
+    }
+
+    private Path write(String name, int rows, IntFunction<String> line) throws IOException {
+        Path file = directory.resolve(name);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 1; i <= rows; i++) {
+                writer.write(line.apply(i));
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedLoaderTest {
+
+    private InMemoryStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage(List.of());
+    }
+
+    @Test
+    void load_ShouldApplyRecordsInDependencyOrder() {
+        List<Resource> resources = List.of(
+                resource("1,1,1,Morning Workout,Fitness,60,2024-01-15"),
+                resource("1,Fitness,2"),
+                resource("1,1990-01-01,Address1,1"),
+                resource("1,John,Doe,John.Doe,pass123,true\n2,Jane,Doe,Jane.Doe,pass456,true"),
+                resource("1,Fitness"));
+
+        new SeedLoader(storage, 4).load(resources);
+
+        assertEquals(2, storage.getUserStorage().size());
+        assertEquals(1, storage.getTraineeStorage().size());
+        assertEquals(1, storage.getTrainerStorage().size());
+        assertEquals(1, storage.getTrainingStorage().size());
+        assertEquals(1, storage.getTrainingTypeStorage().size());
+        assertEquals(3L, storage.getNextUserId());
+    }
+
+    @Test
+    void load_ShouldParseLargeFilesInChunks() {
+        String users = IntStream.rangeClosed(1, 50_000)
+                .mapToObj(i -> i + ",First" + i + ",Last" + i + ",First.Last" + i + ",pass" + i + ",true")
+                .collect(Collectors.joining("\n"));
+
+        new SeedLoader(storage, 4).load(List.of(resource(users)));
+
+        assertEquals(50_000, storage.getUserStorage().size());
+        assertEquals("First.Last50000", storage.getUserStorage().get(50_000L).getUsername());
+    }
+
+    @Test
+    void load_ShouldThrowWhenResourceMissing() {
+        SeedLoader loader = new SeedLoader(storage, 2);
+        List<Resource> resources = List.of(new ClassPathResource("nonexistent/file.txt"));
+
+        assertThrows(IllegalStateException.class, () -> loader.load(resources));
+    }
+
+    private Resource resource(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
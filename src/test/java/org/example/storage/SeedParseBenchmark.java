@@ -0,0 +1,76 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one 1 MB chunk of Training rows: the String.split based parser this replaced
+ * against {@link CsvTokenizer}. Run with {@code -prof gc} to compare allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeedParseBenchmark {
+
+    private InMemoryStorage storage;
+    private ByteBuffer chunk;
+
+    @Setup
+    public void setUp() {
+        storage = new InMemoryStorage(List.of());
+        StringBuilder rows = new StringBuilder();
+        for (int i = 1; rows.length() < SeedFileReader.CHUNK_BYTES - 100; i++) {
+            rows.append(i).append(',').append(i % 5000).append(',').append(i % 97)
+                    .append(",Morning Fitness Session,Fitness,60,2024-01-").append(i % 18 + 10).append('\n');
+        }
+        chunk = ByteBuffer.wrap(rows.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void splitParser(Blackhole blackhole) {
+        String text = StandardCharsets.UTF_8.decode(chunk.duplicate()).toString();
+        for (String line : text.split("\n")) {
+            String[] parts = line.trim().split(",");
+            blackhole.consume(new Training(
+                    Long.parseLong(parts[0].trim()),
+                    Long.parseLong(parts[1].trim()),
+                    Long.parseLong(parts[2].trim()),
+                    parts[3].trim(),
+                    parts[4].trim(),
+                    Integer.parseInt(parts[5].trim()),
+                    LocalDate.parse(parts[6].trim())));
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        int lineStart = 0;
+        int limit = chunk.limit();
+        for (int i = 0; i < limit; i++) {
+            if (chunk.get(i) == '\n') {
+                blackhole.consume(storage.parseRecord(tokenizer.reset(chunk, lineStart, i)));
+                lineStart = i + 1;
+            }
+        }
+    }
+}
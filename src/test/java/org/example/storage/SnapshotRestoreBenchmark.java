@@ -0,0 +1,141 @@
+package org.example.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Start-up from seed files versus from a binary snapshot of the same data.
+ * The {@code *Decode}/{@code *Parse} pair isolates turning bytes into entities;
+ * the {@code *Load}/{@code *Restore} pair includes filling the stores and their indexes.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx6g")
+@State(Scope.Benchmark)
+public class SnapshotRestoreBenchmark {
+
+    private static final int USERS = 20_000;
+
+    @Param({"1000000"})
+    private int trainings;
+
+    private Path directory;
+    private List<Path> files;
+    private Path snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot-benchmark");
+        files = List.of(
+                write("TrainingType.txt", 5, i -> i + ",Type" + i),
+                write("User.txt", USERS, i -> i + ",First" + i + ",Last" + i + ",First.Last" + i + ",pass" + i + ",true"),
+                write("Trainee.txt", USERS / 2, i -> i + ",1990-05-15,123 Main St New York NY 10001," + i),
+                write("Trainer.txt", USERS / 2, i -> i + ",Fitness," + (USERS / 2 + i)),
+                write("Training.txt", trainings, i -> i + "," + (i % (USERS / 2) + 1) + "," + (i % 97 + 1)
+                        + ",Morning Fitness Session,Fitness,60,2024-01-" + (i % 18 + 10)));
+        snapshot = directory.resolve("storage.snapshot");
+        csvLoad().saveSnapshot(snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public InMemoryStorage csvLoad() {
+        List<Resource> resources = new ArrayList<>();
+        for (Path file : files) {
+            resources.add(new FileSystemResource(file));
+        }
+        InMemoryStorage storage = new InMemoryStorage(resources);
+        storage.init();
+        return storage;
+    }
+
+    @Benchmark
+    public InMemoryStorage snapshotRestore() {
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        storage.restoreSnapshot(snapshot);
+        return storage;
+    }
+
+    @Benchmark
+    public void csvParse(Blackhole blackhole) throws IOException {
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        CsvTokenizer tokenizer = new CsvTokenizer();
+        for (Path file : files) {
+            SeedFileReader.readChunks(new FileSystemResource(file), chunk -> {
+                int lineStart = 0;
+                for (int i = 0; i < chunk.limit(); i++) {
+                    if (chunk.get(i) == '\n') {
+                        blackhole.consume(storage.parseRecord(tokenizer.reset(chunk, lineStart, i)));
+                        lineStart = i + 1;
+                    }
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void snapshotDecode(Blackhole blackhole) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            BinaryInput file = new BinaryInput(channel, StorageSnapshot.SEGMENT_BYTES);
+            file.readInt();
+            file.readInt();
+            file.readLong();
+            int kinds = file.readInt();
+            for (int i = 0; i < kinds; i++) {
+                file.readLong();
+            }
+            int length;
+            while ((length = file.readInt()) > 0) {
+                byte[] bytes = new byte[length];
+                file.readBytes(bytes, length);
+                BinaryInput segment = new BinaryInput(ByteBuffer.wrap(bytes));
+                while (segment.hasMore()) {
+                    blackhole.consume(EntityCodec.read(segment));
+                }
+            }
+        }
+    }
+
+    private Path write(String name, int rows, IntFunction<String> line) throws IOException {
+        Path file = directory.resolve(name);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 1; i <= rows; i++) {
+                writer.write(line.apply(i));
+                writer.newLine();
+            }
+        }
+        return file;
+    }
+}
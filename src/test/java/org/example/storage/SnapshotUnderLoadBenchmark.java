@@ -0,0 +1,101 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of training creates and updates while point-in-time snapshots of the whole storage are written
+ * back to back in the background, against the same writes with no snapshot running.
+ * The tail percentiles show the cost of pausing writers while a view opens and of keeping old versions meanwhile.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SnapshotUnderLoadBenchmark {
+
+    private static final int TRAININGS = 500_000;
+
+    @Param({"false", "true"})
+    private boolean snapshotting;
+
+    private final AtomicLong ids = new AtomicLong(TRAININGS);
+    private Path directory;
+    private InMemoryStorage storage;
+    private Thread snapshotter;
+    private volatile boolean running;
+    private final AtomicLong snapshots = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot-load-benchmark");
+        storage = new InMemoryStorage(List.of());
+        for (long id = 1; id <= TRAININGS; id++) {
+            storage.put(training(id));
+        }
+        running = true;
+        if (snapshotting) {
+            Path snapshot = directory.resolve("storage.snapshot");
+            snapshotter = new Thread(() -> {
+                while (running) {
+                    storage.saveSnapshot(snapshot);
+                    snapshots.incrementAndGet();
+                }
+            }, "snapshotter");
+            snapshotter.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        running = false;
+        if (snapshotter != null) {
+            snapshotter.join();
+            System.out.println("Snapshots written: " + snapshots.get());
+        }
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object create() {
+        long id = ids.incrementAndGet();
+        return storage.getTrainingStorage().put(id, training(id));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object update() {
+        long id = ThreadLocalRandom.current().nextLong(1, TRAININGS + 1);
+        return storage.getTrainingStorage().put(id, training(id));
+    }
+
+    private static Training training(long id) {
+        return new Training(id, id % 1000, id % 97, "Morning Fitness Session", "Fitness", 60,
+                LocalDate.of(2024, 1, (int) (id % 28) + 1));
+    }
+}
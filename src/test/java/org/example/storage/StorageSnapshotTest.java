@@ -0,0 +1,143 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.example.entity.Trainer;
+import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.example.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageSnapshotTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private InMemoryStorage storage;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage(List.of());
+        snapshot = tempDir.resolve("storage.snapshot");
+    }
+
+    @Test
+    void restoreSnapshot_ShouldRestoreEntitiesIndexesAndCounters() {
+        storage.put(new TrainingType(1L, "Fitness"));
+        storage.put(new User(1L, "John", "Doe", "John.Doe", "pass", true));
+        storage.put(new User(2L, "Jane", "Smith", "Jane.Smith", "pass2", false));
+        storage.put(new Trainee(1L, LocalDate.of(1990, 1, 1), "address", 1L, 3));
+        storage.put(new Trainer(1L, "Fitness", 2L, 5));
+        storage.put(new Training(7L, 1L, 1L, "Morning", "Fitness", 60, LocalDate.of(2024, 1, 10)));
+
+        storage.saveSnapshot(snapshot);
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        restored.restoreSnapshot(snapshot);
+
+        assertEquals(storage.getUserStorage().get(2L), restored.getUserStorage().get(2L));
+        assertEquals(storage.getTraineeStorage().get(1L), restored.getTraineeStorage().get(1L));
+        assertEquals(storage.getTrainerStorage().get(1L), restored.getTrainerStorage().get(1L));
+        assertEquals(storage.getTrainingStorage().get(7L), restored.getTrainingStorage().get(7L));
+        assertEquals(storage.getTrainingTypeStorage().get(1L), restored.getTrainingTypeStorage().get(1L));
+        assertEquals(1L, restored.getUsernameIndex().find("John.Doe"));
+        assertEquals(Set.of(7L), restored.getTraineeTrainingIndex().find(1L));
+        assertEquals(3L, restored.getNextUserId());
+        assertEquals(8L, restored.getNextTrainingId());
+    }
+
+    @Test
+    void restoreSnapshot_ShouldKeepCountersAheadOfDeletedIds() {
+        storage.getNextUserId();
+        storage.getNextUserId();
+        storage.getNextUserId();
+
+        storage.saveSnapshot(snapshot);
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        restored.restoreSnapshot(snapshot);
+
+        assertEquals(4L, restored.getNextUserId());
+        assertTrue(restored.getUserStorage().isEmpty());
+    }
+
+    @Test
+    void restoreSnapshot_ShouldResumeAboveIdsHandedOutInBlocks() {
+        storage.setIdBlockSize(64);
+        storage.getNextTrainingId();
+
+        storage.saveSnapshot(snapshot);
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        restored.restoreSnapshot(snapshot);
+
+        assertEquals(65L, restored.getNextTrainingId());
+    }
+
+    @Test
+    void restoreSnapshot_ShouldKeepNullFieldsAndDanglingReferences() {
+        storage.put(new Trainee(1L, null, null, 42L));
+        storage.put(new Training(1L, 1L, 99L, null, null, 0, null));
+
+        storage.saveSnapshot(snapshot);
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        restored.restoreSnapshot(snapshot);
+
+        assertEquals(new Trainee(1L, null, null, 42L), restored.getTraineeStorage().get(1L));
+        assertEquals(new Training(1L, 1L, 99L, null, null, 0, null), restored.getTrainingStorage().get(1L));
+    }
+
+    @Test
+    void restoreSnapshot_ShouldSpanManySegments() {
+        for (long id = 1; id <= 50_000; id++) {
+            storage.put(new Training(id, id % 100, id % 7, "Session " + id, "Fitness", 45, LocalDate.of(2024, 3, 1)));
+        }
+
+        storage.saveSnapshot(snapshot);
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        restored.restoreSnapshot(snapshot);
+
+        assertEquals(50_000, restored.getTrainingStorage().size());
+        assertEquals(storage.getTrainingStorage().get(31_337L), restored.getTrainingStorage().get(31_337L));
+    }
+
+    @Test
+    void saveSnapshot_ShouldReplaceExistingFileWithoutLeavingTemporaryFile() throws IOException {
+        Files.writeString(snapshot, "stale");
+        storage.put(new TrainingType(1L, "Yoga"));
+
+        storage.saveSnapshot(snapshot);
+
+        assertEquals(List.of(snapshot), Files.list(tempDir).toList());
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        restored.restoreSnapshot(snapshot);
+        assertEquals("Yoga", restored.getTrainingTypeStorage().get(1L).getTrainingTypeName());
+    }
+
+    @Test
+    void restoreSnapshot_ShouldRejectOtherFiles() throws IOException {
+        Files.writeString(snapshot, "1,Fitness\n");
+
+        assertThrows(IllegalStateException.class, () -> storage.restoreSnapshot(snapshot));
+    }
+
+    @Test
+    void restoreSnapshot_ShouldRejectTruncatedFiles() throws IOException {
+        storage.put(new User(1L, "John", "Doe", "John.Doe", "pass", true));
+        storage.saveSnapshot(snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 10));
+
+        InMemoryStorage restored = new InMemoryStorage(List.of());
+        assertThrows(IllegalStateException.class, () -> restored.restoreSnapshot(snapshot));
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.storage;
+
+import org.example.entity.Trainee;
+import org.example.entity.Trainer;
+import org.example.entity.Training;
+import org.example.entity.TrainingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageViewTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private InMemoryStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new InMemoryStorage(List.of());
+        storage.put(new TrainingType(1L, "Cardio"));
+        storage.put(new TrainingType(2L, "Yoga"));
+    }
+
+    @Test
+    void openView_ShouldNotSeeLaterCreatesUpdatesAndRemoves() {
+        try (StorageView view = storage.openView()) {
+            storage.put(new TrainingType(1L, "Strength"));
+            storage.getTrainingTypeStorage().remove(2L);
+            storage.put(new TrainingType(3L, "Pilates"));
+
+            assertEquals("Cardio", view.<TrainingType>get(SeedKind.TRAINING_TYPE, 1L).getTrainingTypeName());
+            assertEquals("Yoga", view.<TrainingType>get(SeedKind.TRAINING_TYPE, 2L).getTrainingTypeName());
+            assertNull(view.get(SeedKind.TRAINING_TYPE, 3L));
+            assertEquals(Set.of("Cardio", "Yoga"), names(view));
+            assertEquals(3L, view.idCounter(SeedKind.TRAINING_TYPE));
+        }
+
+        assertEquals("Strength", storage.getTrainingTypeStorage().get(1L).getTrainingTypeName());
+        assertFalse(storage.getTrainingTypeStorage().containsKey(2L));
+        assertEquals(2, storage.getTrainingTypeStorage().size());
+    }
+
+    @Test
+    void openView_ShouldSeeItsOwnVersionWhenOverlapping() {
+        StorageView first = storage.openView();
+        storage.put(new TrainingType(1L, "Strength"));
+        StorageView second = storage.openView();
+        storage.put(new TrainingType(1L, "Pilates"));
+        storage.getTrainingTypeStorage().remove(2L);
+
+        first.close();
+
+        assertEquals("Strength", second.<TrainingType>get(SeedKind.TRAINING_TYPE, 1L).getTrainingTypeName());
+        assertEquals(Set.of("Strength", "Yoga"), names(second));
+        second.close();
+        try (StorageView third = storage.openView()) {
+            assertEquals(Set.of("Pilates"), names(third));
+        }
+    }
+
+    @Test
+    void close_ShouldLetStoreForgetRemovedEntries() {
+        StorageView view = storage.openView();
+        storage.getTrainingTypeStorage().remove(2L);
+        storage.getTrainingTypeStorage().put(2L, new TrainingType(2L, "Stretching"));
+        storage.getTrainingTypeStorage().remove(2L);
+        view.close();
+        view.close();
+
+        assertFalse(storage.getTrainingTypeStorage().containsKey(2L));
+        assertEquals(List.of("Cardio"), storage.getTrainingTypeStorage().values().stream()
+                .map(TrainingType::getTrainingTypeName).toList());
+    }
+
+    @Test
+    void saveSnapshot_ShouldBePointInTimeWhileWritesContinue() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (long id = 1; running.get(); id++) {
+                storage.put(new Training(id, 1L, 1L, "Session", "Cardio", 30, LocalDate.of(2024, 1, 1)));
+            }
+        });
+        writer.start();
+        try {
+            while (storage.getTrainingStorage().size() < 1_000) {
+                Thread.onSpinWait();
+            }
+            Path snapshot = tempDir.resolve("storage.snapshot");
+            storage.saveSnapshot(snapshot);
+
+            InMemoryStorage restored = new InMemoryStorage(List.of());
+            restored.restoreSnapshot(snapshot);
+            int count = restored.getTrainingStorage().size();
+            assertTrue(count >= 1_000);
+            for (long id = 1; id <= count; id++) {
+                assertTrue(restored.getTrainingStorage().containsKey(id), "missing training " + id);
+            }
+            assertTrue(restored.getNextTrainingId() > count);
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    void storeReads_ShouldStayConsistentAcrossStoresWhileWritesContinue() throws Exception {
+        storage.put(new Trainer(1L, "0", 1L));
+        storage.put(new Trainee(1L, null, "0", 2L));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int generation = 1; running.get(); generation++) {
+                storage.put(new Trainer(1L, String.valueOf(generation), 1L));
+                storage.put(new Trainee(1L, null, String.valueOf(generation), 2L));
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                try (StorageView view = storage.openView()) {
+                    int trainee = Integer.parseInt(storage.getTraineeStorage().get(1L, view).getAddress());
+                    int trainer = Integer.parseInt(storage.getTrainerStorage().get(1L, view).getSpecialization());
+                    assertTrue(trainer == trainee || trainer == trainee + 1,
+                            "trainer " + trainer + " with trainee " + trainee);
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    void storeReads_ShouldBeRejectedOnceViewIsClosed() {
+        StorageView view = storage.openView();
+        assertEquals(2, storage.getTrainingTypeStorage().values(view).count());
+        view.close();
+
+        assertThrows(IllegalStateException.class, () -> storage.getTrainingTypeStorage().get(1L, view));
+        assertThrows(IllegalStateException.class, () -> storage.getTrainingTypeStorage().values(view));
+    }
+
+    private static Set<String> names(StorageView view) {
+        return view.<TrainingType>values(SeedKind.TRAINING_TYPE)
+                .map(TrainingType::getTrainingTypeName)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-table aggregation over trainings kept as objects versus kept in {@link TrainingColumns},
+ * with the heap each layout retains per training printed at setup. Both stores carry no indexes,
+ * so the footprint difference is the layout alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx6g", "-XX:+UseSerialGC"})
+@State(Scope.Benchmark)
+public class TrainingColumnsBenchmark {
+
+    @Param({"1000000"})
+    private int trainings;
+
+    private EntityStore<Training> objects;
+    private TrainingColumns columns;
+    private EntityStore<Training> columnStore;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        objects = new EntityStore<>();
+        fill(objects);
+        long afterObjects = usedHeap();
+        columns = new TrainingColumns();
+        columnStore = new EntityStore<>(new VersionClock(), columns);
+        fill(columnStore);
+        long afterColumns = usedHeap();
+        System.out.printf("%nRetained bytes per training: objects %d, columns %d%n",
+                (afterObjects - before) / trainings, (afterColumns - afterObjects) / trainings);
+    }
+
+    @Benchmark
+    public Map<String, Long> objectScan() {
+        Map<String, Long> totals = new HashMap<>();
+        for (Training training : objects.values()) {
+            totals.merge(training.getTrainingType(), (long) training.getTrainingDuration(), Long::sum);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, Long> columnScan() {
+        return columns.totalDurationByType();
+    }
+
+    private void fill(EntityStore<Training> store) {
+        for (long id = 1; id <= trainings; id++) {
+            // distinct string instances per row, as parsing seed lines produces
+            store.put(id, new Training(id, id % 10_000 + 1, id % 97 + 1,
+                    new String("Morning Fitness Session " + id % 50), new String("Type" + id % 12),
+                    (int) (id % 120) + 15, LocalDate.of(2024, 1, 1).plusDays(id % 700)));
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
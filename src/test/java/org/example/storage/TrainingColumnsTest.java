@@ -0,0 +1,181 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingColumnsTest {
+
+    private TrainingColumns columns;
+    private EntityStore<Training> store;
+
+    @BeforeEach
+    void setUp() {
+        columns = newColumns(new StringDictionary());
+        store = new EntityStore<>(new VersionClock(), columns);
+    }
+
+    TrainingColumns newColumns(StringDictionary types) {
+        return new TrainingColumns(types);
+    }
+
+    @Test
+    void get_ShouldReturnEqualCopyOfStoredTraining() {
+        Training training = new Training(1L, 2L, 3L, "Morning Session", "Cardio", 45, LocalDate.of(2024, 1, 10));
+        store.put(1L, training);
+
+        Training stored = store.get(1L);
+
+        assertEquals(training, stored);
+        assertNotSame(training, stored);
+    }
+
+    @Test
+    void get_ShouldKeepNullFields() {
+        Training training = new Training(1L, null, null, null, null, 0, null);
+        store.put(1L, training);
+
+        assertEquals(training, store.get(1L));
+    }
+
+    @Test
+    void put_ShouldReuseRowsOfReplacedAndRemovedTrainings() {
+        for (int round = 0; round < 10; round++) {
+            store.put(1L, training(1L, "Cardio", 30 + round));
+            store.put(2L, training(2L, "Yoga", 60));
+            store.remove(2L);
+        }
+
+        assertEquals(2, columns.rowCount());
+        assertEquals(39, store.get(1L).getTrainingDuration());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void put_ShouldNotHoldOnToNamesOfRenamedTrainings() {
+        Training first = training(1L, "Cardio", 30);
+        first.setTrainingName(new String("Session 0"));
+        WeakReference<String> firstName = new WeakReference<>(first.getTrainingName());
+        store.put(1L, first);
+        first = null;
+        for (int round = 1; round <= 10; round++) {
+            Training renamed = training(1L, "Cardio", 30);
+            renamed.setTrainingName("Session " + round);
+            store.put(1L, renamed);
+        }
+
+        for (int attempt = 0; attempt < 10 && firstName.get() != null; attempt++) {
+            System.gc();
+        }
+
+        assertNull(firstName.get());
+        assertEquals("Session 10", store.get(1L).getTrainingName());
+        assertEquals(2, columns.rowCount());
+    }
+
+    @Test
+    void view_ShouldKeepRowsOfReplacedTrainingsUntilClosed() {
+        InMemoryStorage storage = new InMemoryStorage(List.of());
+        storage.put(training(1L, "Cardio", 30));
+
+        try (StorageView view = storage.openView()) {
+            storage.put(training(1L, "Yoga", 60));
+            storage.getTrainingStorage().remove(1L);
+            storage.put(training(2L, "Pilates", 45));
+
+            assertEquals(training(1L, "Cardio", 30), view.get(SeedKind.TRAINING, 1L));
+            assertNull(view.get(SeedKind.TRAINING, 2L));
+        }
+
+        assertNull(storage.getTrainingStorage().get(1L));
+        assertEquals(training(2L, "Pilates", 45), storage.getTrainingStorage().get(2L));
+    }
+
+    @Test
+    void totalDurationByType_ShouldSumCurrentTrainingsOnly() {
+        store.put(1L, training(1L, "Cardio", 30));
+        store.put(2L, training(2L, "Cardio", 45));
+        store.put(3L, training(3L, "Yoga", 60));
+        store.put(4L, training(4L, null, 20));
+        store.put(3L, training(3L, "Yoga", 90));
+        store.put(2L, training(2L, "Strength", 40));
+        store.remove(1L);
+
+        Map<String, Long> totals = columns.totalDurationByType();
+
+        assertEquals(3, totals.size());
+        assertEquals(40L, totals.get("Strength"));
+        assertEquals(90L, totals.get("Yoga"));
+        assertEquals(20L, totals.get(null));
+    }
+
+    @Test
+    void idsOfType_ShouldFindCurrentTrainingsOfThatTypeOnly() {
+        StringDictionary types = new StringDictionary();
+        columns = newColumns(types);
+        store = new EntityStore<>(new VersionClock(), columns);
+        store.put(1L, training(1L, "Cardio", 30));
+        store.put(2L, training(2L, "Yoga", 45));
+        store.put(3L, training(3L, "Cardio", 60));
+        store.put(4L, training(4L, "Cardio", 20));
+        store.put(3L, training(3L, "Yoga", 60));
+        store.remove(4L);
+
+        assertArrayEquals(new long[]{1L}, columns.idsOfType(types.find("Cardio")));
+        assertEquals(2, columns.idsOfType(types.find("Yoga")).length);
+    }
+
+    @Test
+    void setOffHeap_ShouldBeRejectedOnceRowsExist() {
+        boolean offHeap = columns.isOffHeap();
+        store.put(1L, training(1L, "Cardio", 30));
+
+        assertThrows(IllegalStateException.class, () -> columns.setOffHeap(!offHeap));
+        columns.setOffHeap(offHeap);
+    }
+
+    @Test
+    void get_ShouldNeverSeeHalfWrittenRowWhileUpdated() throws Exception {
+        store.put(1L, consistent(1L, 0));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Training> torn = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                Training training = store.get(1L);
+                if (training == null || !training.getTraineeId().equals(training.getTrainerId())
+                        || training.getTrainingDuration() != training.getTraineeId()) {
+                    torn.set(training);
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int k = 1; k < 200_000; k++) {
+                store.put(1L, consistent(1L, k));
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        assertNull(torn.get());
+        assertTrue(columns.rowCount() <= 2);
+    }
+
+    private static Training training(long id, String type, int duration) {
+        return new Training(id, 1L, 1L, "Session", type, duration, LocalDate.of(2024, 1, 1));
+    }
+
+    private static Training consistent(long id, int k) {
+        return new Training(id, (long) k, (long) k, "Session", "Cardio", k, LocalDate.of(2024, 1, 1));
+    }
+}
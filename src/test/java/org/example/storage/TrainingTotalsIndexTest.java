@@ -0,0 +1,77 @@
+package org.example.storage;
+
+import org.example.entity.Training;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingTotalsIndexTest {
+
+    private TrainingTotalsIndex totals;
+    private EntityStore<Training> store;
+
+    @BeforeEach
+    void setUp() {
+        totals = new TrainingTotalsIndex();
+        store = new EntityStore<>(totals);
+    }
+
+    @Test
+    void put_ShouldAddToTraineeTrainerAndTypeTotals() {
+        store.put(1L, training(1L, 7L, 3L, "Yoga", 60, LocalDate.of(2024, 1, 15)));
+        store.put(2L, training(2L, 7L, 4L, "Yoga", 45, LocalDate.of(2024, 2, 1)));
+
+        assertEquals(new TrainingTotals(2, 105, LocalDate.of(2024, 2, 1)), totals.forTrainee(7L));
+        assertEquals(new TrainingTotals(1, 60, LocalDate.of(2024, 1, 15)), totals.forTrainer(3L));
+        assertEquals(new TrainingTotals(2, 105, LocalDate.of(2024, 2, 1)), totals.forType("Yoga"));
+        assertEquals(TrainingTotals.NONE, totals.forTrainee(8L));
+        assertEquals(TrainingTotals.NONE, totals.forTrainee(null));
+    }
+
+    @Test
+    void put_ShouldMoveAReassignedTrainingBetweenTotals() {
+        store.put(1L, training(1L, 7L, 3L, "Yoga", 60, LocalDate.of(2024, 1, 15)));
+
+        store.put(1L, training(1L, 8L, 3L, "Zumba", 30, LocalDate.of(2024, 1, 10)));
+
+        assertEquals(TrainingTotals.NONE, totals.forTrainee(7L));
+        assertEquals(TrainingTotals.NONE, totals.forType("Yoga"));
+        assertEquals(new TrainingTotals(1, 30, LocalDate.of(2024, 1, 10)), totals.forTrainee(8L));
+        assertEquals(new TrainingTotals(1, 30, LocalDate.of(2024, 1, 10)), totals.forTrainer(3L));
+    }
+
+    @Test
+    void remove_ShouldFallBackToThePreviousLatestDate() {
+        store.put(1L, training(1L, 7L, 3L, "Yoga", 60, LocalDate.of(2024, 1, 15)));
+        store.put(2L, training(2L, 7L, 3L, "Yoga", 45, LocalDate.of(2024, 3, 1)));
+        store.put(3L, training(3L, 7L, 3L, "Yoga", 30, LocalDate.of(2024, 3, 1)));
+
+        store.remove(3L);
+        assertEquals(new TrainingTotals(2, 105, LocalDate.of(2024, 3, 1)), totals.forTrainee(7L));
+        store.remove(2L);
+        assertEquals(new TrainingTotals(1, 60, LocalDate.of(2024, 1, 15)), totals.forTrainee(7L));
+        store.remove(1L);
+        assertEquals(TrainingTotals.NONE, totals.forTrainee(7L));
+    }
+
+    @Test
+    void putAll_ShouldBeUndoneWhenALaterIndexRejectsTheBatch() {
+        UniqueIndex<Training, String> names = new UniqueIndex<>("training name", Training::getTrainingName);
+        store = new EntityStore<>(totals, names);
+        store.put(1L, training(1L, 7L, 3L, "Yoga", 60, LocalDate.of(2024, 1, 15)));
+        Training clash = training(2L, 7L, 3L, "Yoga", 45, LocalDate.of(2024, 2, 1));
+        clash.setTrainingName("Session 1");
+
+        assertThrows(DuplicateKeyException.class, () -> store.putAll(Map.of(2L, clash)));
+
+        assertEquals(new TrainingTotals(1, 60, LocalDate.of(2024, 1, 15)), totals.forTrainee(7L));
+    }
+
+    private static Training training(Long id, Long traineeId, Long trainerId, String type, int minutes, LocalDate date) {
+        return new Training(id, traineeId, trainerId, "Session " + id, type, minutes, date);
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.storage;
+
+import org.example.entity.Trainer;
+import org.example.entity.Training;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the trainings of one type by comparing type strings on every stored object versus comparing
+ * dictionary codes down the type column. Setup also prints the heap each trainer retains when every
+ * specialization is its own string, as parsing produces, and when they share the dictionary's instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx6g", "-XX:+UseSerialGC"})
+@State(Scope.Benchmark)
+public class TrainingTypeFilterBenchmark {
+
+    private static final int TYPES = 12;
+
+    @Param({"1000000"})
+    private int trainings;
+
+    private EntityStore<Training> objects;
+    private TrainingColumns columns;
+    private EntityStore<Training> columnStore;
+    private StringDictionary types;
+    private List<Trainer> trainers;
+    private String type;
+
+    @Setup
+    public void setUp() {
+        types = new StringDictionary();
+        objects = new EntityStore<>();
+        columns = new TrainingColumns(types);
+        columnStore = new EntityStore<>(new VersionClock(), columns);
+        for (long id = 1; id <= trainings; id++) {
+            Training training = new Training(id, id % 10_000 + 1, id % 97 + 1, "Session " + id % 50,
+                    new String("Type" + id % TYPES), 60, LocalDate.of(2024, 1, 1).plusDays(id % 700));
+            objects.put(id, training);
+            columnStore.put(id, training);
+        }
+        type = new String("Type5");
+
+        long before = usedHeap();
+        trainers = trainers(false);
+        long separate = usedHeap();
+        trainers = null;
+        long cleared = usedHeap();
+        trainers = trainers(true);
+        long shared = usedHeap();
+        System.out.printf("%nRetained bytes per trainer: separate strings %d, interned %d%n",
+                (separate - before) / trainings, (shared - cleared) / trainings);
+    }
+
+    @Benchmark
+    public List<Training> stringCompare() {
+        List<Training> result = new ArrayList<>();
+        for (Training training : objects.values()) {
+            if (type.equals(training.getTrainingType())) {
+                result.add(training);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long[] codeCompare() {
+        return columns.idsOfType(types.find(type));
+    }
+
+    @Benchmark
+    public List<Training> codeCompareAndResolve() {
+        long[] ids = columns.idsOfType(types.find(type));
+        List<Training> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(columnStore.get(id));
+        }
+        return result;
+    }
+
+    private List<Trainer> trainers(boolean interned) {
+        List<Trainer> result = new ArrayList<>(trainings);
+        for (long id = 1; id <= trainings; id++) {
+            String specialization = new String("Type" + id % TYPES);
+            result.add(new Trainer(id, interned ? types.intern(specialization) : specialization, id));
+        }
+        return result;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.storage;
+
+import org.example.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameSuffixIndexTest {
+
+    private UsernameSuffixIndex suffixes;
+    private EntityStore<User> store;
+
+    @BeforeEach
+    void setUp() {
+        suffixes = new UsernameSuffixIndex();
+        store = new EntityStore<>(suffixes);
+    }
+
+    @Test
+    void claim_ShouldHandOutDistinctSuffixesFromZero() {
+        Set<Long> claimed = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(claimed.add(suffixes.claim("John.Doe")));
+        }
+
+        assertTrue(claimed.contains(0L));
+        assertEquals(0L, suffixes.claim("Ann.Lee"));
+    }
+
+    @Test
+    void claim_ShouldStartAboveStoredSuffixesOfTheStem() {
+        store.put(1L, user("John.Smith"));
+        store.put(2L, user("John.Smith7"));
+        store.put(3L, user("John.Smithson"));
+
+        assertEquals(8L, suffixes.claim("John.Smith"));
+        assertEquals(1L, suffixes.claim("John.Smithson"));
+    }
+
+    @Test
+    void claim_ShouldCountNamesMadeFromOtherNames() {
+        store.put(1L, user("John.Smith1"));
+
+        assertEquals(2L, suffixes.claim("John.Smith"));
+    }
+
+    @Test
+    void claim_ShouldResumeAboveTheMaximumWhenRebuiltFromStoredUsers() {
+        store.put(1L, user("John.Doe"));
+        store.put(2L, user("John.Doe12"));
+        suffixes.claim("John.Doe");
+
+        UsernameSuffixIndex rebuilt = new UsernameSuffixIndex();
+        new EntityStore<>(rebuilt).putAll(Map.of(1L, store.get(1L), 2L, store.get(2L)));
+
+        assertEquals(13L, rebuilt.claim("John.Doe"));
+    }
+
+    @Test
+    void release_ShouldDropAStemClaimedForAUserNeverStored() {
+        suffixes.claim("Ann.Lee");
+        suffixes.claim("Ann.Lee");
+
+        suffixes.release("Ann.Lee1");
+
+        assertEquals(0, suffixes.size());
+        assertEquals(0L, suffixes.claim("Ann.Lee"));
+    }
+
+    @Test
+    void release_ShouldKeepAStemThatAStoredUserHolds() {
+        store.put(1L, user("John.Doe"));
+        assertEquals(1L, suffixes.claim("John.Doe"));
+
+        suffixes.release("John.Doe1");
+
+        assertEquals(2L, suffixes.claim("John.Doe"));
+    }
+
+    @Test
+    void remove_ShouldNotHandOutASuffixAgainWhileNamesakesRemain() {
+        store.put(1L, user("John.Doe"));
+        store.put(2L, user("John.Doe1"));
+
+        store.remove(2L);
+
+        assertEquals(2L, suffixes.claim("John.Doe"));
+    }
+
+    @Test
+    void remove_ShouldDropAStemWithItsLastUser() {
+        store.put(1L, user("John.Doe"));
+        store.put(2L, user("John.Doe1"));
+
+        store.remove(1L);
+        store.remove(2L);
+
+        assertEquals(0, suffixes.size());
+    }
+
+    @Test
+    void put_ShouldMoveARenamedUserToItsNewStem() {
+        store.put(1L, user("John.Doe3"));
+
+        store.put(1L, user("Jane.Doe"));
+
+        assertEquals(0L, suffixes.claim("John.Doe"));
+        assertEquals(1L, suffixes.claim("Jane.Doe"));
+    }
+
+    @Test
+    void put_ShouldKeepDigitRunsTooLongForASuffixInTheStem() {
+        store.put(1L, user("John.Doe12345678901234567890"));
+
+        assertEquals(0L, suffixes.claim("John.Doe"));
+        assertEquals(1L, suffixes.claim("John.Doe12345678901234567890"));
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passwords from four threads: a new java.util.Random per password as the generator used to do, one at a time
+ * from a SecureRandom per thread, in bulk from the same, and from the pool kept ready by the background thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PasswordGenerationBenchmark {
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private PasswordGenerator unpooled;
+    private PasswordGenerator pooled;
+
+    @Setup
+    public void setUp() {
+        unpooled = new PasswordGenerator();
+        pooled = new PasswordGenerator();
+        pooled.setPoolSize(1024);
+        pooled.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.stop();
+    }
+
+    @Benchmark
+    public String newRandomPerPassword() {
+        Random random = new Random();
+        StringBuilder password = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            password.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+        }
+        return password.toString();
+    }
+
+    @Benchmark
+    public String secureRandomPerThread() {
+        return unpooled.generatePassword();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public List<String> bulk() {
+        return unpooled.generate(1000);
+    }
+
+    @Benchmark
+    public String pooled() {
+        return pooled.generatePassword();
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordGeneratorTest {
+
+    private final PasswordGenerator passwordGenerator = new PasswordGenerator();
+
+    @AfterEach
+    void tearDown() {
+        passwordGenerator.stop();
+    }
+
+    @Test
+    void generatePassword_ShouldReturnTenAlphanumericCharacters() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(passwordGenerator.generatePassword().matches("[A-Za-z0-9]{10}"));
+        }
+    }
+
+    @Test
+    void generate_ShouldReturnRequestedNumberOfDistinctPasswords() {
+        List<String> passwords = passwordGenerator.generate(5_000);
+
+        assertEquals(5_000, passwords.size());
+        assertEquals(5_000, new HashSet<>(passwords).size());
+        assertTrue(passwords.stream().allMatch(p -> p.matches("[A-Za-z0-9]{10}")));
+    }
+
+    @Test
+    void generate_ShouldServeFromPoolAndTopUpBeyondIt() {
+        passwordGenerator.setPoolSize(16);
+        passwordGenerator.start();
+
+        List<String> passwords = passwordGenerator.generate(100);
+
+        assertEquals(100, passwords.size());
+        assertEquals(100, new HashSet<>(passwords).size());
+        assertTrue(passwordGenerator.generatePassword().matches("[A-Za-z0-9]{10}"));
+    }
+
+    @Test
+    void generate_ShouldUseEveryCharacter() {
+        HashSet<Character> seen = new HashSet<>();
+        for (String password : passwordGenerator.generate(1_000)) {
+            password.chars().forEach(c -> seen.add((char) c));
+        }
+
+        assertEquals(62, seen.size());
+    }
+}
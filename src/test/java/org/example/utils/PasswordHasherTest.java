@@ -0,0 +1,82 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void setUp() {
+        passwordHasher = new PasswordHasher();
+        passwordHasher.setIterations(1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.stop();
+    }
+
+    @Test
+    void hash_ShouldBeSaltedAndMatchOnlyThePassword() {
+        String first = passwordHasher.hash("Pass123456");
+        String second = passwordHasher.hash("Pass123456");
+
+        assertNotEquals(first, second);
+        assertTrue(first.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(passwordHasher.isHashed(first));
+        assertTrue(passwordHasher.matches("Pass123456", first));
+        assertTrue(passwordHasher.matches("Pass123456", second));
+        assertFalse(passwordHasher.matches("Pass123457", first));
+    }
+
+    @Test
+    void matches_ShouldKeepTheCostEachHashWasMadeWith() {
+        String cheap = passwordHasher.hash("Pass123456");
+        passwordHasher.setIterations(2_000);
+
+        assertTrue(passwordHasher.matches("Pass123456", cheap));
+        assertTrue(passwordHasher.hash("Pass123456").startsWith("pbkdf2-sha256$2000$"));
+    }
+
+    @Test
+    void matches_ShouldRejectUnhashedValues() {
+        assertFalse(passwordHasher.matches("pass123456", "pass123456"));
+        assertFalse(passwordHasher.matches("pass123456", null));
+        assertFalse(passwordHasher.isHashed("pass123456"));
+    }
+
+    @Test
+    void matches_ShouldRejectMalformedHashes() {
+        assertFalse(passwordHasher.matches("Pass123456", "pbkdf2-sha256$x$abc$def"));
+        assertFalse(passwordHasher.matches("Pass123456", "pbkdf2-sha256$1000$abc"));
+        assertFalse(passwordHasher.matches("Pass123456", "pbkdf2-sha256$1000$!!$!!"));
+        assertFalse(passwordHasher.matches(null, "pass"));
+    }
+
+    @Test
+    void setIterations_ShouldRejectNonPositiveCost() {
+        assertThrows(IllegalArgumentException.class, () -> passwordHasher.setIterations(0));
+    }
+
+    @Test
+    void hashAll_ShouldHashInOrderOnThePool() {
+        passwordHasher.setThreads(2);
+        passwordHasher.start();
+        List<String> passwords = IntStream.range(0, 200).mapToObj(i -> "Pass" + i).toList();
+
+        List<String> hashes = passwordHasher.hashAll(passwords).join();
+
+        assertEquals(200, hashes.size());
+        for (int i = 0; i < passwords.size(); i += 37) {
+            assertTrue(passwordHasher.matches(passwords.get(i), hashes.get(i)));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.utils;
+
+import org.example.entity.User;
+import org.example.storage.UsernameSuffixIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Naming the next "John.Smith" when the given number of namesakes exist already, by probing suffixes
+ * from 1 as the generator used to, versus claiming the next suffix from a {@link UsernameSuffixIndex}.
+ * Existence checks go to a hash set, as they go to the username index in the storage. Names handed out
+ * by claims are not added to it, so the set stays the same size as for probing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UsernameGenerationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int namesakes;
+
+    private Set<String> taken;
+    private UsernameGenerator generator;
+    private UsernameSuffixIndex suffixes;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        taken = new HashSet<>();
+        generator = new UsernameGenerator();
+        suffixes = new UsernameSuffixIndex();
+        for (int i = 0; i < namesakes; i++) {
+            User user = new User();
+            user.setUsername(generator.generateUsername("John", "Smith", taken::contains, suffixes::claim));
+            taken.add(user.getUsername());
+            suffixes.onPut(i, null, user);
+        }
+    }
+
+    @Benchmark
+    public String probing() {
+        String baseUsername = "John.Smith";
+        if (!taken.contains(baseUsername)) {
+            return baseUsername;
+        }
+        int counter = 1;
+        while (taken.contains(baseUsername + counter)) {
+            counter++;
+        }
+        return baseUsername + counter;
+    }
+
+    @Benchmark
+    public String claim() {
+        return generator.generateUsername("John", "Smith", taken::contains, suffixes::claim);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameGeneratorTest {
+
+    private final UsernameGenerator usernameGenerator = new UsernameGenerator();
+
+    private final Map<String, AtomicLong> suffixes = new ConcurrentHashMap<>();
+    private final ToLongFunction<String> claimer =
+            stem -> suffixes.computeIfAbsent(stem, k -> new AtomicLong()).getAndIncrement();
+
+    @Test
+    void generateUsername_ShouldTakeClaimedSuffix() {
+        Set<String> existing = Set.of();
+
+        assertEquals("Ann.Lee", usernameGenerator.generateUsername("Ann", "Lee", existing::contains, claimer));
+        assertEquals("John.Doe", usernameGenerator.generateUsername(" John ", "Doe", existing::contains, claimer));
+        assertEquals("John.Doe1", usernameGenerator.generateUsername("John", "Doe ", existing::contains, claimer));
+    }
+
+    @Test
+    void generateUsername_ShouldSkipSuffixThatIsTaken() {
+        Set<String> existing = Set.of("John.Doe1");
+
+        assertEquals("John.Doe", usernameGenerator.generateUsername("John", "Doe", existing::contains, claimer));
+        assertEquals("John.Doe2", usernameGenerator.generateUsername("John", "Doe", existing::contains, claimer));
+    }
+
+    @Test
+    void generateUsername_ShouldProbeWhenNameEndsInADigit() {
+        Set<String> existing = Set.of("John.Smith1", "John.Smith11");
+
+        assertEquals("John.Smith12", usernameGenerator.generateUsername("John", "Smith1", existing::contains,
+                stem -> fail("claimed a suffix for " + stem)));
+    }
+
+    @Test
+    void batch_ShouldKeepNamesakesApartAndSkipExistingUsernames() {
+        Set<String> existing = Set.of("John.Doe", "John.Doe2");
+        UsernameGenerator.Batch batch = usernameGenerator.newBatch(existing::contains, claimer);
+
+        assertEquals("John.Doe1", batch.next("John", "Doe"));
+        assertEquals("Ann.Lee", batch.next("Ann", "Lee"));
+        assertEquals("John.Doe3", batch.next("John", "Doe"));
+        assertEquals("Ann.Lee1", batch.next("Ann", " Lee"));
+    }
+
+    @Test
+    void batch_ShouldKeepProbedNamesakesApart() {
+        UsernameGenerator.Batch batch = usernameGenerator.newBatch(username -> false, claimer);
+
+        assertEquals("Ann.Lee2", batch.next("Ann", "Lee2"));
+        assertEquals("Ann.Lee21", batch.next("Ann", "Lee2"));
+    }
+
+    @Test
+    void generateUsername_ShouldCheckOneCandidatePerNamesake() {
+        Set<String> taken = new HashSet<>();
+        AtomicInteger checks = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++) {
+            taken.add(usernameGenerator.generateUsername("John", "Smith", username -> {
+                checks.incrementAndGet();
+                return taken.contains(username);
+            }, claimer));
+        }
+
+        assertEquals(10_000, taken.size());
+        assertEquals(10_000, checks.get());
+        assertTrue(taken.contains("John.Smith9999"));
+    }
+
+    @Test
+    void generateUsername_ShouldHandOutDistinctNamesAcrossThreads() throws InterruptedException, ExecutionException {
+        Set<String> taken = ConcurrentHashMap.newKeySet();
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> names = new ArrayList<>();
+                    for (int i = 0; i < 1_000; i++) {
+                        String name = usernameGenerator.generateUsername("John", "Doe", taken::contains, claimer);
+                        taken.add(name);
+                        names.add(name);
+                    }
+                    return names;
+                }));
+            }
+            Set<String> names = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                names.addAll(future.get());
+            }
+
+            assertEquals(4_000, names.size());
+        }
+    }
+}